@@ -13,16 +13,24 @@ import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
 
-import java.util.Arrays;
+import java.lang.reflect.Array;
+import java.util.Collection;
+import java.util.Map;
+import java.util.StringJoiner;
 
 /**
  * Aspect for logging execution of service and repository Spring components.
  *
  * By default, it only runs with the "dev" profile.
+ * <p>
+ * Arguments and results are logged without being serialized whole: arrays, collections and maps are logged with
+ * their size, and values are truncated to {@value #MAX_VALUE_LENGTH} characters.
  */
 @Aspect
 public class LoggingAspect {
 
+    static final int MAX_VALUE_LENGTH = 200;
+
     private final Environment env;
 
     public LoggingAspect(Environment env) {
@@ -97,17 +105,48 @@ public class LoggingAspect {
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
         Logger log = logger(joinPoint);
         if (log.isDebugEnabled()) {
-            log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+            log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), formatArguments(joinPoint.getArgs()));
         }
         try {
             Object result = joinPoint.proceed();
             if (log.isDebugEnabled()) {
-                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), format(result));
             }
             return result;
         } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
+            log.error("Illegal argument: {} in {}()", formatArguments(joinPoint.getArgs()), joinPoint.getSignature().getName());
             throw e;
         }
     }
+
+    static String formatArguments(Object[] args) {
+        StringJoiner arguments = new StringJoiner(", ", "[", "]");
+        for (Object arg : args) {
+            arguments.add(format(arg));
+        }
+        return arguments.toString();
+    }
+
+    /**
+     * Format a value for the logs, without calling {@code toString()} on arrays, collections and maps, and truncating
+     * the other values.
+     */
+    static String format(Object value) {
+        if (value == null) {
+            return "null";
+        }
+        if (value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+        }
+        if (value instanceof Collection) {
+            return value.getClass().getSimpleName() + "(size=" + ((Collection<?>) value).size() + ")";
+        }
+        if (value instanceof Map) {
+            return value.getClass().getSimpleName() + "(size=" + ((Map<?, ?>) value).size() + ")";
+        }
+        CharSequence text = value instanceof CharSequence ? (CharSequence) value : value.toString();
+        return text.length() > MAX_VALUE_LENGTH
+            ? text.subSequence(0, MAX_VALUE_LENGTH) + "...(" + text.length() + " chars)"
+            : text.toString();
+    }
 }
@@ -0,0 +1,121 @@
+package org.jhipster.space.aop.timing;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aspect timing a sample of the executions of service and repository Spring components, and Web REST endpoints.
+ * <p>
+ * Sampled executions are recorded in the {@value #METRIC_NAME} timer, tagged by class, method and outcome; the other
+ * executions only cost a random draw. Timer counts are thus sampled too, while their percentiles are not biased. The
+ * arguments are never read.
+ * <p>
+ * It only runs when {@code application.method-timing.enabled} is set.
+ */
+@Aspect
+public class MethodTimingAspect {
+
+    public static final String METRIC_NAME = "method.execution";
+
+    private final MeterRegistry meterRegistry;
+
+    private final double sampleRate;
+
+    private final boolean percentileHistogram;
+
+    private final ConcurrentMap<Method, Timers> timers = new ConcurrentHashMap<>();
+
+    public MethodTimingAspect(MeterRegistry meterRegistry, double sampleRate, boolean percentileHistogram) {
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = sampleRate;
+        this.percentileHistogram = percentileHistogram;
+    }
+
+    /**
+     * Pointcut that matches all repositories, services and Web REST endpoints.
+     */
+    @Pointcut("within(@org.springframework.stereotype.Repository *)" +
+        " || within(@org.springframework.stereotype.Service *)" +
+        " || within(@org.springframework.web.bind.annotation.RestController *)")
+    public void springBeanPointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Pointcut that matches all Spring beans in the application's main packages.
+     */
+    @Pointcut("within(org.jhipster.space.repository..*)"+
+        " || within(org.jhipster.space.service..*)"+
+        " || within(org.jhipster.space.web.rest..*)")
+    public void applicationPackagePointcut() {
+        // Method is empty as this is just a Pointcut, the implementations are in the advices.
+    }
+
+    /**
+     * Advice that times a sample of the method executions.
+     *
+     * @param joinPoint join point for advice.
+     * @return result.
+     * @throws Throwable the exception of the method.
+     */
+    @Around("applicationPackagePointcut() && springBeanPointcut()")
+    public Object timeAround(ProceedingJoinPoint joinPoint) throws Throwable {
+        if (sampleRate < 1 && ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return joinPoint.proceed();
+        }
+        long start = System.nanoTime();
+        boolean failed = true;
+        try {
+            Object result = joinPoint.proceed();
+            failed = false;
+            return result;
+        } finally {
+            long duration = System.nanoTime() - start;
+            Timers methodTimers = timers(joinPoint);
+            (failed ? methodTimers.error : methodTimers.success).record(duration, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timers timers(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        Timers methodTimers = timers.get(method);
+        if (methodTimers == null) {
+            methodTimers = timers.computeIfAbsent(method,
+                key -> new Timers(joinPoint.getSignature().getDeclaringType().getSimpleName(), key.getName()));
+        }
+        return methodTimers;
+    }
+
+    private final class Timers {
+
+        private final Timer success;
+
+        private final Timer error;
+
+        private Timers(String className, String methodName) {
+            this.success = timer(className, methodName, "success");
+            this.error = timer(className, methodName, "error");
+        }
+
+        private Timer timer(String className, String methodName, String outcome) {
+            return Timer.builder(METRIC_NAME)
+                .description("Sampled executions of the application's Spring components")
+                .tag("class", className)
+                .tag("method", methodName)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram(percentileHistogram)
+                .register(meterRegistry);
+        }
+    }
+}
@@ -2,6 +2,13 @@ package org.jhipster.space.config;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
 /**
  * Properties specific to Space.
  * <p>
@@ -10,4 +17,921 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
 public class ApplicationProperties {
+
+    private final Security security = new Security();
+
+    private final AuditEvents auditEvents = new AuditEvents();
+
+    private final MailOutbox mailOutbox = new MailOutbox();
+
+    private final MailTemplates mailTemplates = new MailTemplates();
+
+    private final MailCampaigns mailCampaigns = new MailCampaigns();
+
+    private final Async async = new Async();
+
+    private final Users users = new Users();
+
+    private final MethodTiming methodTiming = new MethodTiming();
+
+    public Security getSecurity() {
+        return security;
+    }
+
+    public AuditEvents getAuditEvents() {
+        return auditEvents;
+    }
+
+    public MailOutbox getMailOutbox() {
+        return mailOutbox;
+    }
+
+    public MailTemplates getMailTemplates() {
+        return mailTemplates;
+    }
+
+    public MailCampaigns getMailCampaigns() {
+        return mailCampaigns;
+    }
+
+    public Async getAsync() {
+        return async;
+    }
+
+    public Users getUsers() {
+        return users;
+    }
+
+    public MethodTiming getMethodTiming() {
+        return methodTiming;
+    }
+
+    public static class Security {
+
+        private final PasswordHash passwordHash = new PasswordHash();
+
+        private final LoginRateLimit loginRateLimit = new LoginRateLimit();
+
+        private final ApiRateLimit apiRateLimit = new ApiRateLimit();
+
+        public PasswordHash getPasswordHash() {
+            return passwordHash;
+        }
+
+        public LoginRateLimit getLoginRateLimit() {
+            return loginRateLimit;
+        }
+
+        public ApiRateLimit getApiRateLimit() {
+            return apiRateLimit;
+        }
+
+        public static class PasswordHash {
+
+            /**
+             * Hashing time a single BCrypt encoding should take on this node; the work factor is calibrated to it at startup.
+             */
+            private Duration targetLatency = Duration.ofMillis(50);
+
+            /**
+             * Lowest work factor calibration may pick, whatever the hardware.
+             */
+            private int minStrength = 10;
+
+            /**
+             * Highest work factor calibration may pick, whatever the hardware.
+             */
+            private int maxStrength = 16;
+
+            /**
+             * Fixed work factor; when set, calibration is skipped.
+             */
+            private Integer strength;
+
+            /**
+             * Threads hashing the passwords of batch operations; hashing is CPU bound, so this is best kept at most
+             * the number of processors.
+             */
+            private int parallelism = Runtime.getRuntime().availableProcessors();
+
+            public Duration getTargetLatency() {
+                return targetLatency;
+            }
+
+            public void setTargetLatency(Duration targetLatency) {
+                this.targetLatency = targetLatency;
+            }
+
+            public int getMinStrength() {
+                return minStrength;
+            }
+
+            public void setMinStrength(int minStrength) {
+                this.minStrength = minStrength;
+            }
+
+            public int getMaxStrength() {
+                return maxStrength;
+            }
+
+            public void setMaxStrength(int maxStrength) {
+                this.maxStrength = maxStrength;
+            }
+
+            public Integer getStrength() {
+                return strength;
+            }
+
+            public void setStrength(Integer strength) {
+                this.strength = strength;
+            }
+
+            public int getParallelism() {
+                return parallelism;
+            }
+
+            public void setParallelism(int parallelism) {
+                this.parallelism = parallelism;
+            }
+        }
+
+        public static class LoginRateLimit {
+
+            private boolean enabled = true;
+
+            /**
+             * Maximum number of token buckets kept in memory, for each of the login and address limits.
+             */
+            private int maxEntries = 100_000;
+
+            private final Bucket perLogin = new Bucket(10, Duration.ofMinutes(5));
+
+            private final Bucket perAddress = new Bucket(50, Duration.ofMinutes(1));
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public Bucket getPerLogin() {
+                return perLogin;
+            }
+
+            public Bucket getPerAddress() {
+                return perAddress;
+            }
+
+            public static class Bucket {
+
+                /**
+                 * Number of attempts allowed in a burst.
+                 */
+                private int capacity;
+
+                /**
+                 * Time for an exhausted bucket to allow a full burst again; at least a tenth of a second per attempt,
+                 * the application does not start otherwise.
+                 */
+                private Duration refillPeriod;
+
+                public Bucket(int capacity, Duration refillPeriod) {
+                    this.capacity = capacity;
+                    this.refillPeriod = refillPeriod;
+                }
+
+                public int getCapacity() {
+                    return capacity;
+                }
+
+                public void setCapacity(int capacity) {
+                    this.capacity = capacity;
+                }
+
+                public Duration getRefillPeriod() {
+                    return refillPeriod;
+                }
+
+                public void setRefillPeriod(Duration refillPeriod) {
+                    this.refillPeriod = refillPeriod;
+                }
+            }
+        }
+
+        public static class ApiRateLimit {
+
+            private boolean enabled = true;
+
+            /**
+             * Maximum number of keys kept in memory by the default, node-local, store.
+             */
+            private int maxEntries = 100_000;
+
+            /**
+             * Quotas checked in order; a request is rejected by the first matching quota it exceeds.
+             */
+            private List<Quota> quotas = new ArrayList<>();
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMaxEntries() {
+                return maxEntries;
+            }
+
+            public void setMaxEntries(int maxEntries) {
+                this.maxEntries = maxEntries;
+            }
+
+            public List<Quota> getQuotas() {
+                return quotas;
+            }
+
+            public void setQuotas(List<Quota> quotas) {
+                this.quotas = quotas;
+            }
+
+            public static class Quota {
+
+                /**
+                 * Name of the quota, used in keys and metrics.
+                 */
+                private String name;
+
+                /**
+                 * Ant-style path pattern of the requests counted by this quota.
+                 */
+                private String pattern;
+
+                /**
+                 * HTTP methods counted by this quota; all methods when empty.
+                 */
+                private List<String> methods = new ArrayList<>();
+
+                private Scope scope = Scope.USER;
+
+                /**
+                 * Number of requests allowed per period, all of which may be sent in a burst.
+                 */
+                private int limit;
+
+                private Duration period;
+
+                public String getName() {
+                    return name;
+                }
+
+                public void setName(String name) {
+                    this.name = name;
+                }
+
+                public String getPattern() {
+                    return pattern;
+                }
+
+                public void setPattern(String pattern) {
+                    this.pattern = pattern;
+                }
+
+                public List<String> getMethods() {
+                    return methods;
+                }
+
+                public void setMethods(List<String> methods) {
+                    this.methods = methods;
+                }
+
+                public Scope getScope() {
+                    return scope;
+                }
+
+                public void setScope(Scope scope) {
+                    this.scope = scope;
+                }
+
+                public int getLimit() {
+                    return limit;
+                }
+
+                public void setLimit(int limit) {
+                    this.limit = limit;
+                }
+
+                public Duration getPeriod() {
+                    return period;
+                }
+
+                public void setPeriod(Duration period) {
+                    this.period = period;
+                }
+
+                public enum Scope {
+                    /**
+                     * Each user, or each remote address for anonymous requests, has its own quota.
+                     */
+                    USER,
+                    /**
+                     * All callers share the quota.
+                     */
+                    ROUTE
+                }
+            }
+        }
+    }
+    public static class AuditEvents {
+
+        /**
+         * Number of audit events that may wait to be saved; rounded up to a power of two.
+         */
+        private int queueCapacity = 8192;
+
+        /**
+         * Maximum number of audit events saved in one transaction.
+         */
+        private int batchSize = 100;
+
+        /**
+         * Maximum time an audit event waits before being saved, when fewer than a batch are queued.
+         */
+        private Duration flushInterval = Duration.ofMillis(500);
+
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        /**
+         * Number of times a batch that could not be saved is tried, one flush interval apart, before its events are
+         * dropped.
+         */
+        private int batchMaxAttempts = 5;
+
+        /**
+         * Width of the event id range deleted in each purge transaction.
+         */
+        private int purgeChunkSize = 5000;
+
+        /**
+         * Maximum duration of a purge run; what is left is purged by the next run.
+         */
+        private Duration purgeTimeBudget = Duration.ofMinutes(10);
+
+        /**
+         * Number of monthly partitions created ahead of the current month, when audit events are partitioned.
+         */
+        private int partitionsAhead = 3;
+
+        private final Archive archive = new Archive();
+
+        private final Stats stats = new Stats();
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public int getBatchMaxAttempts() {
+            return batchMaxAttempts;
+        }
+
+        public void setBatchMaxAttempts(int batchMaxAttempts) {
+            this.batchMaxAttempts = batchMaxAttempts;
+        }
+
+        public int getPurgeChunkSize() {
+            return purgeChunkSize;
+        }
+
+        public void setPurgeChunkSize(int purgeChunkSize) {
+            this.purgeChunkSize = purgeChunkSize;
+        }
+
+        public Duration getPurgeTimeBudget() {
+            return purgeTimeBudget;
+        }
+
+        public void setPurgeTimeBudget(Duration purgeTimeBudget) {
+            this.purgeTimeBudget = purgeTimeBudget;
+        }
+
+        public int getPartitionsAhead() {
+            return partitionsAhead;
+        }
+
+        public void setPartitionsAhead(int partitionsAhead) {
+            this.partitionsAhead = partitionsAhead;
+        }
+
+        public Archive getArchive() {
+            return archive;
+        }
+
+        public Stats getStats() {
+            return stats;
+        }
+
+        public static class Archive {
+
+            /**
+             * Archive expired audit events to segment files before purging them.
+             */
+            private boolean enabled = false;
+
+            private String directory = "audit-archive";
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public String getDirectory() {
+                return directory;
+            }
+
+            public void setDirectory(String directory) {
+                this.directory = directory;
+            }
+        }
+
+        public static class Stats {
+
+            /**
+             * Types of audit events counted per principal and hour; none when empty.
+             */
+            private List<String> eventTypes = new ArrayList<>(Arrays.asList("AUTHENTICATION_SUCCESS", "AUTHENTICATION_FAILURE"));
+
+            /**
+             * Maximum number of principals counted separately within a minute; the others are counted together.
+             */
+            private int maxPrincipalsPerMinute = 10_000;
+
+            public List<String> getEventTypes() {
+                return eventTypes;
+            }
+
+            public void setEventTypes(List<String> eventTypes) {
+                this.eventTypes = eventTypes;
+            }
+
+            public int getMaxPrincipalsPerMinute() {
+                return maxPrincipalsPerMinute;
+            }
+
+            public void setMaxPrincipalsPerMinute(int maxPrincipalsPerMinute) {
+                this.maxPrincipalsPerMinute = maxPrincipalsPerMinute;
+            }
+        }
+
+        public enum OverflowPolicy {
+            /**
+             * Discard the event, and count it in the {@code audit.events.dropped} metric.
+             */
+            DROP,
+            /**
+             * Save the event on the calling thread, in its own transaction.
+             */
+            SYNCHRONOUS
+        }
+    }
+
+    public static class MailOutbox {
+
+        /**
+         * Send the emails of the outbox from this node; they are still saved to the outbox when disabled.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of emails sent over a single SMTP connection.
+         */
+        private int batchSize = 50;
+
+        /**
+         * Time between two checks of the outbox, when no email was saved in the meantime.
+         */
+        private Duration pollInterval = Duration.ofSeconds(10);
+
+        /**
+         * Number of attempts after which an email is abandoned; it is kept in the outbox.
+         */
+        private int maxAttempts = 8;
+
+        /**
+         * Delay before retrying an email that could not be sent, doubled after each attempt.
+         */
+        private Duration initialBackoff = Duration.ofSeconds(30);
+
+        private Duration maxBackoff = Duration.ofHours(1);
+
+        /**
+         * Time other nodes leave a claimed batch to the node sending it; it must exceed the time to send a batch.
+         */
+        private Duration sendLease = Duration.ofMinutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public Duration getInitialBackoff() {
+            return initialBackoff;
+        }
+
+        public void setInitialBackoff(Duration initialBackoff) {
+            this.initialBackoff = initialBackoff;
+        }
+
+        public Duration getMaxBackoff() {
+            return maxBackoff;
+        }
+
+        public void setMaxBackoff(Duration maxBackoff) {
+            this.maxBackoff = maxBackoff;
+        }
+
+        public Duration getSendLease() {
+            return sendLease;
+        }
+
+        public void setSendLease(Duration sendLease) {
+            this.sendLease = sendLease;
+        }
+    }
+
+    public static class MailTemplates {
+
+        /**
+         * Templates precompiled at startup, for each language; other templates are compiled when first rendered.
+         */
+        private List<String> names = new ArrayList<>(Arrays.asList("mail/activationEmail", "mail/creationEmail",
+            "mail/passwordResetEmail"));
+
+        /**
+         * Languages the templates are precompiled for at startup.
+         */
+        private List<String> languages = new ArrayList<>(Arrays.asList("en", "fr"));
+
+        public List<String> getNames() {
+            return names;
+        }
+
+        public void setNames(List<String> names) {
+            this.names = names;
+        }
+
+        public List<String> getLanguages() {
+            return languages;
+        }
+
+        public void setLanguages(List<String> languages) {
+            this.languages = languages;
+        }
+    }
+
+    public static class MailCampaigns {
+
+        /**
+         * Run the mail campaigns from this node; campaigns are still created when disabled.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of users emailed in one transaction, between two checkpoints.
+         */
+        private int chunkSize = 100;
+
+        /**
+         * Maximum number of emails queued per second, over all campaigns.
+         */
+        private int sendRate = 10;
+
+        /**
+         * Time between two checks for campaigns created on other nodes.
+         */
+        private Duration pollInterval = Duration.ofMinutes(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getSendRate() {
+            return sendRate;
+        }
+
+        public void setSendRate(int sendRate) {
+            this.sendRate = sendRate;
+        }
+
+        public Duration getPollInterval() {
+            return pollInterval;
+        }
+
+        public void setPollInterval(Duration pollInterval) {
+            this.pollInterval = pollInterval;
+        }
+    }
+
+    public static class Async {
+
+        private ExecutorMode executorMode = ExecutorMode.ELASTIC;
+
+        /**
+         * Executors limiting the concurrency of a type of task, each registered as a bean named after it, to be used as
+         * {@code @Async("<name>")}; they run their tasks on the {@code taskExecutor}.
+         */
+        private Map<String, Bulkhead> bulkheads = new LinkedHashMap<>();
+
+        public ExecutorMode getExecutorMode() {
+            return executorMode;
+        }
+
+        public void setExecutorMode(ExecutorMode executorMode) {
+            this.executorMode = executorMode;
+        }
+
+        public Map<String, Bulkhead> getBulkheads() {
+            return bulkheads;
+        }
+
+        public void setBulkheads(Map<String, Bulkhead> bulkheads) {
+            this.bulkheads = bulkheads;
+        }
+
+        public static class Bulkhead {
+
+            /**
+             * Maximum number of tasks of this type running at the same time.
+             */
+            private int maxConcurrent = 10;
+
+            /**
+             * Maximum number of tasks of this type waiting to run; further tasks are rejected.
+             */
+            private int queueCapacity = 1000;
+
+            public int getMaxConcurrent() {
+                return maxConcurrent;
+            }
+
+            public void setMaxConcurrent(int maxConcurrent) {
+                this.maxConcurrent = maxConcurrent;
+            }
+
+            public int getQueueCapacity() {
+                return queueCapacity;
+            }
+
+            public void setQueueCapacity(int queueCapacity) {
+                this.queueCapacity = queueCapacity;
+            }
+        }
+
+        public enum ExecutorMode {
+            /**
+             * A pool of {@code spring.task.execution.pool.core-size} threads, only growing once its queue is full.
+             */
+            POOL,
+            /**
+             * A pool growing up to {@code spring.task.execution.pool.max-size} threads before queueing tasks, and
+             * shrinking when idle.
+             */
+            ELASTIC,
+            /**
+             * A virtual thread per task, on JDKs supporting them; falls back to {@link #ELASTIC} otherwise.
+             */
+            VIRTUAL
+        }
+    }
+
+    public static class Users {
+
+        /**
+         * Number of not activated users deleted in each purge transaction.
+         */
+        private int purgeChunkSize = 500;
+
+        /**
+         * Maximum number of users in one request of the batch user management API.
+         */
+        private int batchMaxSize = 1000;
+
+        /**
+         * Number of imported users written in one transaction.
+         */
+        private int importChunkSize = 500;
+
+        /**
+         * Creation emails of imported users queued per second: they are spread over time in the outbox, rather than
+         * sent all at once.
+         */
+        private int importMailRate = 10;
+
+        /**
+         * Whether password resets skip the lookups of unused emails, using a Bloom filter of the used ones.
+         */
+        private boolean existenceFilterEnabled = true;
+
+        /**
+         * Rate of unused emails which are still looked up, once the filter holds its capacity.
+         */
+        private double existenceFilterFalsePositiveRate = 0.01;
+
+        /**
+         * Minimum number of users the filter is sized for; it is sized for twice the current users otherwise.
+         */
+        private long existenceFilterMinCapacity = 100_000;
+
+        /**
+         * How often the filter reads the users saved by the other nodes: until then, their password resets are
+         * answered as for an unknown email. Read by the scheduler, as an ISO-8601 duration.
+         */
+        private Duration existenceFilterSyncDelay = Duration.ofSeconds(30);
+
+        public int getPurgeChunkSize() {
+            return purgeChunkSize;
+        }
+
+        public void setPurgeChunkSize(int purgeChunkSize) {
+            this.purgeChunkSize = purgeChunkSize;
+        }
+
+        public int getBatchMaxSize() {
+            return batchMaxSize;
+        }
+
+        public void setBatchMaxSize(int batchMaxSize) {
+            this.batchMaxSize = batchMaxSize;
+        }
+
+        public int getImportChunkSize() {
+            return importChunkSize;
+        }
+
+        public void setImportChunkSize(int importChunkSize) {
+            this.importChunkSize = importChunkSize;
+        }
+
+        public int getImportMailRate() {
+            return importMailRate;
+        }
+
+        public void setImportMailRate(int importMailRate) {
+            this.importMailRate = importMailRate;
+        }
+
+        public boolean isExistenceFilterEnabled() {
+            return existenceFilterEnabled;
+        }
+
+        public void setExistenceFilterEnabled(boolean existenceFilterEnabled) {
+            this.existenceFilterEnabled = existenceFilterEnabled;
+        }
+
+        public double getExistenceFilterFalsePositiveRate() {
+            return existenceFilterFalsePositiveRate;
+        }
+
+        public void setExistenceFilterFalsePositiveRate(double existenceFilterFalsePositiveRate) {
+            this.existenceFilterFalsePositiveRate = existenceFilterFalsePositiveRate;
+        }
+
+        public long getExistenceFilterMinCapacity() {
+            return existenceFilterMinCapacity;
+        }
+
+        public void setExistenceFilterMinCapacity(long existenceFilterMinCapacity) {
+            this.existenceFilterMinCapacity = existenceFilterMinCapacity;
+        }
+
+        public Duration getExistenceFilterSyncDelay() {
+            return existenceFilterSyncDelay;
+        }
+
+        public void setExistenceFilterSyncDelay(Duration existenceFilterSyncDelay) {
+            this.existenceFilterSyncDelay = existenceFilterSyncDelay;
+        }
+    }
+
+    public static class MethodTiming {
+
+        /**
+         * Whether executions of services, repositories and REST endpoints are timed; no proxy is added otherwise.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Share of the executions which are timed, from 0 to 1.
+         */
+        private double sampleRate = 0.01;
+
+        /**
+         * Whether the timers publish histogram buckets, for percentiles aggregated by the monitoring system.
+         */
+        private boolean percentileHistogram = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public boolean isPercentileHistogram() {
+            return percentileHistogram;
+        }
+
+        public void setPercentileHistogram(boolean percentileHistogram) {
+            this.percentileHistogram = percentileHistogram;
+        }
+    }
 }
@@ -1,43 +1,130 @@
 package org.jhipster.space.config;
 
+import org.jhipster.space.config.async.BulkheadExecutorRegistrar;
+import org.jhipster.space.config.async.VirtualThreads;
+
 import io.github.jhipster.async.ExceptionHandlingAsyncTaskExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.jvm.ExecutorServiceMetrics;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
 import org.springframework.aop.interceptor.SimpleAsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.task.TaskExecutionProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskDecorator;
 import org.springframework.scheduling.annotation.AsyncConfigurer;
 import org.springframework.scheduling.annotation.EnableAsync;
 import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 @EnableAsync
 @EnableScheduling
+@Import(BulkheadExecutorRegistrar.class)
 public class AsyncConfiguration implements AsyncConfigurer {
 
+    private static final String TASK_EXECUTOR = "taskExecutor";
+
     private final Logger log = LoggerFactory.getLogger(AsyncConfiguration.class);
 
     private final TaskExecutionProperties taskExecutionProperties;
 
-    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties) {
+    private final ApplicationProperties applicationProperties;
+
+    /**
+     * Resolved when the executor is created, as asynchronous configuration is loaded before the registry is configured.
+     */
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+
+    public AsyncConfiguration(TaskExecutionProperties taskExecutionProperties, ApplicationProperties applicationProperties,
+                              ObjectProvider<MeterRegistry> meterRegistry) {
         this.taskExecutionProperties = taskExecutionProperties;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     @Override
-    @Bean(name = "taskExecutor")
+    @Bean(name = TASK_EXECUTOR)
     public Executor getAsyncExecutor() {
-        log.debug("Creating Async Task Executor");
-        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
-        executor.setCorePoolSize(taskExecutionProperties.getPool().getCoreSize());
-        executor.setMaxPoolSize(taskExecutionProperties.getPool().getMaxSize());
-        executor.setQueueCapacity(taskExecutionProperties.getPool().getQueueCapacity());
+        ApplicationProperties.Async.ExecutorMode mode = applicationProperties.getAsync().getExecutorMode();
+        log.debug("Creating Async Task Executor, in {} mode", mode);
+        MeterRegistry meterRegistry = this.meterRegistry.getObject();
+        if (mode == ApplicationProperties.Async.ExecutorMode.VIRTUAL) {
+            ThreadFactory threadFactory = VirtualThreads.threadFactory(taskExecutionProperties.getThreadNamePrefix());
+            if (threadFactory != null) {
+                SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor(threadFactory);
+                executor.setTaskDecorator(timingDecorator(meterRegistry));
+                return new ExceptionHandlingAsyncTaskExecutor(executor);
+            }
+            log.warn("Virtual threads are not supported by this JDK, falling back to the elastic executor mode");
+            mode = ApplicationProperties.Async.ExecutorMode.ELASTIC;
+        }
+        return new ExceptionHandlingAsyncTaskExecutor(poolExecutor(mode, meterRegistry));
+    }
+
+    private AsyncTaskExecutor poolExecutor(ApplicationProperties.Async.ExecutorMode mode, MeterRegistry meterRegistry) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor() {
+            @Override
+            protected ExecutorService initializeExecutor(ThreadFactory threadFactory, RejectedExecutionHandler rejectedExecutionHandler) {
+                ExecutorService executorService = super.initializeExecutor(threadFactory, rejectedExecutionHandler);
+                new ExecutorServiceMetrics(executorService, TASK_EXECUTOR, Tags.empty()).bindTo(meterRegistry);
+                return executorService;
+            }
+        };
+        TaskExecutionProperties.Pool pool = taskExecutionProperties.getPool();
+        if (mode == ApplicationProperties.Async.ExecutorMode.ELASTIC) {
+            // All threads are core threads, so that they are started before tasks are queued, and time out when idle
+            executor.setCorePoolSize(pool.getMaxSize());
+            executor.setAllowCoreThreadTimeOut(true);
+        } else {
+            executor.setCorePoolSize(pool.getCoreSize());
+        }
+        executor.setMaxPoolSize(pool.getMaxSize());
+        executor.setKeepAliveSeconds((int) pool.getKeepAlive().getSeconds());
+        executor.setQueueCapacity(pool.getQueueCapacity());
         executor.setThreadNamePrefix(taskExecutionProperties.getThreadNamePrefix());
-        return new ExceptionHandlingAsyncTaskExecutor(executor);
+        executor.setTaskDecorator(timingDecorator(meterRegistry));
+        return executor;
+    }
+
+    /**
+     * Record the time tasks wait before running, and run, as {@code executor.wait} and {@code executor.execution}.
+     */
+    private static TaskDecorator timingDecorator(MeterRegistry meterRegistry) {
+        Timer waitTimer = Timer.builder("executor.wait")
+            .description("Time tasks spend waiting to run")
+            .tag("name", TASK_EXECUTOR)
+            .register(meterRegistry);
+        Timer executionTimer = Timer.builder("executor.execution")
+            .description("Time tasks spend running")
+            .tag("name", TASK_EXECUTOR)
+            .register(meterRegistry);
+        return task -> {
+            long submitted = System.nanoTime();
+            return () -> {
+                long start = System.nanoTime();
+                waitTimer.record(start - submitted, TimeUnit.NANOSECONDS);
+                try {
+                    task.run();
+                } finally {
+                    executionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                }
+            };
+        };
     }
 
     @Override
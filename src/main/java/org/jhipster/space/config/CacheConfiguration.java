@@ -45,6 +45,8 @@ public class CacheConfiguration {
         return cm -> {
             createCache(cm, org.jhipster.space.repository.UserRepository.USERS_BY_LOGIN_CACHE);
             createCache(cm, org.jhipster.space.repository.UserRepository.USERS_BY_EMAIL_CACHE);
+            createCache(cm, org.jhipster.space.service.AccountCache.ACCOUNTS_BY_LOGIN_CACHE);
+            createCache(cm, org.jhipster.space.service.UserCache.USER_IDS_BY_LOGIN_CACHE);
             createCache(cm, org.jhipster.space.domain.User.class.getName());
             createCache(cm, org.jhipster.space.domain.Authority.class.getName());
             createCache(cm, org.jhipster.space.domain.User.class.getName() + ".authorities");
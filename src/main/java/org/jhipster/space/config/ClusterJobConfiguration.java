@@ -0,0 +1,28 @@
+package org.jhipster.space.config;
+
+import org.jhipster.space.config.job.ClusterJobAspect;
+import org.jhipster.space.config.job.ClusterJobs;
+import org.jhipster.space.config.job.JobsEndpoint;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+/**
+ * Runs the scheduled methods annotated with {@link org.jhipster.space.config.job.ClusterJob} on one node of the
+ * cluster at a time.
+ */
+@Configuration
+@EnableAspectJAutoProxy
+public class ClusterJobConfiguration {
+
+    @Bean
+    public ClusterJobAspect clusterJobAspect(ClusterJobs clusterJobs) {
+        return new ClusterJobAspect(clusterJobs);
+    }
+
+    @Bean
+    public JobsEndpoint jobsEndpoint(ClusterJobs clusterJobs) {
+        return new JobsEndpoint(clusterJobs);
+    }
+}
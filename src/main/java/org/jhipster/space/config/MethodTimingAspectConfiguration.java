@@ -0,0 +1,21 @@
+package org.jhipster.space.config;
+
+import org.jhipster.space.aop.timing.MethodTimingAspect;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+@Configuration
+@EnableAspectJAutoProxy
+@ConditionalOnProperty(prefix = "application.method-timing", name = "enabled", havingValue = "true")
+public class MethodTimingAspectConfiguration {
+
+    @Bean
+    public MethodTimingAspect methodTimingAspect(MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        ApplicationProperties.MethodTiming properties = applicationProperties.getMethodTiming();
+        return new MethodTimingAspect(meterRegistry, properties.getSampleRate(), properties.isPercentileHistogram());
+    }
+}
@@ -2,7 +2,12 @@ package org.jhipster.space.config;
 
 import org.jhipster.space.security.*;
 import org.jhipster.space.security.jwt.*;
+import org.jhipster.space.security.ratelimit.ApiRateLimitFilter;
+import org.jhipster.space.security.ratelimit.ApiRateLimiter;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
@@ -13,31 +18,88 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configuration.WebSecurityConfigurerAdapter;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
 import org.springframework.web.filter.CorsFilter;
+import org.springframework.web.servlet.HandlerExceptionResolver;
 import org.zalando.problem.spring.web.advice.security.SecurityProblemSupport;
 
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+
 @EnableWebSecurity
 @EnableGlobalMethodSecurity(prePostEnabled = true, securedEnabled = true)
 @Import(SecurityProblemSupport.class)
 public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
+    private static final String BCRYPT_ENCODER_ID = "bcrypt";
+
+    private final Logger log = LoggerFactory.getLogger(SecurityConfiguration.class);
+
     private final TokenProvider tokenProvider;
 
     private final CorsFilter corsFilter;
     private final SecurityProblemSupport problemSupport;
 
-    public SecurityConfiguration(TokenProvider tokenProvider, CorsFilter corsFilter, SecurityProblemSupport problemSupport) {
+    private final ApplicationProperties applicationProperties;
+
+    private final ApiRateLimiter apiRateLimiter;
+
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public SecurityConfiguration(TokenProvider tokenProvider, CorsFilter corsFilter, SecurityProblemSupport problemSupport,
+                                 ApplicationProperties applicationProperties, ApiRateLimiter apiRateLimiter,
+                                 @Qualifier("handlerExceptionResolver") HandlerExceptionResolver handlerExceptionResolver) {
         this.tokenProvider = tokenProvider;
         this.corsFilter = corsFilter;
         this.problemSupport = problemSupport;
+        this.applicationProperties = applicationProperties;
+        this.apiRateLimiter = apiRateLimiter;
+        this.handlerExceptionResolver = handlerExceptionResolver;
     }
 
+    /**
+     * Password encoder storing hashes in the {@code {id}hash} format, with the BCrypt work factor calibrated at startup.
+     * <p>
+     * Hashes without an id prefix predate this format and are matched as BCrypt. Both them and hashes weaker than the
+     * calibrated strength are re-encoded on the next successful login, see {@link DomainUserDetailsService#updatePassword}.
+     */
     @Bean
     public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+        ApplicationProperties.Security.PasswordHash passwordHash = applicationProperties.getSecurity().getPasswordHash();
+        int strength;
+        if (passwordHash.getStrength() != null) {
+            strength = passwordHash.getStrength();
+            log.info("Using fixed BCrypt strength {}", strength);
+        } else {
+            strength = BCryptStrengthCalibrator.calibrate(passwordHash.getTargetLatency(),
+                passwordHash.getMinStrength(), passwordHash.getMaxStrength());
+            log.info("Calibrated BCrypt strength to {} for a target latency of {} ms", strength,
+                passwordHash.getTargetLatency().toMillis());
+        }
+        Map<String, PasswordEncoder> encoders = new HashMap<>();
+        encoders.put(BCRYPT_ENCODER_ID, new BCryptPasswordEncoder(strength));
+        DelegatingPasswordEncoder passwordEncoder = new DelegatingPasswordEncoder(BCRYPT_ENCODER_ID, encoders);
+        passwordEncoder.setDefaultPasswordEncoderForMatches(encoders.get(BCRYPT_ENCODER_ID));
+        return passwordEncoder;
+    }
+
+    /**
+     * Pool hashing the passwords of batch operations, bounded so that they do not take all the processors.
+     */
+    @Bean
+    public ForkJoinPool passwordHashPool() {
+        ForkJoinPool.ForkJoinWorkerThreadFactory threadFactory = pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("space-password-hash-" + thread.getPoolIndex());
+            return thread;
+        };
+        int parallelism = Math.max(1, applicationProperties.getSecurity().getPasswordHash().getParallelism());
+        return new ForkJoinPool(parallelism, threadFactory, null, false);
     }
 
     @Override
@@ -92,6 +154,11 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
         .and()
             .apply(securityConfigurerAdapter());
         // @formatter:on
+        if (apiRateLimiter.isEnabled()) {
+            // The JWTFilter runs before UsernamePasswordAuthenticationFilter, so quotas see the authenticated user
+            http.addFilterAfter(new ApiRateLimitFilter(apiRateLimiter, handlerExceptionResolver),
+                UsernamePasswordAuthenticationFilter.class);
+        }
     }
 
     private JWTConfigurer securityConfigurerAdapter() {
@@ -0,0 +1,119 @@
+package org.jhipster.space.config;
+
+import org.jhipster.space.config.async.VirtualThreads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Checks, when requests are handled on virtual threads, what could pin them to their carrier thread while they wait
+ * for the database.
+ * <p>
+ * On JDKs before 24, a virtual thread blocking inside a {@code synchronized} block pins its carrier thread: JDBC drivers
+ * guarding their socket I/O with {@code synchronized} then limit the concurrency of requests to the number of carrier
+ * threads. Starting the application with {@code -Djdk.tracePinnedThreads=short} reports the pinning stack traces.
+ */
+@Component
+@Profile(Constants.SPRING_PROFILE_VIRTUAL_THREADS)
+public class VirtualThreadsValidator {
+
+    private static final String POSTGRESQL_DRIVER = "PostgreSQL JDBC Driver";
+
+    /**
+     * First version of the PostgreSQL driver using locks rather than {@code synchronized} blocks around its I/O.
+     */
+    private static final int POSTGRESQL_UNPINNED_MAJOR_VERSION = 42;
+
+    private static final int POSTGRESQL_UNPINNED_MINOR_VERSION = 6;
+
+    private final Logger log = LoggerFactory.getLogger(VirtualThreadsValidator.class);
+
+    private final DataSource dataSource;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public VirtualThreadsValidator(DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.dataSource = dataSource;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void validate() {
+        Executor executor = VirtualThreads.executor("space-virtual-threads-check-");
+        if (executor == null) {
+            log.warn("The '{}' profile is active, but this JDK does not support virtual threads", Constants.SPRING_PROFILE_VIRTUAL_THREADS);
+            return;
+        }
+        if (VirtualThreads.pinnedBySynchronized()) {
+            log.info("On this JDK, virtual threads blocking in synchronized blocks pin their carrier thread: " +
+                "start with -Djdk.tracePinnedThreads=short to report them");
+            validateDriver();
+        }
+        validatePool();
+        validateTransaction(executor);
+    }
+
+    private void validateDriver() {
+        try (Connection connection = dataSource.getConnection()) {
+            DatabaseMetaData metaData = connection.getMetaData();
+            int major = metaData.getDriverMajorVersion();
+            int minor = metaData.getDriverMinorVersion();
+            if (POSTGRESQL_DRIVER.equals(metaData.getDriverName()) && (major < POSTGRESQL_UNPINNED_MAJOR_VERSION
+                || major == POSTGRESQL_UNPINNED_MAJOR_VERSION && minor < POSTGRESQL_UNPINNED_MINOR_VERSION)) {
+                log.warn("The PostgreSQL JDBC driver {} guards its I/O with synchronized blocks, pinning the virtual " +
+                    "threads waiting for the database: upgrade it to {}.{} or later, or use JDK 24 or later",
+                    metaData.getDriverVersion(), POSTGRESQL_UNPINNED_MAJOR_VERSION, POSTGRESQL_UNPINNED_MINOR_VERSION);
+            } else {
+                log.debug("JDBC driver: {} {}", metaData.getDriverName(), metaData.getDriverVersion());
+            }
+        } catch (SQLException e) {
+            log.warn("Could not check the JDBC driver: {}", e.getMessage());
+        }
+    }
+
+    private void validatePool() {
+        if (dataSource instanceof HikariDataSource) {
+            HikariDataSource hikari = (HikariDataSource) dataSource;
+            // Requests are no longer bounded by the worker threads, but still by the connections
+            log.info("At most {} requests use the database at the same time, the others wait up to {} ms for a connection",
+                hikari.getMaximumPoolSize(), hikari.getConnectionTimeout());
+        }
+    }
+
+    /**
+     * Run a transaction on a virtual thread, the way requests do.
+     */
+    private void validateTransaction(Executor executor) {
+        CompletableFuture<Integer> result = CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status ->
+            jdbcTemplate.queryForObject("select 1", Integer.class)), executor);
+        try {
+            result.get(1, TimeUnit.MINUTES);
+            log.debug("Transactions run on virtual threads");
+        } catch (ExecutionException | TimeoutException e) {
+            log.warn("Could not run a transaction on a virtual thread: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
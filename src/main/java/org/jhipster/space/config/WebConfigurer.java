@@ -1,10 +1,13 @@
 package org.jhipster.space.config;
 
+import org.jhipster.space.config.async.VirtualThreads;
+
 import io.github.jhipster.config.JHipsterConstants;
 import io.github.jhipster.config.JHipsterProperties;
 import io.github.jhipster.config.h2.H2ConfigurationHelper;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.boot.web.embedded.undertow.UndertowServletWebServerFactory;
 import org.springframework.boot.web.server.*;
 import org.springframework.boot.web.servlet.ServletContextInitializer;
 import org.springframework.boot.web.servlet.server.ConfigurableServletWebServerFactory;
@@ -23,6 +26,7 @@ import java.io.UnsupportedEncodingException;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Paths;
 import java.util.*;
+import java.util.concurrent.Executor;
 
 import static java.net.URLDecoder.decode;
 
@@ -63,6 +67,26 @@ public class WebConfigurer implements ServletContextInitializer, WebServerFactor
         setMimeMappings(server);
         // When running in an IDE or with ./mvnw spring-boot:run, set location of the static web assets.
         setLocationForStaticAssets(server);
+        if (env.acceptsProfiles(Profiles.of(Constants.SPRING_PROFILE_VIRTUAL_THREADS))) {
+            setVirtualThreadExecutor(server);
+        }
+    }
+
+    /**
+     * Dispatch servlet requests to a new virtual thread each, rather than to the Undertow worker threads, so that
+     * requests blocked on the database do not hold a platform thread.
+     */
+    private void setVirtualThreadExecutor(WebServerFactory server) {
+        if (!(server instanceof UndertowServletWebServerFactory)) {
+            return;
+        }
+        Executor executor = VirtualThreads.executor("space-request-");
+        if (executor == null) {
+            log.warn("Virtual threads are not supported by this JDK, requests are handled by the Undertow worker threads");
+            return;
+        }
+        log.info("Handling requests on virtual threads");
+        ((UndertowServletWebServerFactory) server).addDeploymentInfoCustomizers(deploymentInfo -> deploymentInfo.setExecutor(executor));
     }
 
     private void setMimeMappings(WebServerFactory server) {
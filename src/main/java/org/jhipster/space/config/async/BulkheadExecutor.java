@@ -0,0 +1,176 @@
+package org.jhipster.space.config.async;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs at most {@code maxConcurrent} tasks at a time on a shared executor, queueing up to {@code queueCapacity} more.
+ * <p>
+ * A worker keeps running the queued tasks until the queue is empty, so that queued tasks do not go through the queue
+ * of the shared executor again. Tasks beyond the queue capacity are rejected with a {@link TaskRejectedException}.
+ * <p>
+ * Metrics are tagged with the name of the bulkhead: {@code executor.active} and {@code executor.queued} gauges,
+ * {@code executor.wait} and {@code executor.execution} timers, and an {@code executor.rejected} counter.
+ */
+public class BulkheadExecutor implements TaskExecutor {
+
+    private final String name;
+
+    private final int maxConcurrent;
+
+    private final int queueCapacity;
+
+    private final Executor executor;
+
+    /**
+     * Tasks waiting for a worker, guarded by {@code this}.
+     */
+    private final Queue<QueuedTask> queue = new ArrayDeque<>();
+
+    /**
+     * Running workers, guarded by {@code this}.
+     */
+    private int active;
+
+    private final Timer waitTimer;
+
+    private final Timer executionTimer;
+
+    private final Counter rejectedTasks;
+
+    public BulkheadExecutor(String name, int maxConcurrent, int queueCapacity, Executor executor, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.maxConcurrent = Math.max(1, maxConcurrent);
+        this.queueCapacity = Math.max(0, queueCapacity);
+        this.executor = executor;
+        this.waitTimer = Timer.builder("executor.wait")
+            .description("Time tasks spend waiting to run")
+            .tag("name", name)
+            .register(meterRegistry);
+        this.executionTimer = Timer.builder("executor.execution")
+            .description("Time tasks spend running")
+            .tag("name", name)
+            .register(meterRegistry);
+        this.rejectedTasks = Counter.builder("executor.rejected")
+            .description("Tasks rejected because the bulkhead was full")
+            .tag("name", name)
+            .register(meterRegistry);
+        Gauge.builder("executor.active", this, BulkheadExecutor::getActiveCount)
+            .description("Tasks running")
+            .tag("name", name)
+            .register(meterRegistry);
+        Gauge.builder("executor.queued", this, BulkheadExecutor::getQueueSize)
+            .description("Tasks waiting for a slot in the bulkhead")
+            .tag("name", name)
+            .register(meterRegistry);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        QueuedTask queuedTask = new QueuedTask(task);
+        synchronized (this) {
+            if (active >= maxConcurrent) {
+                if (queue.size() >= queueCapacity) {
+                    rejectedTasks.increment();
+                    throw new TaskRejectedException("Bulkhead '" + name + "' is full, " + active + " tasks running and " +
+                        queue.size() + " queued");
+                }
+                queue.add(queuedTask);
+                return;
+            }
+            active++;
+        }
+        if (!start(queuedTask)) {
+            throw new TaskRejectedException("Executor did not accept a task of bulkhead '" + name + "'");
+        }
+    }
+
+    /**
+     * Start a worker on the shared executor, for a task that was given a slot.
+     *
+     * @return whether the executor accepted the worker; if not, the slot is released.
+     */
+    private boolean start(QueuedTask task) {
+        try {
+            executor.execute(() -> work(task));
+            return true;
+        } catch (RejectedExecutionException e) {
+            synchronized (this) {
+                active--;
+            }
+            rejectedTasks.increment();
+            return false;
+        }
+    }
+
+    private void work(QueuedTask first) {
+        QueuedTask task = first;
+        while (task != null) {
+            try {
+                run(task);
+            } catch (RuntimeException | Error e) {
+                // Hand the queue over to a new worker, this one ends with the exception
+                QueuedTask next = next();
+                if (next != null) {
+                    start(next);
+                }
+                throw e;
+            }
+            task = next();
+        }
+    }
+
+    private void run(QueuedTask task) {
+        long start = System.nanoTime();
+        waitTimer.record(start - task.submitted, TimeUnit.NANOSECONDS);
+        try {
+            task.task.run();
+        } finally {
+            executionTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return the next queued task, or {@code null} after releasing the slot of the calling worker.
+     */
+    private synchronized QueuedTask next() {
+        QueuedTask task = queue.poll();
+        if (task == null) {
+            active--;
+        }
+        return task;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public synchronized int getActiveCount() {
+        return active;
+    }
+
+    public synchronized int getQueueSize() {
+        return queue.size();
+    }
+
+    private static final class QueuedTask {
+
+        private final Runnable task;
+
+        private final long submitted = System.nanoTime();
+
+        private QueuedTask(Runnable task) {
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package org.jhipster.space.config.async;
+
+import org.jhipster.space.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.beans.factory.support.AbstractBeanDefinition;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.annotation.ImportBeanDefinitionRegistrar;
+import org.springframework.core.env.Environment;
+import org.springframework.core.type.AnnotationMetadata;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Executor;
+
+/**
+ * Registers a {@link BulkheadExecutor} bean for each of the {@code application.async.bulkheads}, named after it.
+ * <p>
+ * Bulkheads run their tasks on the {@code taskExecutor} bean.
+ */
+public class BulkheadExecutorRegistrar implements ImportBeanDefinitionRegistrar, EnvironmentAware, BeanFactoryAware {
+
+    private static final String BULKHEADS_PROPERTY = "application.async.bulkheads";
+
+    private static final String TASK_EXECUTOR = "taskExecutor";
+
+    private Environment environment;
+
+    private BeanFactory beanFactory;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public void registerBeanDefinitions(AnnotationMetadata importingClassMetadata, BeanDefinitionRegistry registry) {
+        Map<String, ApplicationProperties.Async.Bulkhead> bulkheads = Binder.get(environment)
+            .bind(BULKHEADS_PROPERTY, Bindable.mapOf(String.class, ApplicationProperties.Async.Bulkhead.class))
+            .orElse(Collections.emptyMap());
+        bulkheads.forEach((name, bulkhead) -> {
+            AbstractBeanDefinition definition = BeanDefinitionBuilder
+                .genericBeanDefinition(BulkheadExecutor.class, () -> new BulkheadExecutor(name, bulkhead.getMaxConcurrent(),
+                    bulkhead.getQueueCapacity(), beanFactory.getBean(TASK_EXECUTOR, Executor.class),
+                    beanFactory.getBean(MeterRegistry.class)))
+                .getBeanDefinition();
+            registry.registerBeanDefinition(name, definition);
+        });
+    }
+}
@@ -0,0 +1,70 @@
+package org.jhipster.space.config.async;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Access to virtual threads, looked up reflectively as they are not part of the Java 8 API the code is compiled for.
+ */
+public final class VirtualThreads {
+
+    /**
+     * First Java version where virtual threads are not pinned to their carrier thread by {@code synchronized} blocks.
+     */
+    private static final int UNPINNED_MONITORS_VERSION = 24;
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Create a factory of virtual threads.
+     *
+     * @param threadNamePrefix the prefix of the thread names, followed by a counter.
+     * @return the thread factory, or {@code null} if the JDK does not support virtual threads.
+     */
+    public static ThreadFactory threadFactory(String threadNamePrefix) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, threadNamePrefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (NoSuchMethodException | ClassNotFoundException | IllegalAccessException | InvocationTargetException e) {
+            // Not supported, or a preview feature that is not enabled
+            return null;
+        }
+    }
+
+    /**
+     * Create an executor running each task on a new virtual thread.
+     *
+     * @param threadNamePrefix the prefix of the thread names, followed by a counter.
+     * @return the executor, or {@code null} if the JDK does not support virtual threads.
+     */
+    public static Executor executor(String threadNamePrefix) {
+        ThreadFactory threadFactory = threadFactory(threadNamePrefix);
+        if (threadFactory == null) {
+            return null;
+        }
+        return task -> threadFactory.newThread(task).start();
+    }
+
+    /**
+     * @return whether a virtual thread blocking inside a {@code synchronized} block pins its carrier thread.
+     */
+    public static boolean pinnedBySynchronized() {
+        return javaVersion() < UNPINNED_MONITORS_VERSION;
+    }
+
+    static int javaVersion() {
+        String version = System.getProperty("java.specification.version", "1.8");
+        if (version.startsWith("1.")) {
+            version = version.substring(2);
+        }
+        try {
+            return Integer.parseInt(version);
+        } catch (NumberFormatException e) {
+            return 8;
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package org.jhipster.space.config.audit;
+
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.domain.PersistentAuditEvent;
+import org.jhipster.space.repository.PersistenceAuditEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Persists audit events off the request thread.
+ * <p>
+ * Events are queued in a bounded lock-free ring buffer, and a background thread saves them in batches, in a single
+ * transaction per batch, so that Hibernate can group the inserts in JDBC batches. When the buffer is full, events are
+ * either dropped or written synchronously, depending on {@code application.audit-events.overflow-policy}.
+ * <p>
+ * A batch that could not be saved is kept, and saved before the next ones, at most
+ * {@code application.audit-events.batch-max-attempts} times; its events are then dropped.
+ */
+@Component
+public class AsyncAuditEventWriter implements SmartLifecycle {
+
+    private static final String THREAD_NAME = "space-audit-writer";
+
+    private final Logger log = LoggerFactory.getLogger(AsyncAuditEventWriter.class);
+
+    private final PersistenceAuditEventRepository persistenceAuditEventRepository;
+
+    private final TransactionTemplate batchTransactionTemplate;
+
+    private final TransactionTemplate synchronousTransactionTemplate;
+
+    private final AuditEventRingBuffer<PendingEvent> buffer;
+
+    private final ReentrantLock drainLock = new ReentrantLock();
+
+    private final int batchSize;
+
+    private final int batchMaxAttempts;
+
+    private final long flushIntervalNanos;
+
+    private final ApplicationProperties.AuditEvents.OverflowPolicy overflowPolicy;
+
+    private final Counter droppedEvents;
+
+    private final Counter writtenEvents;
+
+    private final Timer lag;
+
+    /**
+     * The batch that could not be saved, guarded by the drain lock.
+     */
+    private List<PendingEvent> failedBatch;
+
+    private int failedAttempts;
+
+    private volatile Thread writerThread;
+
+    private volatile boolean running;
+
+    public AsyncAuditEventWriter(PersistenceAuditEventRepository persistenceAuditEventRepository,
+                                 PlatformTransactionManager transactionManager, ApplicationProperties applicationProperties,
+                                 MeterRegistry meterRegistry) {
+        ApplicationProperties.AuditEvents properties = applicationProperties.getAuditEvents();
+        this.persistenceAuditEventRepository = persistenceAuditEventRepository;
+        this.batchTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.synchronousTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.synchronousTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.buffer = new AuditEventRingBuffer<>(properties.getQueueCapacity());
+        this.batchSize = properties.getBatchSize();
+        this.batchMaxAttempts = Math.max(1, properties.getBatchMaxAttempts());
+        this.flushIntervalNanos = properties.getFlushInterval().toNanos();
+        this.overflowPolicy = properties.getOverflowPolicy();
+        this.droppedEvents = Counter.builder("audit.events.dropped")
+            .description("Audit events dropped because the write queue was full, or because they could not be saved")
+            .register(meterRegistry);
+        this.writtenEvents = Counter.builder("audit.events.written")
+            .description("Audit events saved to the database")
+            .register(meterRegistry);
+        this.lag = Timer.builder("audit.events.lag")
+            .description("Time between queuing an audit event and saving it")
+            .register(meterRegistry);
+        Gauge.builder("audit.events.queue.size", buffer, AuditEventRingBuffer::size)
+            .description("Audit events waiting to be saved")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Queue an audit event to be saved.
+     *
+     * @param event the event to save.
+     */
+    public void write(PersistentAuditEvent event) {
+        PendingEvent pendingEvent = new PendingEvent(event, System.nanoTime());
+        if (buffer.offer(pendingEvent)) {
+            Thread thread = writerThread;
+            if (thread != null && buffer.size() >= batchSize) {
+                LockSupport.unpark(thread);
+            }
+        } else if (overflowPolicy == ApplicationProperties.AuditEvents.OverflowPolicy.SYNCHRONOUS) {
+            synchronousTransactionTemplate.execute(status -> save(Collections.singletonList(pendingEvent)));
+        } else {
+            droppedEvents.increment();
+            log.warn("Audit event queue is full, dropping {} event of {}", event.getAuditEventType(), event.getPrincipal());
+        }
+    }
+
+    /**
+     * Save all the queued events on the calling thread, joining its transaction if there is one, starting with the
+     * batch that could not be saved by the previous flush.
+     */
+    public void flush() {
+        drainLock.lock();
+        try {
+            if (failedBatch != null) {
+                saveBatch(failedBatch);
+            }
+            List<PendingEvent> batch = new ArrayList<>(batchSize);
+            while (buffer.drainTo(batch, batchSize) > 0) {
+                saveBatch(batch);
+                batch = new ArrayList<>(batchSize);
+            }
+        } finally {
+            drainLock.unlock();
+        }
+    }
+
+    /**
+     * Save a batch, or keep it to be saved again, until it has failed {@code batchMaxAttempts} times.
+     */
+    private void saveBatch(List<PendingEvent> batch) {
+        try {
+            batchTransactionTemplate.execute(status -> save(batch));
+            failedBatch = null;
+            failedAttempts = 0;
+        } catch (RuntimeException e) {
+            // The ids assigned in the rolled back transaction are not used
+            batch.forEach(event -> event.getEvent().setId(null));
+            if (++failedAttempts < batchMaxAttempts) {
+                failedBatch = batch;
+            } else {
+                log.error("Dropping {} audit events after {} failed attempts to save them", batch.size(), failedAttempts);
+                droppedEvents.increment(batch.size());
+                failedBatch = null;
+                failedAttempts = 0;
+            }
+            throw e;
+        }
+    }
+
+    private Object save(List<PendingEvent> events) {
+        persistenceAuditEventRepository.saveAll(events.stream().map(PendingEvent::getEvent).collect(Collectors.toList()));
+        persistenceAuditEventRepository.flush();
+        long now = System.nanoTime();
+        for (PendingEvent event : events) {
+            lag.record(now - event.getQueuedAt(), TimeUnit.NANOSECONDS);
+        }
+        writtenEvents.increment(events.size());
+        return null;
+    }
+
+    private void run() {
+        while (running) {
+            if (buffer.size() < batchSize) {
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+            try {
+                flush();
+            } catch (Exception e) {
+                log.error("Could not save audit events: {}", e.getMessage(), e);
+                LockSupport.parkNanos(this, flushIntervalNanos);
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::run, THREAD_NAME);
+        thread.setDaemon(true);
+        writerThread = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = writerThread;
+        writerThread = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(Duration.ofSeconds(10).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("Could not save audit events on shutdown: {}", e.getMessage(), e);
+            drainLock.lock();
+            try {
+                int lost = buffer.size() + (failedBatch == null ? 0 : failedBatch.size());
+                droppedEvents.increment(lost);
+                failedBatch = null;
+            } finally {
+                drainLock.unlock();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * Stop after the web server, so that events of the last requests are saved, but before the datasource.
+     */
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE - 1024;
+    }
+
+    private static final class PendingEvent {
+
+        private final PersistentAuditEvent event;
+
+        private final long queuedAt;
+
+        private PendingEvent(PersistentAuditEvent event, long queuedAt) {
+            this.event = event;
+            this.queuedAt = queuedAt;
+        }
+
+        private PersistentAuditEvent getEvent() {
+            return event;
+        }
+
+        private long getQueuedAt() {
+            return queuedAt;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package org.jhipster.space.config.audit;
+
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.domain.PersistentAuditEvent;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Append-only archive of expired audit events, stored as compressed columnar segment files on local disk.
+ * <p>
+ * Each call to {@link #append} writes a new {@link AuditEventSegment}; segments are never modified afterwards.
+ * Queries skip the segments whose time range does not overlap the query from their header, and decompress the others
+ * straight from the mapped segment files, only as far as the requested page.
+ */
+@Component
+public class AuditEventArchive {
+
+    private static final String SEGMENT_PREFIX = "audit-";
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventArchive.class);
+
+    private final boolean enabled;
+
+    private final Path directory;
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Autowired
+    public AuditEventArchive(ApplicationProperties applicationProperties) {
+        this(applicationProperties.getAuditEvents().getArchive().isEnabled(),
+            Paths.get(applicationProperties.getAuditEvents().getArchive().getDirectory()));
+    }
+
+    public AuditEventArchive(boolean enabled, Path directory) {
+        this.enabled = enabled;
+        this.directory = directory;
+    }
+
+    /**
+     * Check if expired audit events are archived.
+     *
+     * @return true if the archive is enabled, false otherwise.
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Write events to a new segment.
+     *
+     * @param events the events to archive.
+     */
+    public void append(List<PersistentAuditEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, SEGMENT_PREFIX, ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporary)) {
+                AuditEventSegment.write(events, out);
+            }
+            Path segment = directory.resolve(SEGMENT_PREFIX + System.currentTimeMillis() + "-" +
+                sequence.incrementAndGet() + SEGMENT_SUFFIX);
+            Files.move(temporary, segment, StandardCopyOption.ATOMIC_MOVE);
+            log.debug("Archived {} audit events to {}", events.size(), segment);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive audit events", e);
+        }
+    }
+
+    /**
+     * Count the archived events of a time range.
+     * <p>
+     * Segments within the range are counted from their header; only those partly overlapping it are decompressed. An
+     * event archived twice, if its deletion failed after it was archived, is counted twice.
+     *
+     * @param from the start of the range, inclusive.
+     * @param to the end of the range, inclusive.
+     * @return the number of events.
+     */
+    public long count(Instant from, Instant to) {
+        if (!enabled || !Files.isDirectory(directory)) {
+            return 0;
+        }
+        try {
+            long count = 0;
+            for (Segment segment : findSegments(from, to)) {
+                count += segment.header.isWithin(from, to) ? segment.header.getCount() : segment.read(from, to).size();
+            }
+            return count;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archived audit events", e);
+        }
+    }
+
+    /**
+     * Find the archived events of a time range.
+     *
+     * @param from the start of the range, inclusive.
+     * @param to the end of the range, inclusive.
+     * @return the events, sorted by date.
+     * @see #find(Instant, Instant, boolean, long, int)
+     */
+    public List<PersistentAuditEvent> find(Instant from, Instant to) {
+        return find(from, to, false, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Find a page of the archived events of a time range.
+     * <p>
+     * Segments are read in the order of their first event, and reading stops once the next segment starts after the
+     * last event of the page. Segments before the page are skipped from their header when no other segment overlaps
+     * them. An event archived twice, if its deletion failed after it was archived, is only returned once, unless one
+     * of its segments was skipped.
+     *
+     * @param from the start of the range, inclusive.
+     * @param to the end of the range, inclusive.
+     * @param descending whether the events are sorted from the most recent one.
+     * @param offset the number of events before the page.
+     * @param limit the maximum number of events of the page.
+     * @return the events, sorted by date.
+     */
+    public List<PersistentAuditEvent> find(Instant from, Instant to, boolean descending, long offset, int limit) {
+        if (!enabled || limit <= 0 || !Files.isDirectory(directory)) {
+            return new ArrayList<>();
+        }
+        Comparator<PersistentAuditEvent> order = Comparator.comparing(PersistentAuditEvent::getAuditEventDate)
+            .thenComparing(PersistentAuditEvent::getId);
+        if (descending) {
+            order = order.reversed();
+        }
+        try {
+            List<Segment> segments = findSegments(from, to);
+            segments.sort(Comparator.comparingLong(segment -> segment.first(descending)));
+            long end = offset + limit;
+            long skipped = 0;
+            List<PersistentAuditEvent> events = new ArrayList<>();
+            for (int i = 0; i < segments.size(); i++) {
+                Segment segment = segments.get(i);
+                if (skipped + events.size() >= end &&
+                    position(events.get(events.size() - 1), descending) < segment.first(descending)) {
+                    break;
+                }
+                if (events.isEmpty() && skipped + segment.header.getCount() <= offset && segment.header.isWithin(from, to) &&
+                    (i + 1 == segments.size() || segment.last(descending) < segments.get(i + 1).first(descending))) {
+                    skipped += segment.header.getCount();
+                    continue;
+                }
+                Map<Long, PersistentAuditEvent> merged = new LinkedHashMap<>();
+                for (PersistentAuditEvent event : events) {
+                    merged.put(event.getId(), event);
+                }
+                for (PersistentAuditEvent event : segment.read(from, to)) {
+                    merged.putIfAbsent(event.getId(), event);
+                }
+                events = new ArrayList<>(merged.values());
+                events.sort(order);
+                if (events.size() > end - skipped) {
+                    events = new ArrayList<>(events.subList(0, (int) (end - skipped)));
+                }
+            }
+            int start = (int) Math.min(events.size(), offset - skipped);
+            return new ArrayList<>(events.subList(start, events.size()));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read archived audit events", e);
+        }
+    }
+
+    /**
+     * Read the headers of the segments, keeping those overlapping a time range.
+     */
+    private List<Segment> findSegments(Instant from, Instant to) throws IOException {
+        List<Segment> found = new ArrayList<>();
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : paths) {
+                ByteBuffer header = ByteBuffer.allocate(AuditEventSegment.HEADER_LENGTH);
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    while (header.hasRemaining() && channel.read(header) >= 0) {
+                        // Read the whole header
+                    }
+                }
+                header.flip();
+                Segment segment = new Segment(path, AuditEventSegment.readHeader(header));
+                if (segment.header.overlaps(from, to)) {
+                    found.add(segment);
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * The position of an event in the order of a page, comparable to {@link Segment#first(boolean)}.
+     */
+    private static long position(PersistentAuditEvent event, boolean descending) {
+        long timestamp = AuditEventSegment.toMicros(event.getAuditEventDate());
+        return descending ? -timestamp : timestamp;
+    }
+
+    private static final class Segment {
+
+        private final Path path;
+
+        private final AuditEventSegment.Header header;
+
+        private Segment(Path path, AuditEventSegment.Header header) {
+            this.path = path;
+            this.header = header;
+        }
+
+        private long first(boolean descending) {
+            return descending ? -header.getMaxTimestamp() : header.getMinTimestamp();
+        }
+
+        private long last(boolean descending) {
+            return descending ? -header.getMinTimestamp() : header.getMaxTimestamp();
+        }
+
+        private List<PersistentAuditEvent> read(Instant from, Instant to) throws IOException {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                return AuditEventSegment.read(buffer, from, to);
+            }
+        }
+    }
+}
@@ -38,8 +38,21 @@ public class AuditEventConverter {
         if (persistentAuditEvent == null) {
             return null;
         }
+        return convertToAuditEvent(persistentAuditEvent, persistentAuditEvent.getData());
+    }
+
+    /**
+     * Convert a {@link PersistentAuditEvent} to an {@link AuditEvent}, with data loaded separately.
+     * <p>
+     * The data collection of the event is not accessed, so that it is not lazily loaded.
+     *
+     * @param persistentAuditEvent the event to convert.
+     * @param data the data of the event.
+     * @return the converted event.
+     */
+    public AuditEvent convertToAuditEvent(PersistentAuditEvent persistentAuditEvent, Map<String, String> data) {
         return new AuditEvent(persistentAuditEvent.getAuditEventDate(), persistentAuditEvent.getPrincipal(),
-            persistentAuditEvent.getAuditEventType(), convertDataToObjects(persistentAuditEvent.getData()));
+            persistentAuditEvent.getAuditEventType(), convertDataToObjects(data));
     }
 
     /**
@@ -0,0 +1,258 @@
+package org.jhipster.space.config.audit;
+
+import org.jhipster.space.config.ApplicationProperties;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory counts of audit events per hour, principal and type.
+ * <p>
+ * Events are counted without taking a lock in a ring of one-minute buckets. Once a minute is over, its bucket is
+ * rolled into the hourly counts, which are drained when they are persisted. Within a minute, principals beyond
+ * {@code maxPrincipalsPerMinute} are counted together under {@link #OTHER_PRINCIPAL}, so that failed logins with
+ * random usernames cannot exhaust memory.
+ */
+@Component
+public class AuditEventCounters {
+
+    /**
+     * Principal of the events whose principal is not counted separately.
+     */
+    public static final String OTHER_PRINCIPAL = "*";
+
+    /**
+     * Should be the same as in Liquibase migration.
+     */
+    private static final int PRINCIPAL_MAX_LENGTH = 50;
+
+    private static final int MINUTES = 60;
+
+    private static final long MILLIS_PER_MINUTE = 60_000;
+
+    private static final long MILLIS_PER_HOUR = 3_600_000;
+
+    private final Set<String> eventTypes;
+
+    private final int maxKeysPerMinute;
+
+    private final Clock clock;
+
+    private final AtomicReferenceArray<MinuteBucket> minutes = new AtomicReferenceArray<>(MINUTES);
+
+    /**
+     * Counts of the minutes that are over, guarded by {@code this}.
+     */
+    private final Map<Key, Long> hours = new HashMap<>();
+
+    @Autowired
+    public AuditEventCounters(ApplicationProperties applicationProperties) {
+        this(applicationProperties.getAuditEvents().getStats().getEventTypes(),
+            applicationProperties.getAuditEvents().getStats().getMaxPrincipalsPerMinute(), Clock.systemUTC());
+    }
+
+    public AuditEventCounters(Collection<String> eventTypes, int maxPrincipalsPerMinute, Clock clock) {
+        this.eventTypes = new HashSet<>(eventTypes);
+        this.maxKeysPerMinute = Math.max(1, maxPrincipalsPerMinute * Math.max(1, eventTypes.size()));
+        this.clock = clock;
+    }
+
+    /**
+     * Count an audit event, if its type is counted.
+     *
+     * @param principal the principal of the event.
+     * @param type the type of the event.
+     * @param timestamp the time of the event.
+     */
+    public void record(String principal, String type, Instant timestamp) {
+        if (!eventTypes.contains(type)) {
+            return;
+        }
+        long minute = Math.floorDiv(timestamp.toEpochMilli(), MILLIS_PER_MINUTE);
+        MinuteBucket bucket = minutes.get(index(minute));
+        if (bucket == null || bucket.minute != minute) {
+            bucket = bucketFor(minute);
+            if (bucket == null) {
+                synchronized (this) {
+                    hours.merge(new Key(hourOf(minute), truncate(principal), type), 1L, Long::sum);
+                }
+                return;
+            }
+        }
+        bucket.increment(truncate(principal), type, maxKeysPerMinute);
+    }
+
+    /**
+     * Take the counts of the minutes that are over, leaving the current minutes to be counted.
+     * <p>
+     * Counts that could not be persisted should be given back with {@link #restore(Map)}.
+     *
+     * @return the counts, per hour, principal and type.
+     */
+    public synchronized Map<Key, Long> drain() {
+        // The previous minute is kept as well, for the threads that may still be counting in it
+        long previousMinute = Math.floorDiv(clock.millis(), MILLIS_PER_MINUTE) - 1;
+        for (int i = 0; i < MINUTES; i++) {
+            MinuteBucket bucket = minutes.get(i);
+            if (bucket != null && bucket.minute < previousMinute) {
+                roll(bucket);
+                minutes.set(i, null);
+            }
+        }
+        Map<Key, Long> drained = new HashMap<>(hours);
+        hours.clear();
+        return drained;
+    }
+
+    /**
+     * Give back counts taken by {@link #drain()}, to be drained again later.
+     *
+     * @param counts the counts, per hour, principal and type.
+     */
+    public synchronized void restore(Map<Key, Long> counts) {
+        counts.forEach((key, count) -> hours.merge(key, count, Long::sum));
+    }
+
+    /**
+     * Read the counts that have not been drained yet, without taking them.
+     *
+     * @return the counts, per hour, principal and type.
+     */
+    public synchronized Map<Key, Long> snapshot() {
+        Map<Key, Long> snapshot = new HashMap<>(hours);
+        for (int i = 0; i < MINUTES; i++) {
+            MinuteBucket bucket = minutes.get(i);
+            if (bucket != null) {
+                bucket.counts.forEach((key, count) -> snapshot.merge(key, count.sum(), Long::sum));
+            }
+        }
+        return snapshot;
+    }
+
+    private synchronized MinuteBucket bucketFor(long minute) {
+        int index = index(minute);
+        MinuteBucket bucket = minutes.get(index);
+        if (bucket != null && bucket.minute == minute) {
+            return bucket;
+        }
+        if (bucket != null && bucket.minute > minute) {
+            // Older than the ring
+            return null;
+        }
+        if (bucket != null) {
+            roll(bucket);
+        }
+        bucket = new MinuteBucket(minute);
+        minutes.set(index, bucket);
+        return bucket;
+    }
+
+    private void roll(MinuteBucket bucket) {
+        bucket.counts.forEach((key, count) -> hours.merge(key, count.sum(), Long::sum));
+    }
+
+    private static int index(long minute) {
+        return (int) Math.floorMod(minute, (long) MINUTES);
+    }
+
+    private static Instant hourOf(long minute) {
+        return Instant.ofEpochMilli(Math.floorDiv(minute * MILLIS_PER_MINUTE, MILLIS_PER_HOUR) * MILLIS_PER_HOUR);
+    }
+
+    private static String truncate(String principal) {
+        if (principal == null) {
+            return OTHER_PRINCIPAL;
+        }
+        return principal.length() > PRINCIPAL_MAX_LENGTH ? principal.substring(0, PRINCIPAL_MAX_LENGTH) : principal;
+    }
+
+    private static final class MinuteBucket {
+
+        private final long minute;
+
+        private final Instant hour;
+
+        private final Map<Key, LongAdder> counts = new ConcurrentHashMap<>();
+
+        private MinuteBucket(long minute) {
+            this.minute = minute;
+            this.hour = hourOf(minute);
+        }
+
+        private void increment(String principal, String type, int maxKeys) {
+            Key key = new Key(hour, principal, type);
+            LongAdder count = counts.get(key);
+            if (count == null) {
+                if (counts.size() >= maxKeys) {
+                    key = new Key(hour, OTHER_PRINCIPAL, type);
+                }
+                count = counts.computeIfAbsent(key, k -> new LongAdder());
+            }
+            count.increment();
+        }
+    }
+
+    /**
+     * The hour, principal and type audit events are counted by.
+     */
+    public static final class Key {
+
+        private final Instant hour;
+
+        private final String principal;
+
+        private final String type;
+
+        public Key(Instant hour, String principal, String type) {
+            this.hour = hour;
+            this.principal = principal;
+            this.type = type;
+        }
+
+        public Instant getHour() {
+            return hour;
+        }
+
+        public String getPrincipal() {
+            return principal;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) o;
+            return hour.equals(key.hour) && principal.equals(key.principal) && type.equals(key.type);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(hour, principal, type);
+        }
+
+        @Override
+        public String toString() {
+            return "Key{hour=" + hour + ", principal='" + principal + "', type='" + type + "'}";
+        }
+    }
+}
@@ -0,0 +1,339 @@
+package org.jhipster.space.config.audit;
+
+import org.jhipster.space.domain.PersistentAuditEvent;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * Binary format of an audit event archive segment.
+ * <p>
+ * A segment starts with a fixed size header, readable without decompressing anything:
+ * <pre>
+ * magic (int) | version (short) | reserved (short) | event count (int) | payload length (int)
+ * | min timestamp (long) | max timestamp (long)
+ * </pre>
+ * followed by a Deflate-compressed payload, laid out by column: a dictionary of all the strings, then event ids and
+ * timestamps as zigzag varint deltas, then principals, types and data entries as varint dictionary indexes.
+ * Timestamps are in microseconds since the epoch, and events are sorted by timestamp.
+ */
+final class AuditEventSegment {
+
+    static final int MAGIC = 0x41554453;
+
+    static final short VERSION = 1;
+
+    static final int HEADER_LENGTH = 32;
+
+    private static final int INFLATE_CHUNK_LENGTH = 8192;
+
+    private AuditEventSegment() {
+    }
+
+    static final class Header {
+
+        private final int count;
+
+        private final int payloadLength;
+
+        private final long minTimestamp;
+
+        private final long maxTimestamp;
+
+        private Header(int count, int payloadLength, long minTimestamp, long maxTimestamp) {
+            this.count = count;
+            this.payloadLength = payloadLength;
+            this.minTimestamp = minTimestamp;
+            this.maxTimestamp = maxTimestamp;
+        }
+
+        boolean overlaps(Instant from, Instant to) {
+            return maxTimestamp >= toMicros(from) && minTimestamp <= toMicros(to);
+        }
+
+        boolean isWithin(Instant from, Instant to) {
+            return minTimestamp >= toMicros(from) && maxTimestamp <= toMicros(to);
+        }
+
+        int getCount() {
+            return count;
+        }
+
+        long getMinTimestamp() {
+            return minTimestamp;
+        }
+
+        long getMaxTimestamp() {
+            return maxTimestamp;
+        }
+    }
+
+    /**
+     * Encode events into a segment.
+     *
+     * @param events the events to encode; they must all have a date.
+     * @param out the stream to write the segment to.
+     * @throws IOException if the segment cannot be written.
+     */
+    static void write(List<PersistentAuditEvent> events, OutputStream out) throws IOException {
+        List<PersistentAuditEvent> sorted = new ArrayList<>(events);
+        sorted.sort(Comparator.comparing(PersistentAuditEvent::getAuditEventDate).thenComparing(PersistentAuditEvent::getId));
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        for (PersistentAuditEvent event : sorted) {
+            index(dictionary, event.getPrincipal());
+            index(dictionary, event.getAuditEventType());
+            for (Map.Entry<String, String> entry : event.getData().entrySet()) {
+                index(dictionary, entry.getKey());
+                index(dictionary, entry.getValue());
+            }
+        }
+        long minTimestamp = sorted.isEmpty() ? 0 : toMicros(sorted.get(0).getAuditEventDate());
+        long maxTimestamp = sorted.isEmpty() ? 0 : toMicros(sorted.get(sorted.size() - 1).getAuditEventDate());
+
+        ByteArrayOutputStream payload = new ByteArrayOutputStream();
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DataOutputStream columns = new DataOutputStream(new DeflaterOutputStream(payload, deflater))) {
+            writeVarint(columns, dictionary.size());
+            for (String value : dictionary.keySet()) {
+                byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+                writeVarint(columns, bytes.length);
+                columns.write(bytes);
+            }
+            long previous = 0;
+            for (PersistentAuditEvent event : sorted) {
+                writeVarint(columns, zigzag(event.getId() - previous));
+                previous = event.getId();
+            }
+            previous = minTimestamp;
+            for (PersistentAuditEvent event : sorted) {
+                long timestamp = toMicros(event.getAuditEventDate());
+                writeVarint(columns, zigzag(timestamp - previous));
+                previous = timestamp;
+            }
+            for (PersistentAuditEvent event : sorted) {
+                writeVarint(columns, reference(dictionary, event.getPrincipal()));
+            }
+            for (PersistentAuditEvent event : sorted) {
+                writeVarint(columns, reference(dictionary, event.getAuditEventType()));
+            }
+            for (PersistentAuditEvent event : sorted) {
+                writeVarint(columns, event.getData().size());
+            }
+            for (PersistentAuditEvent event : sorted) {
+                for (Map.Entry<String, String> entry : event.getData().entrySet()) {
+                    writeVarint(columns, reference(dictionary, entry.getKey()));
+                    writeVarint(columns, reference(dictionary, entry.getValue()));
+                }
+            }
+        } finally {
+            deflater.end();
+        }
+
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(MAGIC);
+        header.writeShort(VERSION);
+        header.writeShort(0);
+        header.writeInt(sorted.size());
+        header.writeInt(payload.size());
+        header.writeLong(minTimestamp);
+        header.writeLong(maxTimestamp);
+        payload.writeTo(header);
+        header.flush();
+    }
+
+    /**
+     * Read the header of a segment, leaving the buffer position unchanged.
+     *
+     * @param segment the segment.
+     * @return the header.
+     */
+    static Header readHeader(ByteBuffer segment) {
+        if (segment.remaining() < HEADER_LENGTH) {
+            throw new IllegalArgumentException("Audit event segment is truncated");
+        }
+        int position = segment.position();
+        if (segment.getInt(position) != MAGIC) {
+            throw new IllegalArgumentException("Not an audit event segment");
+        }
+        short version = segment.getShort(position + 4);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Unsupported audit event segment version " + version);
+        }
+        return new Header(segment.getInt(position + 8), segment.getInt(position + 12),
+            segment.getLong(position + 16), segment.getLong(position + 24));
+    }
+
+    /**
+     * Decode the events of a segment within a time range.
+     *
+     * @param segment the segment.
+     * @param from the start of the range, inclusive.
+     * @param to the end of the range, inclusive.
+     * @return the events, sorted by date.
+     */
+    static List<PersistentAuditEvent> read(ByteBuffer segment, Instant from, Instant to) {
+        Header header = readHeader(segment);
+        ByteBuffer payload = segment.duplicate();
+        payload.position(segment.position() + HEADER_LENGTH);
+        payload.limit(payload.position() + header.payloadLength);
+        ByteBuffer columns = ByteBuffer.wrap(inflate(payload));
+
+        int count = header.count;
+        String[] dictionary = new String[readVarint(columns)];
+        for (int i = 0; i < dictionary.length; i++) {
+            byte[] bytes = new byte[readVarint(columns)];
+            columns.get(bytes);
+            dictionary[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        long[] ids = new long[count];
+        long previous = 0;
+        for (int i = 0; i < count; i++) {
+            previous += unzigzag(readVarLong(columns));
+            ids[i] = previous;
+        }
+        long[] timestamps = new long[count];
+        previous = header.minTimestamp;
+        for (int i = 0; i < count; i++) {
+            previous += unzigzag(readVarLong(columns));
+            timestamps[i] = previous;
+        }
+        int[] principals = readReferences(columns, count);
+        int[] types = readReferences(columns, count);
+        int[] dataSizes = readReferences(columns, count);
+
+        long fromMicros = toMicros(from);
+        long toMicros = toMicros(to);
+        List<PersistentAuditEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, String> data = new HashMap<>();
+            for (int j = 0; j < dataSizes[i]; j++) {
+                data.put(dereference(dictionary, readVarint(columns)), dereference(dictionary, readVarint(columns)));
+            }
+            if (timestamps[i] < fromMicros || timestamps[i] > toMicros) {
+                continue;
+            }
+            PersistentAuditEvent event = new PersistentAuditEvent();
+            event.setId(ids[i]);
+            event.setAuditEventDate(fromMicros(timestamps[i]));
+            event.setPrincipal(dereference(dictionary, principals[i]));
+            event.setAuditEventType(dereference(dictionary, types[i]));
+            event.setData(data);
+            events.add(event);
+        }
+        return events;
+    }
+
+    private static void index(Map<String, Integer> dictionary, String value) {
+        if (value != null) {
+            dictionary.putIfAbsent(value, dictionary.size());
+        }
+    }
+
+    /**
+     * Dictionary references are shifted by one, {@code 0} standing for {@code null}.
+     */
+    private static int reference(Map<String, Integer> dictionary, String value) {
+        return value == null ? 0 : dictionary.get(value) + 1;
+    }
+
+    private static String dereference(String[] dictionary, int reference) {
+        return reference == 0 ? null : dictionary[reference - 1];
+    }
+
+    private static int[] readReferences(ByteBuffer columns, int count) {
+        int[] references = new int[count];
+        for (int i = 0; i < count; i++) {
+            references[i] = readVarint(columns);
+        }
+        return references;
+    }
+
+    /**
+     * Inflate a payload, feeding the inflater from the buffer by chunks rather than copying the whole payload first,
+     * since {@code Inflater} only takes arrays before Java 11.
+     */
+    private static byte[] inflate(ByteBuffer compressed) {
+        Inflater inflater = new Inflater();
+        try {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(compressed.remaining() * 4);
+            byte[] input = new byte[Math.min(INFLATE_CHUNK_LENGTH, Math.max(1, compressed.remaining()))];
+            byte[] buffer = new byte[INFLATE_CHUNK_LENGTH];
+            while (!inflater.finished()) {
+                if (inflater.needsInput()) {
+                    if (!compressed.hasRemaining()) {
+                        throw new IllegalArgumentException("Audit event segment payload is truncated");
+                    }
+                    int length = Math.min(input.length, compressed.remaining());
+                    compressed.get(input, 0, length);
+                    inflater.setInput(input, 0, length);
+                }
+                int length = inflater.inflate(buffer);
+                if (length == 0 && inflater.needsDictionary()) {
+                    throw new IllegalArgumentException("Audit event segment payload is corrupted");
+                }
+                out.write(buffer, 0, length);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalArgumentException("Audit event segment payload is corrupted", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarint(DataOutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in audit event segment");
+    }
+
+    private static int readVarint(ByteBuffer in) {
+        return (int) readVarLong(in);
+    }
+
+    static long toMicros(Instant instant) {
+        return TimeUnit.SECONDS.toMicros(instant.getEpochSecond()) + instant.getNano() / 1000;
+    }
+
+    static Instant fromMicros(long micros) {
+        return Instant.ofEpochSecond(Math.floorDiv(micros, 1_000_000L), Math.floorMod(micros, 1_000_000L) * 1000);
+    }
+}
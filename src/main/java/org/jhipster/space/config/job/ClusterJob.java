@@ -0,0 +1,30 @@
+package org.jhipster.space.config.job;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a scheduled method that must run on one node of the cluster at a time.
+ * <p>
+ * Before running the method, the node acquires the lease of the job in the database; if another node holds it, the
+ * run is skipped. Jobs can also be run on demand from the {@code jobs} management endpoint.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface ClusterJob {
+
+    /**
+     * @return the name of the job, which is also the name of its lease.
+     */
+    String value();
+
+    /**
+     * @return how long the lease is held at most, as an ISO-8601 duration: if the node running the job dies, another
+     * node can run it once the lease has expired. It should be longer than the longest run of the job.
+     */
+    String leaseTime() default "PT1H";
+}
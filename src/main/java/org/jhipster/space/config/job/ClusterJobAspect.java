@@ -0,0 +1,52 @@
+package org.jhipster.space.config.job;
+
+import org.jhipster.space.repository.JobLockRepository.JobLock;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.annotation.Order;
+
+import java.util.Optional;
+
+/**
+ * Aspect running the methods annotated with {@link ClusterJob} only while holding the lease of their job.
+ * <p>
+ * It is ordered before the transaction advice, which runs last, so that the lease is not held by the transaction of
+ * the job.
+ */
+@Aspect
+@Order(0)
+public class ClusterJobAspect {
+
+    private final ClusterJobs clusterJobs;
+
+    public ClusterJobAspect(ClusterJobs clusterJobs) {
+        this.clusterJobs = clusterJobs;
+    }
+
+    /**
+     * Run the job if its lease can be acquired.
+     *
+     * @param joinPoint join point for advice.
+     * @param clusterJob the job annotation.
+     * @return the result of the job, or {@code null} if another node holds the lease.
+     * @throws Throwable the exception thrown by the job.
+     */
+    @Around("@annotation(clusterJob)")
+    public Object runOnOneNode(ProceedingJoinPoint joinPoint, ClusterJob clusterJob) throws Throwable {
+        Optional<JobLock> lock = clusterJobs.acquire(clusterJob);
+        if (!lock.isPresent()) {
+            return null;
+        }
+        long start = System.nanoTime();
+        boolean succeeded = false;
+        try {
+            Object result = joinPoint.proceed();
+            succeeded = true;
+            return result;
+        } finally {
+            clusterJobs.release(lock.get(), succeeded, System.nanoTime() - start);
+        }
+    }
+}
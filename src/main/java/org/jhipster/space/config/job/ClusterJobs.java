@@ -0,0 +1,199 @@
+package org.jhipster.space.config.job;
+
+import org.jhipster.space.repository.JobLockRepository;
+import org.jhipster.space.repository.JobLockRepository.JobLock;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.config.ScheduledTask;
+import org.springframework.scheduling.config.ScheduledTaskHolder;
+import org.springframework.scheduling.support.ScheduledMethodRunnable;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.TransactionException;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registry of the {@link ClusterJob} scheduled methods, acquiring and releasing their leases.
+ * <p>
+ * Runs are timed by the {@code scheduled.job} timer, tagged with the job and the outcome of the run; runs skipped
+ * because another node held the lease are counted by {@code scheduled.job.skipped}, and the
+ * {@code scheduled.job.last.success} gauge is the epoch second of the last successful run on this node.
+ */
+@Component
+public class ClusterJobs {
+
+    private final Logger log = LoggerFactory.getLogger(ClusterJobs.class);
+
+    private final JobLockRepository jobLockRepository;
+
+    private final ObjectProvider<ScheduledTaskHolder> scheduledTaskHolders;
+
+    private final Executor taskExecutor;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Identifies this node in the leases it holds.
+     */
+    private final String owner = ManagementFactory.getRuntimeMXBean().getName();
+
+    private final Map<String, AtomicLong> lastSuccesses = new ConcurrentHashMap<>();
+
+    private volatile Map<String, Job> jobs;
+
+    public ClusterJobs(JobLockRepository jobLockRepository, ObjectProvider<ScheduledTaskHolder> scheduledTaskHolders,
+                       @Qualifier("taskExecutor") Executor taskExecutor, MeterRegistry meterRegistry) {
+        this.jobLockRepository = jobLockRepository;
+        this.scheduledTaskHolders = scheduledTaskHolders;
+        this.taskExecutor = taskExecutor;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Acquire the lease of a job.
+     *
+     * @param clusterJob the job.
+     * @return the lease, or empty if another node holds it.
+     */
+    public Optional<JobLock> acquire(ClusterJob clusterJob) {
+        Optional<JobLock> lock = jobLockRepository.acquire(clusterJob.value(), owner, Duration.parse(clusterJob.leaseTime()));
+        if (lock.isPresent()) {
+            log.debug("Acquired lease of job {}: {}", clusterJob.value(), lock.get());
+        } else {
+            log.debug("Skipping job {}, its lease is held by another node", clusterJob.value());
+            Counter.builder("scheduled.job.skipped")
+                .description("Runs of cluster jobs skipped because another node held the lease")
+                .tag("job", clusterJob.value())
+                .register(meterRegistry)
+                .increment();
+        }
+        return lock;
+    }
+
+    /**
+     * Release the lease of a job after it has run.
+     *
+     * @param lock the lease.
+     * @param succeeded whether the job succeeded.
+     * @param durationNanos the duration of the run.
+     */
+    public void release(JobLock lock, boolean succeeded, long durationNanos) {
+        String name = lock.getName();
+        Timer.builder("scheduled.job")
+            .description("Duration of cluster job runs")
+            .tag("job", name)
+            .tag("outcome", succeeded ? "success" : "failure")
+            .register(meterRegistry)
+            .record(durationNanos, TimeUnit.NANOSECONDS);
+        if (succeeded) {
+            lastSuccesses.computeIfAbsent(name, key -> {
+                AtomicLong lastSuccess = new AtomicLong();
+                Gauge.builder("scheduled.job.last.success", lastSuccess, AtomicLong::get)
+                    .description("Epoch second of the last successful run of cluster jobs on this node")
+                    .tag("job", key)
+                    .register(meterRegistry);
+                return lastSuccess;
+            }).set(TimeUnit.MILLISECONDS.toSeconds(System.currentTimeMillis()));
+        }
+        try {
+            if (!jobLockRepository.release(lock, succeeded)) {
+                log.warn("The lease of job {} expired while it ran, and was acquired by another node: " +
+                    "its lease time should be longer than its runs", name);
+            }
+        } catch (DataAccessException | TransactionException e) {
+            // The lease is released when it expires
+            log.warn("Could not release the lease of job {}: {}", name, e.getMessage());
+        }
+    }
+
+    /**
+     * Run a job now, on the {@code taskExecutor}; it is skipped if another node holds its lease.
+     *
+     * @param name the name of the job.
+     * @return whether the job exists.
+     */
+    public boolean trigger(String name) {
+        Job job = getJobs().get(name);
+        if (job == null) {
+            return false;
+        }
+        log.info("Running job {} on demand", name);
+        taskExecutor.execute(() -> {
+            try {
+                job.runnable.run();
+            } catch (RuntimeException e) {
+                log.error("Job {} failed: {}", name, e.getMessage(), e);
+            }
+        });
+        return true;
+    }
+
+    /**
+     * @return the jobs, by name.
+     */
+    public Map<String, Job> getJobs() {
+        Map<String, Job> result = jobs;
+        if (result == null) {
+            result = new TreeMap<>();
+            for (ScheduledTaskHolder holder : scheduledTaskHolders) {
+                for (ScheduledTask task : holder.getScheduledTasks()) {
+                    Runnable runnable = task.getTask().getRunnable();
+                    if (runnable instanceof ScheduledMethodRunnable) {
+                        ClusterJob clusterJob = AnnotatedElementUtils.findMergedAnnotation(
+                            ((ScheduledMethodRunnable) runnable).getMethod(), ClusterJob.class);
+                        if (clusterJob != null) {
+                            result.put(clusterJob.value(), new Job(clusterJob, runnable));
+                        }
+                    }
+                }
+            }
+            jobs = result;
+        }
+        return result;
+    }
+
+    /**
+     * @param name the name of the job.
+     * @return the lease of the job, as last stored.
+     */
+    public Optional<JobLock> getLock(String name) {
+        return jobLockRepository.findOne(name);
+    }
+
+    public static final class Job {
+
+        private final ClusterJob clusterJob;
+
+        private final Runnable runnable;
+
+        private Job(ClusterJob clusterJob, Runnable runnable) {
+            this.clusterJob = clusterJob;
+            this.runnable = runnable;
+        }
+
+        public String getName() {
+            return clusterJob.value();
+        }
+
+        public Duration getLeaseTime() {
+            return Duration.parse(clusterJob.leaseTime());
+        }
+    }
+}
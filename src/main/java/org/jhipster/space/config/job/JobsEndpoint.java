@@ -0,0 +1,100 @@
+package org.jhipster.space.config.job;
+
+import org.jhipster.space.repository.JobLockRepository.JobLock;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Management endpoint listing the {@link ClusterJob cluster jobs} with their leases, and running them on demand with
+ * a {@code POST} to {@code /management/jobs/<name>}.
+ */
+@Endpoint(id = "jobs")
+public class JobsEndpoint {
+
+    private final ClusterJobs clusterJobs;
+
+    public JobsEndpoint(ClusterJobs clusterJobs) {
+        this.clusterJobs = clusterJobs;
+    }
+
+    @ReadOperation
+    public List<JobDescriptor> jobs() {
+        return clusterJobs.getJobs().values().stream()
+            .map(job -> new JobDescriptor(job, clusterJobs.getLock(job.getName())))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Run a job now, on one node of the cluster.
+     *
+     * @param name the name of the job.
+     * @return {@code 202 (Accepted)}, or {@code 404 (Not Found)} if there is no such job.
+     */
+    @WriteOperation
+    public WebEndpointResponse<Void> run(@Selector String name) {
+        if (!clusterJobs.trigger(name)) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND);
+        }
+        return new WebEndpointResponse<>(202);
+    }
+
+    /**
+     * Description of a job and its lease.
+     */
+    public static final class JobDescriptor {
+
+        private final String name;
+
+        private final String leaseTime;
+
+        private final Long fencingToken;
+
+        private final String lockedBy;
+
+        private final Instant lockedUntil;
+
+        private final Instant lastSuccess;
+
+        private JobDescriptor(ClusterJobs.Job job, Optional<JobLock> lock) {
+            this.name = job.getName();
+            this.leaseTime = job.getLeaseTime().toString();
+            this.fencingToken = lock.map(JobLock::getFencingToken).orElse(null);
+            this.lockedBy = lock.map(JobLock::getLockedBy).orElse(null);
+            this.lockedUntil = lock.map(JobLock::getLockedUntil).orElse(null);
+            this.lastSuccess = lock.map(JobLock::getLastSuccess).orElse(null);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getLeaseTime() {
+            return leaseTime;
+        }
+
+        public Long getFencingToken() {
+            return fencingToken;
+        }
+
+        public String getLockedBy() {
+            return lockedBy;
+        }
+
+        public Instant getLockedUntil() {
+            return lockedUntil;
+        }
+
+        public Instant getLastSuccess() {
+            return lastSuccess;
+        }
+    }
+}
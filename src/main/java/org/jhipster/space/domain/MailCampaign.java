@@ -0,0 +1,180 @@
+package org.jhipster.space.domain;
+
+import org.jhipster.space.domain.enumeration.MailCampaignStatus;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import javax.persistence.*;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * An email sent to all the activated users, from a mail template.
+ * <p>
+ * Users are emailed in increasing id order, and {@code lastUserId} is the checkpoint a campaign resumes from.
+ */
+@Entity
+@Table(name = "jhi_mail_campaign")
+public class MailCampaign implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Pattern(regexp = "^mail/[A-Za-z0-9_-]+$")
+    @Size(max = 100)
+    @Column(name = "template_name", length = 100, nullable = false)
+    private String templateName;
+
+    @NotNull
+    @Pattern(regexp = "^[A-Za-z0-9_.-]+$")
+    @Size(max = 100)
+    @Column(name = "title_key", length = 100, nullable = false)
+    private String titleKey;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 20, nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private MailCampaignStatus status;
+
+    @Column(name = "last_user_id", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long lastUserId;
+
+    @Column(name = "enqueued_count", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private long enqueuedCount;
+
+    @Size(max = 50)
+    @Column(name = "created_by", length = 50)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String createdBy;
+
+    @Column(name = "created_date", nullable = false)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant createdDate;
+
+    @Column(name = "completed_date")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Instant completedDate;
+
+    @Size(max = 255)
+    @Column(name = "last_error")
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private String lastError;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getTemplateName() {
+        return templateName;
+    }
+
+    public void setTemplateName(String templateName) {
+        this.templateName = templateName;
+    }
+
+    public String getTitleKey() {
+        return titleKey;
+    }
+
+    public void setTitleKey(String titleKey) {
+        this.titleKey = titleKey;
+    }
+
+    public MailCampaignStatus getStatus() {
+        return status;
+    }
+
+    public void setStatus(MailCampaignStatus status) {
+        this.status = status;
+    }
+
+    public long getLastUserId() {
+        return lastUserId;
+    }
+
+    public void setLastUserId(long lastUserId) {
+        this.lastUserId = lastUserId;
+    }
+
+    public long getEnqueuedCount() {
+        return enqueuedCount;
+    }
+
+    public void setEnqueuedCount(long enqueuedCount) {
+        this.enqueuedCount = enqueuedCount;
+    }
+
+    public String getCreatedBy() {
+        return createdBy;
+    }
+
+    public void setCreatedBy(String createdBy) {
+        this.createdBy = createdBy;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    public Instant getCompletedDate() {
+        return completedDate;
+    }
+
+    public void setCompletedDate(Instant completedDate) {
+        this.completedDate = completedDate;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+
+    public void setLastError(String lastError) {
+        this.lastError = lastError;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof MailCampaign)) {
+            return false;
+        }
+        return id != null && id.equals(((MailCampaign) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31;
+    }
+
+    @Override
+    public String toString() {
+        return "MailCampaign{" +
+            "id=" + id +
+            ", templateName='" + templateName + '\'' +
+            ", titleKey='" + titleKey + '\'' +
+            ", status=" + status +
+            ", lastUserId=" + lastUserId +
+            ", enqueuedCount=" + enqueuedCount +
+            "}";
+    }
+}
@@ -1,6 +1,7 @@
 package org.jhipster.space.domain;
 
 import org.jhipster.space.config.Constants;
+import org.jhipster.space.service.UserEntityListener;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.apache.commons.lang3.StringUtils;
@@ -25,6 +26,7 @@ import java.util.Set;
 @Entity
 @Table(name = "jhi_user")
 @Cache(usage = CacheConcurrencyStrategy.NONSTRICT_READ_WRITE)
+@EntityListeners(UserEntityListener.class)
 public class User extends AbstractAuditingEntity implements Serializable {
 
     private static final long serialVersionUID = 1L;
@@ -42,8 +44,8 @@ public class User extends AbstractAuditingEntity implements Serializable {
 
     @JsonIgnore
     @NotNull
-    @Size(min = 60, max = 60)
-    @Column(name = "password_hash", length = 60, nullable = false)
+    @Size(min = 60, max = 100)
+    @Column(name = "password_hash", length = 100, nullable = false)
     private String password;
 
     @Size(max = 50)
@@ -94,6 +96,15 @@ public class User extends AbstractAuditingEntity implements Serializable {
     @BatchSize(size = 20)
     private Set<Authority> authorities = new HashSet<>();
 
+    /**
+     * Incremented by Hibernate on every update, including of the authorities only, but not by the upgrades of password
+     * hashes, which leave the account as it was.
+     */
+    @JsonIgnore
+    @Version
+    @Column(nullable = false)
+    private Long version;
+
 
     public Long getId() {
         return id;
@@ -140,8 +151,17 @@ public class User extends AbstractAuditingEntity implements Serializable {
         return email;
     }
 
+    // Lowercase the email before saving it in database
     public void setEmail(String email) {
-        this.email = email;
+        this.email = normalizeEmail(email);
+    }
+
+    /**
+     * @param email an email, in any case.
+     * @return the email as it is stored: lowercase, whatever the default locale.
+     */
+    public static String normalizeEmail(String email) {
+        return StringUtils.lowerCase(email, Locale.ENGLISH);
     }
 
     public String getImageUrl() {
@@ -200,6 +220,10 @@ public class User extends AbstractAuditingEntity implements Serializable {
         this.authorities = authorities;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) {
@@ -0,0 +1,8 @@
+package org.jhipster.space.domain.enumeration;
+
+/**
+ * The MailCampaignStatus enumeration.
+ */
+public enum MailCampaignStatus {
+    RUNNING, COMPLETED, CANCELLED, FAILED
+}
@@ -1,6 +1,8 @@
 package org.jhipster.space.repository;
 
 import org.jhipster.space.config.Constants;
+import org.jhipster.space.config.audit.AsyncAuditEventWriter;
+import org.jhipster.space.config.audit.AuditEventCounters;
 import org.jhipster.space.config.audit.AuditEventConverter;
 import org.jhipster.space.domain.PersistentAuditEvent;
 
@@ -9,14 +11,14 @@ import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.actuate.audit.AuditEventRepository;
 import org.springframework.stereotype.Repository;
-import org.springframework.transaction.annotation.Propagation;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.Instant;
 import java.util.*;
 
 /**
  * An implementation of Spring Boot's {@link AuditEventRepository}.
+ * <p>
+ * Events are saved asynchronously by the {@link AsyncAuditEventWriter}, and counted by the {@link AuditEventCounters}.
  */
 @Repository
 public class CustomAuditEventRepository implements AuditEventRepository {
@@ -32,13 +34,20 @@ public class CustomAuditEventRepository implements AuditEventRepository {
 
     private final AuditEventConverter auditEventConverter;
 
+    private final AsyncAuditEventWriter auditEventWriter;
+
+    private final AuditEventCounters auditEventCounters;
+
     private final Logger log = LoggerFactory.getLogger(getClass());
 
     public CustomAuditEventRepository(PersistenceAuditEventRepository persistenceAuditEventRepository,
-            AuditEventConverter auditEventConverter) {
+            AuditEventConverter auditEventConverter, AsyncAuditEventWriter auditEventWriter,
+            AuditEventCounters auditEventCounters) {
 
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
         this.auditEventConverter = auditEventConverter;
+        this.auditEventWriter = auditEventWriter;
+        this.auditEventCounters = auditEventCounters;
     }
 
     @Override
@@ -49,7 +58,6 @@ public class CustomAuditEventRepository implements AuditEventRepository {
     }
 
     @Override
-    @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void add(AuditEvent event) {
         if (!AUTHORIZATION_FAILURE.equals(event.getType()) &&
             !Constants.ANONYMOUS_USER.equals(event.getPrincipal())) {
@@ -60,7 +68,8 @@ public class CustomAuditEventRepository implements AuditEventRepository {
             persistentAuditEvent.setAuditEventDate(event.getTimestamp());
             Map<String, String> eventData = auditEventConverter.convertDataToStrings(event.getData());
             persistentAuditEvent.setData(truncate(eventData));
-            persistenceAuditEventRepository.save(persistentAuditEvent);
+            auditEventWriter.write(persistentAuditEvent);
+            auditEventCounters.record(event.getPrincipal(), event.getType(), event.getTimestamp());
         }
     }
 
@@ -0,0 +1,171 @@
+package org.jhipster.space.repository;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for the leases of the jobs that must run on one node at a time, stored in the {@code jhi_job_lock} table.
+ * <p>
+ * A lease is acquired by a conditional update, in its own transaction so that other nodes see it right away. Its
+ * expiry is computed and checked with the {@code current_timestamp} of the database, so that the clocks of the nodes
+ * do not need to agree.
+ * <p>
+ * Each acquisition increments the fencing token of the job. It only fences the lease itself: a node whose lease has
+ * expired and been taken over cannot release it, nor record a success, for the new holder. It is not passed to the
+ * jobs, and does not fence what they write: a run that outlasts its lease can overlap with the run of the new holder,
+ * so the lease time of a job must be longer than its runs.
+ */
+@Repository
+public class JobLockRepository {
+
+    private static final RowMapper<JobLock> JOB_LOCK_ROW_MAPPER = (resultSet, rowNum) -> new JobLock(
+        resultSet.getString("name"),
+        resultSet.getLong("fencing_token"),
+        resultSet.getString("locked_by"),
+        toInstant(resultSet.getTimestamp("locked_until")),
+        toInstant(resultSet.getTimestamp("last_success")));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public JobLockRepository(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Acquire the lease of a job, if no other node holds it.
+     *
+     * @param name the name of the job.
+     * @param owner the node acquiring the lease.
+     * @param leaseTime how long the lease is held at most, if it is not released.
+     * @return the acquired lease, or empty if it is held by another node.
+     */
+    public Optional<JobLock> acquire(String name, String owner, Duration leaseTime) {
+        Optional<JobLock> lock = tryAcquire(name, owner, leaseTime);
+        if (!lock.isPresent() && create(name)) {
+            lock = tryAcquire(name, owner, leaseTime);
+        }
+        return lock;
+    }
+
+    private Optional<JobLock> tryAcquire(String name, String owner, Duration leaseTime) {
+        return transactionTemplate.execute(status -> {
+            int updated = jdbcTemplate.update("update jhi_job_lock set fencing_token = fencing_token + 1, locked_by = ?, " +
+                    "locked_until = current_timestamp + cast(? as bigint) * interval '0.001' second " +
+                    "where name = ? and (locked_until is null or locked_until <= current_timestamp)",
+                owner, leaseTime.toMillis(), name);
+            return updated == 0 ? Optional.<JobLock>empty() : findOne(name);
+        });
+    }
+
+    /**
+     * @return whether the lock row was created, {@code false} if it already existed.
+     */
+    private boolean create(String name) {
+        try {
+            transactionTemplate.execute(status ->
+                jdbcTemplate.update("insert into jhi_job_lock (name, fencing_token) values (?, 0)", name));
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Release a lease, so that the job can run again on any node.
+     *
+     * @param lock the lease to release.
+     * @param succeeded whether the job succeeded, to record the time of its last success.
+     * @return whether the lease was still held; {@code false} if it expired and another node acquired it.
+     */
+    public boolean release(JobLock lock, boolean succeeded) {
+        String assignments = succeeded
+            ? "locked_by = null, locked_until = null, last_success = current_timestamp"
+            : "locked_by = null, locked_until = null";
+        Integer updated = transactionTemplate.execute(status ->
+            jdbcTemplate.update("update jhi_job_lock set " + assignments + " where name = ? and fencing_token = ?",
+                lock.getName(), lock.getFencingToken()));
+        return updated != null && updated > 0;
+    }
+
+    public Optional<JobLock> findOne(String name) {
+        return jdbcTemplate.query("select * from jhi_job_lock where name = ?", JOB_LOCK_ROW_MAPPER, name).stream().findFirst();
+    }
+
+    public List<JobLock> findAll() {
+        return jdbcTemplate.query("select * from jhi_job_lock order by name", JOB_LOCK_ROW_MAPPER);
+    }
+
+    private static Instant toInstant(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toInstant();
+    }
+
+    /**
+     * The lease of a job, as stored when it was read.
+     */
+    public static final class JobLock {
+
+        private final String name;
+
+        private final long fencingToken;
+
+        private final String lockedBy;
+
+        private final Instant lockedUntil;
+
+        private final Instant lastSuccess;
+
+        public JobLock(String name, long fencingToken, String lockedBy, Instant lockedUntil, Instant lastSuccess) {
+            this.name = name;
+            this.fencingToken = fencingToken;
+            this.lockedBy = lockedBy;
+            this.lockedUntil = lockedUntil;
+            this.lastSuccess = lastSuccess;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public long getFencingToken() {
+            return fencingToken;
+        }
+
+        public String getLockedBy() {
+            return lockedBy;
+        }
+
+        public Instant getLockedUntil() {
+            return lockedUntil;
+        }
+
+        public Instant getLastSuccess() {
+            return lastSuccess;
+        }
+
+        @Override
+        public String toString() {
+            return "JobLock{" +
+                "name='" + name + '\'' +
+                ", fencingToken=" + fencingToken +
+                ", lockedBy='" + lockedBy + '\'' +
+                ", lockedUntil=" + lockedUntil +
+                ", lastSuccess=" + lastSuccess +
+                '}';
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package org.jhipster.space.repository;
+
+import org.jhipster.space.domain.MailCampaign;
+import org.jhipster.space.domain.enumeration.MailCampaignStatus;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import java.util.Optional;
+
+/**
+ * Spring Data JPA repository for the {@link MailCampaign} entity.
+ */
+@Repository
+public interface MailCampaignRepository extends JpaRepository<MailCampaign, Long> {
+
+    /**
+     * Lock a campaign, so that only one node sends its next chunk.
+     *
+     * @param id the id of the campaign.
+     * @return the campaign.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from MailCampaign c where c.id = :id")
+    Optional<MailCampaign> findOneForUpdate(@Param("id") Long id);
+
+    Optional<MailCampaign> findFirstByStatusOrderByIdAsc(MailCampaignStatus status);
+}
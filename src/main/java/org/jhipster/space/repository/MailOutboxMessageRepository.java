@@ -0,0 +1,46 @@
+package org.jhipster.space.repository;
+
+import org.jhipster.space.domain.MailOutboxMessage;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Spring Data JPA repository for the {@link MailOutboxMessage} entity.
+ */
+@Repository
+public interface MailOutboxMessageRepository extends JpaRepository<MailOutboxMessage, Long> {
+
+    /**
+     * Lock the messages due to be sent, skipping those already locked by another node where the database supports it.
+     *
+     * @param now the current time.
+     * @param maxAttempts the number of attempts after which messages are abandoned.
+     * @param pageable the maximum number of messages to lock.
+     * @return the messages, oldest first.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    @Query("select m from MailOutboxMessage m where m.nextAttemptDate <= :now and m.attempts < :maxAttempts " +
+        "order by m.nextAttemptDate, m.id")
+    List<MailOutboxMessage> findDueForUpdate(@Param("now") Instant now, @Param("maxAttempts") int maxAttempts,
+                                             Pageable pageable);
+
+    long countByAttemptsLessThan(int maxAttempts);
+
+    @Modifying
+    @Query("delete from MailOutboxMessage m where m.id in (:ids)")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -3,9 +3,14 @@ package org.jhipster.space.repository;
 import org.jhipster.space.domain.PersistentAuditEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -19,5 +24,54 @@ public interface PersistenceAuditEventRepository extends JpaRepository<Persisten
 
     Page<PersistentAuditEvent> findAllByAuditEventDateBetween(Instant fromDate, Instant toDate, Pageable pageable);
 
-    List<PersistentAuditEvent> findByAuditEventDateBefore(Instant before);
+    @Query("select e from PersistentAuditEvent e")
+    Slice<PersistentAuditEvent> findSliceBy(Pageable pageable);
+
+    Slice<PersistentAuditEvent> findSliceByAuditEventDateBetween(Instant fromDate, Instant toDate, Pageable pageable);
+
+    @Query("select e.id as eventId, key(d) as name, value(d) as value " +
+        "from PersistentAuditEvent e join e.data d where e.id in :ids")
+    List<DataEntry> findDataByIdIn(@Param("ids") Collection<Long> ids);
+
+    long countByAuditEventDateBetween(Instant fromDate, Instant toDate);
+
+    @Query("select min(e.auditEventDate) from PersistentAuditEvent e")
+    Instant findMinAuditEventDate();
+
+    @Query("select distinct e from PersistentAuditEvent e left join fetch e.data " +
+        "where e.id >= :fromId and e.id < :toId and e.auditEventDate < :before")
+    List<PersistentAuditEvent> findAllWithDataByIdRangeAndAuditEventDateBefore(@Param("fromId") long fromId,
+                                                                               @Param("toId") long toId,
+                                                                               @Param("before") Instant before);
+
+    @Query("select min(e.id) from PersistentAuditEvent e where e.auditEventDate < :before")
+    Long findMinIdByAuditEventDateBefore(@Param("before") Instant before);
+
+    @Query("select max(e.id) from PersistentAuditEvent e where e.auditEventDate < :before")
+    Long findMaxIdByAuditEventDateBefore(@Param("before") Instant before);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from jhi_persistent_audit_evt_data where event_id in (" +
+        "select event_id from jhi_persistent_audit_event " +
+        "where event_id >= :fromId and event_id < :toId and event_date < :before)", nativeQuery = true)
+    int deleteDataByIdRangeAndAuditEventDateBefore(@Param("fromId") long fromId, @Param("toId") long toId,
+                                                   @Param("before") Instant before);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from jhi_persistent_audit_event " +
+        "where event_id >= :fromId and event_id < :toId and event_date < :before", nativeQuery = true)
+    int deleteByIdRangeAndAuditEventDateBefore(@Param("fromId") long fromId, @Param("toId") long toId,
+                                               @Param("before") Instant before);
+
+    /**
+     * A single data entry of an audit event, read without loading its event.
+     */
+    interface DataEntry {
+
+        Long getEventId();
+
+        String getName();
+
+        String getValue();
+    }
 }
@@ -7,8 +7,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.time.Instant;
@@ -21,25 +25,220 @@ public interface UserRepository extends JpaRepository<User, Long> {
 
     String USERS_BY_LOGIN_CACHE = "usersByLogin";
 
+    /**
+     * Maps emails to logins only, so that users found by email share their {@link #USERS_BY_LOGIN_CACHE} entry.
+     */
     String USERS_BY_EMAIL_CACHE = "usersByEmail";
 
+    /**
+     * The fields of a {@link UserSummary}, from a user aliased {@code u}.
+     */
+    String SUMMARY_FIELDS = "u.id as id, u.login as login, u.firstName as firstName, u.lastName as lastName, " +
+        "u.email as email, u.imageUrl as imageUrl, u.activated as activated, u.langKey as langKey, " +
+        "u.createdBy as createdBy, u.createdDate as createdDate, u.lastModifiedBy as lastModifiedBy, " +
+        "u.lastModifiedDate as lastModifiedDate";
+
+    /**
+     * The conditions of {@link #searchByLoginNot}, shared with its count query.
+     */
+    String SEARCH_CONDITION = "(lower(u.login) like :pattern escape '\\' or lower(u.email) like :pattern escape '\\' " +
+        "or lower(u.firstName) like :pattern escape '\\' or lower(u.lastName) like :pattern escape '\\')";
+
     Optional<User> findOneByActivationKey(String activationKey);
 
+    /**
+     * Find the keys of the users saved after a date, using the index on the last modification date.
+     *
+     * @param dateTime the date after which users are returned.
+     * @return the keys of the users.
+     */
+    List<UserKeys> findKeysByLastModifiedDateAfter(Instant dateTime);
+
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
 
+    /**
+     * Find the keys of the first not activated users created before a date, using the index on activation and
+     * creation date.
+     *
+     * @param dateTime the creation date before which users are returned.
+     * @param pageable the maximum number of users to read.
+     * @return the keys of the users, by creation date.
+     */
+    @Query("select u.id as id, u.login as login, u.email as email from User u " +
+        "where u.activated = false and u.activationKey is not null and u.createdDate < :dateTime order by u.createdDate, u.id")
+    List<UserKeys> findKeysByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(@Param("dateTime") Instant dateTime,
+                                                                                         Pageable pageable);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "delete from jhi_user_authority where user_id in (:ids)", nativeQuery = true)
+    int deleteAuthoritiesByUserIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from User u where u.id in (:ids)")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Replace the password hash of a user if it is still the given one, without incrementing its version.
+     *
+     * @param login the login of the user.
+     * @param currentPassword the password hash expected to be stored.
+     * @param newPassword the new password hash.
+     * @return {@code 1} if the hash was replaced, {@code 0} if the user is unknown or its hash changed meanwhile.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update User u set u.password = :newPassword where u.login = :login and u.password = :currentPassword")
+    int updatePasswordByLoginAndPassword(@Param("login") String login, @Param("currentPassword") String currentPassword,
+                                         @Param("newPassword") String newPassword);
+
     Optional<User> findOneByResetKey(String resetKey);
 
-    Optional<User> findOneByEmailIgnoreCase(String email);
+    /**
+     * Find a user by email, using the unique index on emails.
+     *
+     * @param email the email, lowercase as emails are stored.
+     * @return the user.
+     */
+    Optional<User> findOneByEmail(String email);
+
+    /**
+     * Find a user by email, in any case, normalized as {@link User#setEmail(String)} stores it.
+     *
+     * @param email the email, or {@code null}.
+     * @return the user.
+     */
+    default Optional<User> findOneByNormalizedEmail(String email) {
+        return email == null ? Optional.empty() : findOneByEmail(User.normalizeEmail(email));
+    }
 
     Optional<User> findOneByLogin(String login);
 
+    @Query("select u.login from User u")
+    List<String> findAllLogins();
+
+    @Query("select u.email from User u where u.email is not null")
+    List<String> findAllEmails();
+
+    @Query("select u.login from User u where u.login in (:logins)")
+    List<String> findLoginsByLoginIn(@Param("logins") Collection<String> logins);
+
+    /**
+     * Find which of the given emails are used, using the unique index on emails.
+     *
+     * @param emails the emails, already lowercased.
+     * @return the emails in use.
+     */
+    @Query("select u.email from User u where u.email in (:emails)")
+    List<String> findEmailsByEmailIn(@Param("emails") Collection<String> emails);
+
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByLoginIn(Collection<String> logins);
+
     @EntityGraph(attributePaths = "authorities")
     @Cacheable(cacheNames = USERS_BY_LOGIN_CACHE)
     Optional<User> findOneWithAuthoritiesByLogin(String login);
 
-    @EntityGraph(attributePaths = "authorities")
-    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE)
-    Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
+    /**
+     * Find the login of a user from a lowercase email, using the unique index on emails.
+     *
+     * @param email the email, already lowercased.
+     * @return the login of the user.
+     */
+    @Cacheable(cacheNames = USERS_BY_EMAIL_CACHE, unless = "#result == null")
+    @Query("select u.login from User u where u.email = ?1")
+    Optional<String> findLoginByEmail(String email);
+
+    /**
+     * Find users without loading their authorities.
+     *
+     * @param login the login of the user to exclude.
+     * @param pageable the pagination information.
+     * @return the page of users.
+     */
+    @Query(value = "select " + SUMMARY_FIELDS + " from User u where u.login <> :login",
+        countQuery = "select count(u) from User u where u.login <> :login")
+    Page<UserSummary> findSummariesByLoginNot(@Param("login") String login, Pageable pageable);
+
+    /**
+     * Search users by login, email, first or last name, without loading their authorities.
+     * <p>
+     * On PostgreSQL, the {@code lower(...) like} conditions use the trigram indexes of the user table.
+     *
+     * @param pattern the lowercase {@code like} pattern, with {@code \} as escape character.
+     * @param login the login of the user to exclude.
+     * @param pageable the pagination information.
+     * @return the page of matching users.
+     */
+    @Query(value = "select " + SUMMARY_FIELDS + " from User u where u.login <> :login and " + SEARCH_CONDITION,
+        countQuery = "select count(u) from User u where u.login <> :login and " + SEARCH_CONDITION)
+    Page<UserSummary> searchByLoginNot(@Param("pattern") String pattern, @Param("login") String login, Pageable pageable);
+
+    /**
+     * Find the authorities of users, with a single join.
+     *
+     * @param ids the ids of the users.
+     * @return the authority names, by user id.
+     */
+    @Query("select u.id as userId, a.name as authority from User u join u.authorities a where u.id in (:ids)")
+    List<UserAuthority> findAuthoritiesByUserIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Find the next activated users having an email, after a given id, using the primary key index.
+     *
+     * @param id the id of the last user already read.
+     * @param pageable the maximum number of users to read.
+     * @return the users, by increasing id.
+     */
+    List<User> findAllByActivatedIsTrueAndEmailIsNotNullAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * The keys of a user, read without loading the user.
+     */
+    interface UserKeys {
+
+        Long getId();
+
+        String getLogin();
+
+        String getEmail();
+    }
+
+    /**
+     * The fields of a user, read without its authorities.
+     */
+    interface UserSummary {
+
+        Long getId();
+
+        String getLogin();
+
+        String getFirstName();
+
+        String getLastName();
+
+        String getEmail();
+
+        String getImageUrl();
+
+        boolean isActivated();
+
+        String getLangKey();
+
+        String getCreatedBy();
+
+        Instant getCreatedDate();
+
+        String getLastModifiedBy();
+
+        Instant getLastModifiedDate();
+    }
+
+    /**
+     * An authority of a user.
+     */
+    interface UserAuthority {
+
+        Long getUserId();
 
-    Page<User> findAllByLoginNot(Pageable pageable, String login);
+        String getAuthority();
+    }
 }
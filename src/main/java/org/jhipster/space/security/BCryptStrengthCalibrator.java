@@ -0,0 +1,62 @@
+package org.jhipster.space.security;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+
+/**
+ * Utility class picking the BCrypt work factor that fits a hashing latency budget on the current hardware.
+ * <p>
+ * Each BCrypt strength increment doubles the hashing cost, so a single measurement at the lowest allowed
+ * strength is enough to extrapolate the others.
+ */
+public final class BCryptStrengthCalibrator {
+
+    private static final String SAMPLE_PASSWORD = "calibration-sample";
+
+    private static final int WARM_UP_STRENGTH = 4;
+
+    private static final int WARM_UP_ROUNDS = 5;
+
+    private static final int SAMPLES = 2;
+
+    private BCryptStrengthCalibrator() {
+    }
+
+    /**
+     * Find the highest strength whose estimated hashing time stays within the target latency.
+     *
+     * @param targetLatency the hashing time a single encoding should take.
+     * @param minStrength the lowest strength to return, even if it exceeds the target.
+     * @param maxStrength the highest strength to return, even if the target allows more.
+     * @return the calibrated strength.
+     */
+    public static int calibrate(Duration targetLatency, int minStrength, int maxStrength) {
+        if (minStrength > maxStrength) {
+            throw new IllegalArgumentException("Minimum strength " + minStrength + " is above maximum strength " + maxStrength);
+        }
+        long estimatedNanos = measure(minStrength);
+        long targetNanos = targetLatency.toNanos();
+        int strength = minStrength;
+        while (strength < maxStrength && estimatedNanos * 2 <= targetNanos) {
+            estimatedNanos *= 2;
+            strength++;
+        }
+        return strength;
+    }
+
+    private static long measure(int strength) {
+        BCryptPasswordEncoder warmUpEncoder = new BCryptPasswordEncoder(WARM_UP_STRENGTH);
+        for (int i = 0; i < WARM_UP_ROUNDS; i++) {
+            warmUpEncoder.encode(SAMPLE_PASSWORD);
+        }
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < SAMPLES; i++) {
+            long start = System.nanoTime();
+            encoder.encode(SAMPLE_PASSWORD);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        return best;
+    }
+}
@@ -2,12 +2,14 @@ package org.jhipster.space.security;
 
 import org.jhipster.space.domain.User;
 import org.jhipster.space.repository.UserRepository;
+import org.jhipster.space.service.UserService;
 import org.hibernate.validator.internal.constraintvalidators.hv.EmailValidator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Component;
@@ -18,16 +20,23 @@ import java.util.stream.Collectors;
 
 /**
  * Authenticate a user from the database.
+ * <p>
+ * Password hashes that no longer match the current encoding are upgraded on successful login.
  */
 @Component("userDetailsService")
-public class DomainUserDetailsService implements UserDetailsService {
+public class DomainUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+    private static final EmailValidator EMAIL_VALIDATOR = new EmailValidator();
 
     private final Logger log = LoggerFactory.getLogger(DomainUserDetailsService.class);
 
     private final UserRepository userRepository;
 
-    public DomainUserDetailsService(UserRepository userRepository) {
+    private final UserService userService;
+
+    public DomainUserDetailsService(UserRepository userRepository, UserService userService) {
         this.userRepository = userRepository;
+        this.userService = userService;
     }
 
     @Override
@@ -35,10 +44,12 @@ public class DomainUserDetailsService implements UserDetailsService {
     public UserDetails loadUserByUsername(final String login) {
         log.debug("Authenticating {}", login);
 
-        if (new EmailValidator().isValid(login, null)) {
-            return userRepository.findOneWithAuthoritiesByEmailIgnoreCase(login)
-                .map(user -> createSpringSecurityUser(login, user))
-                .orElseThrow(() -> new UsernameNotFoundException("User with email " + login + " was not found in the database"));
+        if (EMAIL_VALIDATOR.isValid(login, null)) {
+            String lowercaseEmail = login.toLowerCase(Locale.ENGLISH);
+            return userRepository.findLoginByEmail(lowercaseEmail)
+                .flatMap(userRepository::findOneWithAuthoritiesByLogin)
+                .map(user -> createSpringSecurityUser(lowercaseEmail, user))
+                .orElseThrow(() -> new UsernameNotFoundException("User with email " + lowercaseEmail + " was not found in the database"));
         }
 
         String lowercaseLogin = login.toLowerCase(Locale.ENGLISH);
@@ -48,6 +59,15 @@ public class DomainUserDetailsService implements UserDetailsService {
 
     }
 
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        log.debug("Upgrading password hash of {}", user.getUsername());
+        userService.updatePasswordHash(user.getUsername(), user.getPassword(), newPassword);
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+            .password(newPassword)
+            .build();
+    }
+
     private org.springframework.security.core.userdetails.User createSpringSecurityUser(String lowercaseLogin, User user) {
         if (!user.getActivated()) {
             throw new UserNotActivatedException("User " + lowercaseLogin + " was not activated");
@@ -0,0 +1,47 @@
+package org.jhipster.space.security.ratelimit;
+
+import org.jhipster.space.web.rest.errors.TooManyRequestsException;
+
+import org.springframework.web.filter.GenericFilterBean;
+import org.springframework.web.servlet.HandlerExceptionResolver;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Filters incoming requests and rejects them with a {@code 429 Too Many Requests} problem when they exceed a quota of
+ * the {@link ApiRateLimiter}.
+ * <p>
+ * It must run after the {@link org.jhipster.space.security.jwt.JWTFilter}, so that user quotas apply to the
+ * authenticated principal.
+ */
+public class ApiRateLimitFilter extends GenericFilterBean {
+
+    private final ApiRateLimiter apiRateLimiter;
+
+    private final HandlerExceptionResolver handlerExceptionResolver;
+
+    public ApiRateLimitFilter(ApiRateLimiter apiRateLimiter, HandlerExceptionResolver handlerExceptionResolver) {
+        this.apiRateLimiter = apiRateLimiter;
+        this.handlerExceptionResolver = handlerExceptionResolver;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+        throws IOException, ServletException {
+        HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
+        long retryAfterNanos = apiRateLimiter.tryAcquire(httpServletRequest);
+        if (retryAfterNanos > 0) {
+            handlerExceptionResolver.resolveException(httpServletRequest, (HttpServletResponse) servletResponse, null,
+                new TooManyRequestsException("Too many requests", Duration.ofNanos(retryAfterNanos)));
+            return;
+        }
+        filterChain.doFilter(servletRequest, servletResponse);
+    }
+}
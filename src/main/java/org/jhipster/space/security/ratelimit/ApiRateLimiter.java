@@ -0,0 +1,153 @@
+package org.jhipster.space.security.ratelimit;
+
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.config.ApplicationProperties.Security.ApiRateLimit.Quota;
+import org.jhipster.space.security.SecurityUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.stereotype.Component;
+
+import javax.servlet.http.HttpServletRequest;
+import java.time.Clock;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Enforces the request quotas configured under {@code application.security.api-rate-limit}, using the generic cell
+ * rate algorithm (GCRA) on top of a {@link RateLimiterStore}.
+ * <p>
+ * A quota of {@code limit} requests per {@code period} lets a caller send {@code limit} requests in a burst, then one
+ * request every {@code period / limit}.
+ */
+@Component
+public class ApiRateLimiter {
+
+    private static final String REJECTED_METRIC = "security.api.requests.rejected";
+
+    private final Logger log = LoggerFactory.getLogger(ApiRateLimiter.class);
+
+    private final List<RequestQuota> quotas;
+
+    private final RateLimiterStore store;
+
+    private final Clock clock;
+
+    @Autowired
+    public ApiRateLimiter(ApplicationProperties applicationProperties, ObjectProvider<RateLimiterStore> store,
+                          MeterRegistry meterRegistry) {
+        this(applicationProperties.getSecurity().getApiRateLimit(), store.getIfAvailable(() ->
+            new InMemoryRateLimiterStore(applicationProperties.getSecurity().getApiRateLimit().getMaxEntries())),
+            meterRegistry, Clock.systemUTC());
+    }
+
+    ApiRateLimiter(ApplicationProperties.Security.ApiRateLimit properties, RateLimiterStore store,
+                   MeterRegistry meterRegistry, Clock clock) {
+        this.store = store;
+        this.clock = clock;
+        if (properties.isEnabled()) {
+            this.quotas = properties.getQuotas().stream()
+                .map(quota -> new RequestQuota(quota, meterRegistry))
+                .collect(Collectors.toList());
+        } else {
+            this.quotas = Collections.emptyList();
+        }
+    }
+
+    /**
+     * Check if some quotas are enforced.
+     *
+     * @return true if at least one quota is enforced, false otherwise.
+     */
+    public boolean isEnabled() {
+        return !quotas.isEmpty();
+    }
+
+    /**
+     * Record a request against all the quotas it matches, stopping at the first one it exceeds.
+     *
+     * @param request the incoming request, after authentication.
+     * @return {@code 0} if the request may proceed, otherwise the number of nanoseconds before the client should retry.
+     */
+    public long tryAcquire(HttpServletRequest request) {
+        String caller = null;
+        long now = -1;
+        for (RequestQuota quota : quotas) {
+            if (!quota.matcher.matches(request)) {
+                continue;
+            }
+            if (now < 0) {
+                Instant instant = clock.instant();
+                now = TimeUnit.SECONDS.toNanos(instant.getEpochSecond()) + instant.getNano();
+            }
+            String key = quota.name;
+            if (quota.scope == Quota.Scope.USER) {
+                if (caller == null) {
+                    caller = SecurityUtils.getCurrentUserLogin()
+                        .map(login -> "user:" + login)
+                        .orElseGet(() -> "address:" + request.getRemoteAddr());
+                }
+                key = key + ':' + caller;
+            }
+            long wait = store.tryAcquire(key, now, quota.emissionInterval, quota.tolerance);
+            if (wait > 0) {
+                quota.rejected.increment();
+                log.debug("Request to {} exceeds quota {} for {}", request.getRequestURI(), quota.name, key);
+                return wait;
+            }
+        }
+        return 0;
+    }
+
+    private static final class RequestQuota {
+
+        private final String name;
+
+        private final Quota.Scope scope;
+
+        private final RequestMatcher matcher;
+
+        private final long emissionInterval;
+
+        private final long tolerance;
+
+        private final Counter rejected;
+
+        private RequestQuota(Quota quota, MeterRegistry meterRegistry) {
+            if (quota.getName() == null || quota.getPattern() == null) {
+                throw new IllegalArgumentException("API rate limit quotas need a name and a pattern");
+            }
+            if (quota.getLimit() < 1 || quota.getPeriod() == null || quota.getPeriod().isNegative() || quota.getPeriod().isZero()) {
+                throw new IllegalArgumentException("API rate limit quota " + quota.getName() + " needs a positive limit and period");
+            }
+            this.name = quota.getName();
+            this.scope = quota.getScope();
+            if (quota.getMethods().isEmpty()) {
+                this.matcher = new AntPathRequestMatcher(quota.getPattern());
+            } else {
+                List<RequestMatcher> matchers = new ArrayList<>();
+                for (String method : quota.getMethods()) {
+                    matchers.add(new AntPathRequestMatcher(quota.getPattern(), method));
+                }
+                this.matcher = new OrRequestMatcher(matchers);
+            }
+            this.emissionInterval = Math.max(1, quota.getPeriod().toNanos() / quota.getLimit());
+            this.tolerance = emissionInterval * (quota.getLimit() - 1);
+            this.rejected = Counter.builder(REJECTED_METRIC)
+                .description("API requests rejected for exceeding a quota")
+                .tag("quota", name)
+                .register(meterRegistry);
+        }
+    }
+}
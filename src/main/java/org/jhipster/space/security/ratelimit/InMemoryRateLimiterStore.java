@@ -0,0 +1,73 @@
+package org.jhipster.space.security.ratelimit;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * {@link RateLimiterStore} keeping the state of each key in local memory, updated with compare-and-set.
+ * <p>
+ * Memory is bounded by {@code maxEntries}: when it is exceeded, keys whose theoretical arrival time has passed are
+ * dropped first (they are indistinguishable from new ones), then arbitrary ones.
+ */
+public class InMemoryRateLimiterStore implements RateLimiterStore {
+
+    private final Map<String, AtomicLong> arrivalTimes = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private final int maxEntries;
+
+    public InMemoryRateLimiterStore(int maxEntries) {
+        this.maxEntries = Math.max(1, maxEntries);
+    }
+
+    @Override
+    public long tryAcquire(String key, long now, long emissionInterval, long tolerance) {
+        AtomicLong arrivalTime = arrivalTimes.get(key);
+        if (arrivalTime == null) {
+            arrivalTime = arrivalTimes.computeIfAbsent(key, k -> new AtomicLong(now));
+            if (arrivalTimes.size() > maxEntries) {
+                evict(now);
+            }
+        }
+        while (true) {
+            long current = arrivalTime.get();
+            long base = Math.max(current, now);
+            long allowedAt = base - tolerance;
+            if (now < allowedAt) {
+                return allowedAt - now;
+            }
+            if (arrivalTime.compareAndSet(current, base + emissionInterval)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Number of keys currently kept in memory.
+     *
+     * @return the number of keys.
+     */
+    public int size() {
+        return arrivalTimes.size();
+    }
+
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            arrivalTimes.values().removeIf(arrivalTime -> arrivalTime.get() <= now);
+            Iterator<AtomicLong> iterator = arrivalTimes.values().iterator();
+            while (arrivalTimes.size() > maxEntries && iterator.hasNext()) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+}
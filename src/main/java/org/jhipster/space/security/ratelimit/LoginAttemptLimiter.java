@@ -0,0 +1,88 @@
+package org.jhipster.space.security.ratelimit;
+
+import org.jhipster.space.config.ApplicationProperties;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+
+/**
+ * Throttles authentication attempts per login and per remote address, before any password is verified.
+ * <p>
+ * Limits are local to each node: with {@code N} nodes behind a load balancer, a client gets up to {@code N} times
+ * the configured capacity.
+ */
+@Component
+public class LoginAttemptLimiter {
+
+    private static final String REJECTED_METRIC = "security.login.attempts.rejected";
+
+    private static final String BUCKETS_METRIC = "security.login.attempts.buckets";
+
+    private final Logger log = LoggerFactory.getLogger(LoginAttemptLimiter.class);
+
+    private final boolean enabled;
+
+    private final TokenBucketRegistry loginBuckets;
+
+    private final TokenBucketRegistry addressBuckets;
+
+    private final Counter rejectedByLogin;
+
+    private final Counter rejectedByAddress;
+
+    public LoginAttemptLimiter(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        ApplicationProperties.Security.LoginRateLimit properties = applicationProperties.getSecurity().getLoginRateLimit();
+        this.enabled = properties.isEnabled();
+        this.loginBuckets = new TokenBucketRegistry(properties.getPerLogin().getCapacity(),
+            properties.getPerLogin().getRefillPeriod(), properties.getMaxEntries());
+        this.addressBuckets = new TokenBucketRegistry(properties.getPerAddress().getCapacity(),
+            properties.getPerAddress().getRefillPeriod(), properties.getMaxEntries());
+        this.rejectedByLogin = Counter.builder(REJECTED_METRIC)
+            .description("Authentication attempts rejected before verifying the password")
+            .tag("limit", "login")
+            .register(meterRegistry);
+        this.rejectedByAddress = Counter.builder(REJECTED_METRIC)
+            .description("Authentication attempts rejected before verifying the password")
+            .tag("limit", "address")
+            .register(meterRegistry);
+        Gauge.builder(BUCKETS_METRIC, loginBuckets, TokenBucketRegistry::size)
+            .description("Token buckets kept in memory by the login attempt limiter")
+            .tag("limit", "login")
+            .register(meterRegistry);
+        Gauge.builder(BUCKETS_METRIC, addressBuckets, TokenBucketRegistry::size)
+            .description("Token buckets kept in memory by the login attempt limiter")
+            .tag("limit", "address")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Record an authentication attempt, if both the remote address and the login still have attempts left.
+     *
+     * @param login the login or email the client is trying to authenticate with.
+     * @param remoteAddress the address of the client.
+     * @return {@code 0} if the attempt may proceed, otherwise the number of nanoseconds before the client should retry.
+     */
+    public long tryAcquire(String login, String remoteAddress) {
+        if (!enabled) {
+            return 0;
+        }
+        long wait = addressBuckets.tryConsume(remoteAddress);
+        if (wait > 0) {
+            rejectedByAddress.increment();
+            log.debug("Too many authentication attempts from {}", remoteAddress);
+            return wait;
+        }
+        wait = loginBuckets.tryConsume(login == null ? "" : login.toLowerCase(Locale.ENGLISH));
+        if (wait > 0) {
+            rejectedByLogin.increment();
+            log.debug("Too many authentication attempts for {}", login);
+        }
+        return wait;
+    }
+}
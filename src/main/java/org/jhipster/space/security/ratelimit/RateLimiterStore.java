@@ -0,0 +1,22 @@
+package org.jhipster.space.security.ratelimit;
+
+/**
+ * Storage of the rate limiter state, keyed by quota and caller.
+ * <p>
+ * The state of a key is its theoretical arrival time (TAT), as defined by the generic cell rate algorithm. The default
+ * implementation is {@link InMemoryRateLimiterStore}; to share quotas between nodes, declare a bean of this type backed
+ * by shared storage, which must apply {@link #tryAcquire} atomically (e.g. as a server-side script).
+ */
+public interface RateLimiterStore {
+
+    /**
+     * Record a request for a key, if it conforms to the rate.
+     *
+     * @param key the key of the quota and caller.
+     * @param now the current time, in nanoseconds since the epoch.
+     * @param emissionInterval the time between two requests at the sustained rate, in nanoseconds.
+     * @param tolerance how far ahead of the sustained rate a burst may go, in nanoseconds.
+     * @return {@code 0} if the request was recorded, otherwise the number of nanoseconds until it would conform.
+     */
+    long tryAcquire(String key, long now, long emissionInterval, long tolerance);
+}
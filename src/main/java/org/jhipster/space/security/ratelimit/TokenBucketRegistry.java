@@ -0,0 +1,173 @@
+package org.jhipster.space.security.ratelimit;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Token buckets keyed by an arbitrary string, with bounded memory.
+ * <p>
+ * Each bucket state (token count and last refill time) is packed into a single {@code long} and updated with
+ * compare-and-set, so consuming a token never takes a lock. Keys are spread over independent stripes, each capped
+ * to its share of {@code maxEntries}: when a stripe overflows, it first drops buckets that have refilled completely
+ * (they are indistinguishable from new ones), then arbitrary ones.
+ */
+public class TokenBucketRegistry {
+
+    private static final int STRIPES = 16;
+
+    /**
+     * Tokens are counted in thousandths, so that partial refills are not lost between two requests.
+     */
+    private static final long TOKEN_SCALE = 1000;
+
+    private static final int TOKEN_BITS = 20;
+
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+
+    /**
+     * Refill times are stored in units of one scaled token on the remaining 44 bits; this lower bound on the unit
+     * keeps them from overflowing for decades. Buckets refilling faster than {@link #MAX_TOKENS_PER_SECOND} are
+     * rejected.
+     */
+    private static final long MIN_NANOS_PER_SCALED_TOKEN = 100_000;
+
+    static final long MAX_TOKENS_PER_SECOND = 1_000_000_000 / (MIN_NANOS_PER_SCALED_TOKEN * TOKEN_SCALE);
+
+    private final long capacity;
+
+    private final long nanosPerScaledToken;
+
+    private final int maxEntriesPerStripe;
+
+    private final LongSupplier nanoClock;
+
+    private final long origin;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    /**
+     * Create a registry of token buckets.
+     *
+     * @param capacity the number of tokens of a full bucket.
+     * @param refillPeriod the time it takes for an empty bucket to be full again.
+     * @param maxEntries the maximum number of buckets kept in memory.
+     * @throws IllegalArgumentException if the capacity is out of range, or if the bucket refills faster than
+     * {@value #MAX_TOKENS_PER_SECOND} tokens per second.
+     */
+    public TokenBucketRegistry(int capacity, Duration refillPeriod, int maxEntries) {
+        this(capacity, refillPeriod, maxEntries, System::nanoTime);
+    }
+
+    TokenBucketRegistry(int capacity, Duration refillPeriod, int maxEntries, LongSupplier nanoClock) {
+        if (capacity < 1 || capacity * TOKEN_SCALE > TOKEN_MASK) {
+            throw new IllegalArgumentException("Bucket capacity must be between 1 and " + TOKEN_MASK / TOKEN_SCALE);
+        }
+        this.capacity = capacity * TOKEN_SCALE;
+        this.nanosPerScaledToken = refillPeriod.toNanos() / this.capacity;
+        if (nanosPerScaledToken < MIN_NANOS_PER_SCALED_TOKEN) {
+            throw new IllegalArgumentException("Refill rate of " + capacity + " tokens per " + refillPeriod + " exceeds " +
+                MAX_TOKENS_PER_SECOND + " tokens per second");
+        }
+        this.maxEntriesPerStripe = Math.max(1, maxEntries / STRIPES);
+        this.nanoClock = nanoClock;
+        this.origin = nanoClock.getAsLong();
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Try to take one token from the bucket of a key.
+     *
+     * @param key the key of the bucket.
+     * @return {@code 0} if a token was taken, otherwise the number of nanoseconds until one is available.
+     */
+    public long tryConsume(String key) {
+        Stripe stripe = stripes[spread(key.hashCode()) & (STRIPES - 1)];
+        long now = nanoClock.getAsLong() - origin;
+        AtomicLong bucket = stripe.buckets.get(key);
+        if (bucket == null) {
+            bucket = stripe.buckets.computeIfAbsent(key, k -> new AtomicLong(pack(now, capacity)));
+            if (stripe.buckets.size() > maxEntriesPerStripe) {
+                stripe.evict(now);
+            }
+        }
+        while (true) {
+            long state = bucket.get();
+            long tokens = tokensAt(state, now);
+            if (tokens < TOKEN_SCALE) {
+                return (TOKEN_SCALE - tokens) * nanosPerScaledToken;
+            }
+            if (bucket.compareAndSet(state, pack(Math.max(now, timeOf(state)), tokens - TOKEN_SCALE))) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Number of buckets currently kept in memory.
+     *
+     * @return the number of buckets.
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            size += stripe.buckets.size();
+        }
+        return size;
+    }
+
+    private long tokensAt(long state, long now) {
+        long elapsed = now - timeOf(state);
+        long tokens = state & TOKEN_MASK;
+        if (elapsed <= 0) {
+            return tokens;
+        }
+        long refill = elapsed / nanosPerScaledToken;
+        return refill >= capacity - tokens ? capacity : tokens + refill;
+    }
+
+    /**
+     * The refill time is stored with the precision of a scaled token, so that refills spread over several
+     * calls add up to the same number of tokens as a single call would.
+     */
+    private long pack(long time, long tokens) {
+        return ((time / nanosPerScaledToken) << TOKEN_BITS) | tokens;
+    }
+
+    private long timeOf(long state) {
+        return (state >>> TOKEN_BITS) * nanosPerScaledToken;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private final class Stripe {
+
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+        private final AtomicBoolean evicting = new AtomicBoolean();
+
+        private void evict(long now) {
+            if (!evicting.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                buckets.values().removeIf(bucket -> tokensAt(bucket.get(), now) >= capacity);
+                Iterator<AtomicLong> iterator = buckets.values().iterator();
+                while (buckets.size() > maxEntriesPerStripe && iterator.hasNext()) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            } finally {
+                evicting.set(false);
+            }
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Rate limiting of incoming requests.
+ */
+package org.jhipster.space.security.ratelimit;
@@ -0,0 +1,90 @@
+package org.jhipster.space.service;
+
+import org.jhipster.space.repository.UserRepository;
+import org.jhipster.space.service.dto.UserDTO;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service caching the account of each user, as returned by {@code GET /api/account}, with a version stamp.
+ * <p>
+ * The version of an account is made of the id and the {@link org.jhipster.space.domain.User#getVersion() version} of
+ * the user, which Hibernate increments on every update of the user or of its authorities: it serves as the ETag of
+ * the account, and is the same on every node. The {@link UserCache} evicts the account of every user that changes,
+ * before and after the commit of its transaction. An account loaded while an eviction happens is not cached, so that
+ * it cannot be cached from data read before the commit.
+ */
+@Service
+public class AccountCache {
+
+    public static final String ACCOUNTS_BY_LOGIN_CACHE = "accountsByLogin";
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    private final UserRepository userRepository;
+
+    private final Cache cache;
+
+    public AccountCache(UserRepository userRepository, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.cache = Objects.requireNonNull(cacheManager.getCache(ACCOUNTS_BY_LOGIN_CACHE));
+    }
+
+    /**
+     * @param login the login of the user.
+     * @return the account of the user, from the cache if present.
+     */
+    public Optional<VersionedAccount> get(String login) {
+        VersionedAccount account = cache.get(login, VersionedAccount.class);
+        if (account != null) {
+            return Optional.of(account);
+        }
+        long evictionsBefore = evictions.get();
+        Optional<VersionedAccount> loaded = userRepository.findOneWithAuthoritiesByLogin(login)
+            .map(user -> new VersionedAccount(user.getId() + "-" + user.getVersion(), new UserDTO(user)));
+        if (loaded.isPresent() && evictions.get() == evictionsBefore) {
+            cache.putIfAbsent(login, loaded.get());
+        }
+        return loaded;
+    }
+
+    /**
+     * Evict the accounts of users.
+     *
+     * @param logins the logins of the users.
+     */
+    public void evict(Collection<String> logins) {
+        evictions.incrementAndGet();
+        logins.forEach(cache::evict);
+    }
+
+    /**
+     * The account of a user, with its version.
+     */
+    public static final class VersionedAccount {
+
+        private final String version;
+
+        private final UserDTO user;
+
+        private VersionedAccount(String version, UserDTO user) {
+            this.version = version;
+            this.user = user;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public UserDTO getUser() {
+            return user;
+        }
+    }
+}
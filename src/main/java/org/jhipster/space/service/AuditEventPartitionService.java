@@ -0,0 +1,179 @@
+package org.jhipster.space.service;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.config.job.ClusterJob;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Service maintaining the monthly partitions of audit events, when they are enabled on PostgreSQL.
+ * <p>
+ * Partitions are created ahead of time, and whole expired months are dropped instead of deleted row by row. Events
+ * that are not in an expired month yet are still purged by {@link AuditEventService#removeOldAuditEvents()}.
+ * <p>
+ * On other databases, or when the audit event table is not partitioned, this service does nothing.
+ */
+@Service
+public class AuditEventPartitionService {
+
+    static final String PARENT_TABLE = "jhi_persistent_audit_event";
+
+    private static final String DATA_TABLE = "jhi_persistent_audit_evt_data";
+
+    private static final Pattern PARTITION_NAME = Pattern.compile(PARENT_TABLE + "_y(\\d{4})m(\\d{2})");
+
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("'_y'yyyy'm'MM");
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventPartitionService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties applicationProperties;
+
+    private volatile Boolean partitioned;
+
+    public AuditEventPartitionService(JdbcTemplate jdbcTemplate, PlatformTransactionManager transactionManager,
+                                      JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Create the partitions of the coming months, and drop the partitions past the retention period.
+     * <p>
+     * This is scheduled to get fired everyday, at 00:30 (am), on one node of the cluster.
+     */
+    @Scheduled(cron = "0 30 0 * * ?")
+    @ClusterJob("maintainAuditEventPartitions")
+    public void maintainPartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+        Instant now = Instant.now();
+        List<YearMonth> existing = findPartitionMonths();
+        for (YearMonth month : monthsToCreate(YearMonth.from(now.atZone(ZoneOffset.UTC)),
+            applicationProperties.getAuditEvents().getPartitionsAhead(), existing)) {
+            createPartition(month);
+        }
+        Instant before = now.minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS);
+        boolean archived = applicationProperties.getAuditEvents().getArchive().isEnabled();
+        for (YearMonth month : existing) {
+            if (isExpired(month, before) && (!archived || isEmpty(month))) {
+                dropPartition(month);
+            }
+        }
+    }
+
+    /**
+     * Check if audit events are stored in a partitioned table.
+     *
+     * @return true if the audit event table is partitioned.
+     */
+    public boolean isPartitioned() {
+        Boolean result = partitioned;
+        if (result == null) {
+            String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+            result = "PostgreSQL".equals(product) && Optional.ofNullable(jdbcTemplate.queryForObject(
+                "select count(*) from pg_partitioned_table p join pg_class c on c.oid = p.partrelid where c.relname = ?",
+                Integer.class, PARENT_TABLE)).orElse(0) > 0;
+            partitioned = result;
+            log.debug("Audit event table is {}partitioned", result ? "" : "not ");
+        }
+        return result;
+    }
+
+    private List<YearMonth> findPartitionMonths() {
+        List<String> names = jdbcTemplate.queryForList(
+            "select c.relname from pg_inherits i join pg_class c on c.oid = i.inhrelid " +
+                "join pg_class p on p.oid = i.inhparent where p.relname = ?", String.class, PARENT_TABLE);
+        List<YearMonth> months = new ArrayList<>();
+        for (String name : names) {
+            parsePartitionMonth(name).ifPresent(months::add);
+        }
+        return months;
+    }
+
+    /**
+     * When expired events are archived, partitions are only dropped once the purge has archived and deleted their events.
+     */
+    private boolean isEmpty(YearMonth month) {
+        return !Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+            "select exists (select 1 from " + partitionName(month) + ")", Boolean.class));
+    }
+
+    private void createPartition(YearMonth month) {
+        String name = partitionName(month);
+        log.info("Creating audit event partition {}", name);
+        jdbcTemplate.execute("create table if not exists " + name + " partition of " + PARENT_TABLE +
+            " for values from ('" + month.atDay(1) + "') to ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    private void dropPartition(YearMonth month) {
+        String name = partitionName(month);
+        log.info("Dropping expired audit event partition {}", name);
+        transactionTemplate.execute(status -> {
+            jdbcTemplate.execute("alter table " + PARENT_TABLE + " detach partition " + name);
+            int deleted = jdbcTemplate.update("delete from " + DATA_TABLE + " d using " + name + " e where d.event_id = e.event_id");
+            jdbcTemplate.execute("drop table " + name);
+            log.debug("Deleted {} audit event data rows of partition {}", deleted, name);
+            return null;
+        });
+    }
+
+    static String partitionName(YearMonth month) {
+        return PARENT_TABLE + PARTITION_SUFFIX.format(month);
+    }
+
+    static Optional<YearMonth> parsePartitionMonth(String name) {
+        Matcher matcher = PARTITION_NAME.matcher(name);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        return Optional.of(YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2))));
+    }
+
+    static List<YearMonth> monthsToCreate(YearMonth current, int partitionsAhead, List<YearMonth> existing) {
+        List<YearMonth> months = new ArrayList<>();
+        for (int i = 0; i <= partitionsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            if (!existing.contains(month)) {
+                months.add(month);
+            }
+        }
+        return months;
+    }
+
+    /**
+     * A partition is expired when all the events it can hold are older than the retention limit.
+     */
+    static boolean isExpired(YearMonth month, Instant before) {
+        LocalDate end = month.plusMonths(1).atDay(1);
+        return !end.atStartOfDay(ZoneOffset.UTC).toInstant().isAfter(before);
+    }
+}
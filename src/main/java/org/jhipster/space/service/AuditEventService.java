@@ -1,20 +1,43 @@
 package org.jhipster.space.service;
 
 import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.config.audit.AuditEventArchive;
 import org.jhipster.space.config.audit.AuditEventConverter;
+import org.jhipster.space.config.job.ClusterJob;
+import org.jhipster.space.domain.PersistentAuditEvent;
 import org.jhipster.space.repository.PersistenceAuditEventRepository;
+import org.hibernate.Hibernate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * Service for managing audit events.
@@ -33,40 +56,234 @@ public class AuditEventService {
 
     private final AuditEventConverter auditEventConverter;
 
+    private final AuditEventArchive auditEventArchive;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Counter purgedEvents;
+
+    private final Timer purgeDuration;
+
+    private final AtomicLong pendingPurgeIds = new AtomicLong();
+
     public AuditEventService(
         PersistenceAuditEventRepository persistenceAuditEventRepository,
-        AuditEventConverter auditEventConverter, JHipsterProperties jhipsterProperties) {
+        AuditEventConverter auditEventConverter, AuditEventArchive auditEventArchive,
+        JHipsterProperties jhipsterProperties, ApplicationProperties applicationProperties,
+        PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
 
         this.persistenceAuditEventRepository = persistenceAuditEventRepository;
         this.auditEventConverter = auditEventConverter;
+        this.auditEventArchive = auditEventArchive;
         this.jHipsterProperties = jhipsterProperties;
+        this.applicationProperties = applicationProperties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.purgedEvents = Counter.builder("audit.events.purged")
+            .description("Expired audit events deleted")
+            .register(meterRegistry);
+        this.purgeDuration = Timer.builder("audit.events.purge")
+            .description("Duration of audit event purge runs")
+            .register(meterRegistry);
+        Gauge.builder("audit.events.purge.pending", pendingPurgeIds, AtomicLong::get)
+            .description("Width of the expired event id range left over by the last purge run")
+            .register(meterRegistry);
     }
 
     /**
      * Old audit events should be automatically deleted after 30 days.
-     *
-     * This is scheduled to get fired at 12:00 (am).
+     * <p>
+     * Expired events are deleted with bulk statements over consecutive id ranges, their data first, in one transaction
+     * per range. A run stops when its time budget is spent, and the next run picks up where it stopped.
+     * <p>
+     * When the {@link AuditEventArchive} is enabled, each range is archived before it is deleted.
+     * <p>
+     * This is scheduled to get fired at 12:00 (am), on one node of the cluster.
      */
     @Scheduled(cron = "0 0 12 * * ?")
+    @ClusterJob("removeOldAuditEvents")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeOldAuditEvents() {
-        persistenceAuditEventRepository
-            .findByAuditEventDateBefore(Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS))
-            .forEach(auditEvent -> {
-                log.debug("Deleting audit data {}", auditEvent);
-                persistenceAuditEventRepository.delete(auditEvent);
+        ApplicationProperties.AuditEvents properties = applicationProperties.getAuditEvents();
+        Instant before = Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS);
+        Long minId = persistenceAuditEventRepository.findMinIdByAuditEventDateBefore(before);
+        Long maxId = persistenceAuditEventRepository.findMaxIdByAuditEventDateBefore(before);
+        if (minId == null || maxId == null) {
+            pendingPurgeIds.set(0);
+            return;
+        }
+        long start = System.nanoTime();
+        long deadline = start + properties.getPurgeTimeBudget().toNanos();
+        long fromId = minId;
+        long deleted = 0;
+        while (fromId <= maxId && System.nanoTime() < deadline) {
+            long chunkFromId = fromId;
+            long chunkToId = Math.min(maxId, fromId + properties.getPurgeChunkSize() - 1) + 1;
+            Integer chunkDeleted = transactionTemplate.execute(status -> {
+                if (auditEventArchive.isEnabled()) {
+                    auditEventArchive.append(persistenceAuditEventRepository
+                        .findAllWithDataByIdRangeAndAuditEventDateBefore(chunkFromId, chunkToId, before));
+                }
+                persistenceAuditEventRepository.deleteDataByIdRangeAndAuditEventDateBefore(chunkFromId, chunkToId, before);
+                return persistenceAuditEventRepository.deleteByIdRangeAndAuditEventDateBefore(chunkFromId, chunkToId, before);
             });
+            deleted += chunkDeleted;
+            purgedEvents.increment(chunkDeleted);
+            fromId = chunkToId;
+        }
+        pendingPurgeIds.set(Math.max(0, maxId - fromId + 1));
+        long elapsed = System.nanoTime() - start;
+        purgeDuration.record(elapsed, TimeUnit.NANOSECONDS);
+        if (fromId <= maxId) {
+            log.warn("Purged {} audit events in {} ms, stopped at id {} of {} to stay within the time budget",
+                deleted, TimeUnit.NANOSECONDS.toMillis(elapsed), fromId, maxId);
+        } else {
+            log.debug("Purged {} audit events in {} ms", deleted, TimeUnit.NANOSECONDS.toMillis(elapsed));
+        }
     }
 
+    /**
+     * Find a page of audit events.
+     * <p>
+     * The data of all the events of the page is read with a single query, rather than one query per event.
+     *
+     * @param pageable the pagination information.
+     * @return the page of events.
+     */
     @Transactional(readOnly = true)
     public Page<AuditEvent> findAll(Pageable pageable) {
-        return persistenceAuditEventRepository.findAll(pageable)
-            .map(auditEventConverter::convertToAuditEvent);
+        Page<PersistentAuditEvent> page = persistenceAuditEventRepository.findAll(pageable);
+        return new PageImpl<>(convertToAuditEvents(page.getContent()), pageable, page.getTotalElements());
     }
 
+    /**
+     * Find a slice of audit events, without counting all the events.
+     *
+     * @param pageable the pagination information.
+     * @return the slice of events.
+     */
+    @Transactional(readOnly = true)
+    public Slice<AuditEvent> findSlice(Pageable pageable) {
+        Slice<PersistentAuditEvent> slice = persistenceAuditEventRepository.findSliceBy(pageable);
+        return new SliceImpl<>(convertToAuditEvents(slice.getContent()), pageable, slice.hasNext());
+    }
+
+    /**
+     * Find audit events within a time range.
+     * <p>
+     * When the range starts before the oldest event of the database, archived events are included as well. They are
+     * ordered by date, before or after the events of the database depending on the direction of the
+     * {@code auditEventDate} sort.
+     *
+     * @param fromDate the start of the range, inclusive.
+     * @param toDate the end of the range, inclusive.
+     * @param pageable the pagination information.
+     * @return the page of events.
+     */
     @Transactional(readOnly = true)
     public Page<AuditEvent> findByDates(Instant fromDate, Instant toDate, Pageable pageable) {
-        return persistenceAuditEventRepository.findAllByAuditEventDateBetween(fromDate, toDate, pageable)
-            .map(auditEventConverter::convertToAuditEvent);
+        long archivedTotal = countArchived(fromDate, toDate);
+        if (archivedTotal == 0) {
+            Page<PersistentAuditEvent> page = persistenceAuditEventRepository.findAllByAuditEventDateBetween(fromDate, toDate, pageable);
+            return new PageImpl<>(convertToAuditEvents(page.getContent()), pageable, page.getTotalElements());
+        }
+        Sort.Order dateOrder = pageable.getSort().getOrderFor("auditEventDate");
+        boolean descending = dateOrder != null && dateOrder.isDescending();
+        if (pageable.isUnpaged()) {
+            List<PersistentAuditEvent> events = new ArrayList<>(
+                persistenceAuditEventRepository.findAllByAuditEventDateBetween(fromDate, toDate, pageable).getContent());
+            List<PersistentAuditEvent> archived = auditEventArchive.find(fromDate, toDate, descending, 0, Integer.MAX_VALUE);
+            if (descending) {
+                events.addAll(archived);
+            } else {
+                events.addAll(0, archived);
+            }
+            return new PageImpl<>(convertToAuditEvents(events), pageable, events.size());
+        }
+
+        long liveTotal = persistenceAuditEventRepository.countByAuditEventDateBetween(fromDate, toDate);
+        long offset = pageable.getOffset();
+        int size = pageable.getPageSize();
+        List<PersistentAuditEvent> content = new ArrayList<>(size);
+        if (descending) {
+            if (offset < liveTotal) {
+                content.addAll(findLive(fromDate, toDate, offset, (int) Math.min(size, liveTotal - offset), pageable.getSort()));
+            }
+            if (content.size() < size) {
+                content.addAll(auditEventArchive.find(fromDate, toDate, true, Math.max(0, offset - liveTotal), size - content.size()));
+            }
+        } else {
+            content.addAll(auditEventArchive.find(fromDate, toDate, false, offset, size));
+            if (content.size() < size && offset + content.size() < archivedTotal + liveTotal) {
+                content.addAll(findLive(fromDate, toDate, Math.max(0, offset - archivedTotal), size - content.size(),
+                    pageable.getSort()));
+            }
+        }
+        return new PageImpl<>(convertToAuditEvents(content), pageable, archivedTotal + liveTotal);
+    }
+
+    /**
+     * Find a slice of audit events within a time range, without counting all the events of the range.
+     * <p>
+     * When archived events are included, see {@link #findByDates(Instant, Instant, Pageable)}, a full page is returned.
+     *
+     * @param fromDate the start of the range, inclusive.
+     * @param toDate the end of the range, inclusive.
+     * @param pageable the pagination information.
+     * @return the slice of events.
+     */
+    @Transactional(readOnly = true)
+    public Slice<AuditEvent> findSliceByDates(Instant fromDate, Instant toDate, Pageable pageable) {
+        if (auditEventArchive.isEnabled()) {
+            return findByDates(fromDate, toDate, pageable);
+        }
+        Slice<PersistentAuditEvent> slice = persistenceAuditEventRepository.findSliceByAuditEventDateBetween(fromDate, toDate, pageable);
+        return new SliceImpl<>(convertToAuditEvents(slice.getContent()), pageable, slice.hasNext());
+    }
+
+    /**
+     * Convert events, reading the data of all those not loaded yet with a single query.
+     * <p>
+     * Archived events are not managed, and come with their data already loaded.
+     */
+    private List<AuditEvent> convertToAuditEvents(List<PersistentAuditEvent> events) {
+        List<Long> ids = new ArrayList<>(events.size());
+        for (PersistentAuditEvent event : events) {
+            if (!Hibernate.isInitialized(event.getData())) {
+                ids.add(event.getId());
+            }
+        }
+        Map<Long, Map<String, String>> data = new HashMap<>();
+        if (!ids.isEmpty()) {
+            for (PersistenceAuditEventRepository.DataEntry entry : persistenceAuditEventRepository.findDataByIdIn(ids)) {
+                data.computeIfAbsent(entry.getEventId(), id -> new HashMap<>()).put(entry.getName(), entry.getValue());
+            }
+        }
+        List<AuditEvent> auditEvents = new ArrayList<>(events.size());
+        for (PersistentAuditEvent event : events) {
+            auditEvents.add(Hibernate.isInitialized(event.getData())
+                ? auditEventConverter.convertToAuditEvent(event)
+                : auditEventConverter.convertToAuditEvent(event, data.getOrDefault(event.getId(), Collections.emptyMap())));
+        }
+        return auditEvents;
+    }
+
+    private long countArchived(Instant fromDate, Instant toDate) {
+        if (!auditEventArchive.isEnabled()) {
+            return 0;
+        }
+        Instant oldestLiveDate = persistenceAuditEventRepository.findMinAuditEventDate();
+        if (oldestLiveDate != null && !fromDate.isBefore(oldestLiveDate)) {
+            return 0;
+        }
+        return auditEventArchive.count(fromDate, toDate);
+    }
+
+    private List<PersistentAuditEvent> findLive(Instant fromDate, Instant toDate, long offset, int limit, Sort sort) {
+        return persistenceAuditEventRepository
+            .findAllByAuditEventDateBetween(fromDate, toDate, new OffsetPageRequest(offset, limit, sort))
+            .getContent();
     }
 
     @Transactional(readOnly = true)
@@ -0,0 +1,158 @@
+package org.jhipster.space.service;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.jhipster.space.config.audit.AuditEventCounters;
+import org.jhipster.space.config.job.ClusterJob;
+import org.jhipster.space.service.dto.AuditEventStatsDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service for the hourly statistics of audit events.
+ * <p>
+ * Events are counted in memory by the {@link AuditEventCounters}, and their counts are added every minute to the
+ * {@code jhi_audit_event_stats} table, so that statistics are read without scanning the audit event tables. Each node
+ * adds its own counts: the statistics of other nodes may lag by up to a minute.
+ */
+@Service
+public class AuditEventStatsService {
+
+    private static final String ADD_COUNT = "update jhi_audit_event_stats set event_count = event_count + ? " +
+        "where stat_hour = ? and principal = ? and event_type = ?";
+
+    private static final String INSERT_COUNT = "insert into jhi_audit_event_stats " +
+        "(stat_hour, principal, event_type, event_count) values (?, ?, ?, ?)";
+
+    private final Logger log = LoggerFactory.getLogger(AuditEventStatsService.class);
+
+    private final AuditEventCounters auditEventCounters;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    /**
+     * Keeps readers from seeing counts both in memory and in the table while they are persisted.
+     * <p>
+     * This is held across database calls: a lock rather than a {@code synchronized} block, which would pin the request
+     * threads when they are virtual threads.
+     */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public AuditEventStatsService(AuditEventCounters auditEventCounters, JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager, JHipsterProperties jHipsterProperties) {
+        this.auditEventCounters = auditEventCounters;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jHipsterProperties = jHipsterProperties;
+    }
+
+    /**
+     * Add the counts of the minutes that are over to the statistics table.
+     * <p>
+     * Counts that cannot be persisted are kept in memory, and retried on the next run.
+     * <p>
+     * This is scheduled to get fired every minute.
+     */
+    @Scheduled(fixedDelay = 60_000, initialDelay = 60_000)
+    public void persistCounts() {
+        lock.lock();
+        try {
+            Map<AuditEventCounters.Key, Long> counts = auditEventCounters.drain();
+            if (counts.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.execute(status -> {
+                    counts.forEach(this::addCount);
+                    return null;
+                });
+                log.debug("Persisted {} audit event counts", counts.size());
+            } catch (DataAccessException | TransactionException e) {
+                auditEventCounters.restore(counts);
+                log.warn("Could not persist {} audit event counts, they will be retried: {}", counts.size(), e.getMessage());
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Statistics older than the audit event retention period should be automatically deleted.
+     * <p>
+     * This is scheduled to get fired everyday, at 00:15 (am), on one node of the cluster.
+     */
+    @Scheduled(cron = "0 15 0 * * ?")
+    @ClusterJob("removeOldAuditEventStats")
+    public void removeOldStats() {
+        Instant before = Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod(), ChronoUnit.DAYS);
+        int deleted = jdbcTemplate.update("delete from jhi_audit_event_stats where stat_hour < ?", Timestamp.from(before));
+        log.debug("Deleted {} expired audit event statistics", deleted);
+    }
+
+    /**
+     * Find the hourly counts of audit events within a time range.
+     *
+     * @param fromDate the start of the range, inclusive.
+     * @param toDate the end of the range, exclusive.
+     * @param principal the principal to count the events of, or {@code null} for all principals.
+     * @return the counts, ordered by hour, principal and type.
+     */
+    public List<AuditEventStatsDTO> findStats(Instant fromDate, Instant toDate, String principal) {
+        List<AuditEventStatsDTO> stats = new ArrayList<>();
+        Map<AuditEventCounters.Key, Long> pending;
+        lock.lock();
+        try {
+            pending = auditEventCounters.snapshot();
+            String query = "select stat_hour, principal, event_type, event_count from jhi_audit_event_stats " +
+                "where stat_hour >= ? and stat_hour < ?" + (principal == null ? "" : " and principal = ?");
+            Object[] args = principal == null
+                ? new Object[]{Timestamp.from(fromDate), Timestamp.from(toDate)}
+                : new Object[]{Timestamp.from(fromDate), Timestamp.from(toDate), principal};
+            jdbcTemplate.query(query, args, resultSet -> {
+                AuditEventCounters.Key key = new AuditEventCounters.Key(resultSet.getTimestamp(1).toInstant(),
+                    resultSet.getString(2), resultSet.getString(3));
+                long count = resultSet.getLong(4) + pending.getOrDefault(key, 0L);
+                pending.remove(key);
+                stats.add(new AuditEventStatsDTO(key.getHour(), key.getPrincipal(), key.getType(), count));
+            });
+        } finally {
+            lock.unlock();
+        }
+        pending.forEach((key, count) -> {
+            if (!key.getHour().isBefore(fromDate) && key.getHour().isBefore(toDate)
+                && (principal == null || principal.equals(key.getPrincipal()))) {
+                stats.add(new AuditEventStatsDTO(key.getHour(), key.getPrincipal(), key.getType(), count));
+            }
+        });
+        stats.sort(Comparator.comparing(AuditEventStatsDTO::getHour)
+            .thenComparing(AuditEventStatsDTO::getPrincipal)
+            .thenComparing(AuditEventStatsDTO::getType));
+        return stats;
+    }
+
+    private void addCount(AuditEventCounters.Key key, long count) {
+        Timestamp hour = Timestamp.from(key.getHour());
+        if (jdbcTemplate.update(ADD_COUNT, count, hour, key.getPrincipal(), key.getType()) == 0) {
+            jdbcTemplate.update(INSERT_COUNT, hour, key.getPrincipal(), key.getType(), count);
+        }
+    }
+}
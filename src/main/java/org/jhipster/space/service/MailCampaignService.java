@@ -0,0 +1,273 @@
+package org.jhipster.space.service;
+
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.domain.MailCampaign;
+import org.jhipster.space.domain.User;
+import org.jhipster.space.domain.enumeration.MailCampaignStatus;
+import org.jhipster.space.repository.MailCampaignRepository;
+import org.jhipster.space.repository.UserRepository;
+import org.jhipster.space.security.SecurityUtils;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionException;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service for emailing all the activated users, on a dedicated thread.
+ * <p>
+ * Users are read by chunks in increasing id order. The emails of a chunk are saved to the outbox in the same
+ * transaction as the campaign checkpoint, with the campaign row locked, so that a campaign resumed after a crash, or
+ * run by several nodes, emails each user once. Chunks are spaced to queue at most
+ * {@code application.mail-campaigns.send-rate} emails per second.
+ */
+@Service
+public class MailCampaignService implements SmartLifecycle {
+
+    private static final String THREAD_NAME = "space-mail-campaign";
+
+    private static final int ERROR_MAX_LENGTH = 255;
+
+    private final Logger log = LoggerFactory.getLogger(MailCampaignService.class);
+
+    private final MailCampaignRepository mailCampaignRepository;
+
+    private final UserRepository userRepository;
+
+    private final MailService mailService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.MailCampaigns properties;
+
+    private final ReentrantLock runLock = new ReentrantLock();
+
+    private final Counter enqueuedEmails;
+
+    private volatile Thread campaignThread;
+
+    private volatile boolean running;
+
+    private volatile boolean stopping;
+
+    public MailCampaignService(MailCampaignRepository mailCampaignRepository, UserRepository userRepository,
+                               MailService mailService, PlatformTransactionManager transactionManager,
+                               ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.mailCampaignRepository = mailCampaignRepository;
+        this.userRepository = userRepository;
+        this.mailService = mailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getMailCampaigns();
+        this.enqueuedEmails = Counter.builder("mail.campaign.enqueued")
+            .description("Emails of campaigns saved to the outbox")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Create a campaign, to be run from the first user.
+     *
+     * @param templateName the mail template of the campaign.
+     * @param titleKey the message key of the subject.
+     * @return the created campaign.
+     */
+    public MailCampaign createCampaign(String templateName, String titleKey) {
+        MailCampaign campaign = new MailCampaign();
+        campaign.setTemplateName(templateName);
+        campaign.setTitleKey(titleKey);
+        campaign.setStatus(MailCampaignStatus.RUNNING);
+        campaign.setCreatedBy(SecurityUtils.getCurrentUserLogin().orElse(null));
+        campaign.setCreatedDate(Instant.now());
+        MailCampaign result = mailCampaignRepository.save(campaign);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    wakeUp();
+                }
+            });
+        } else {
+            wakeUp();
+        }
+        log.debug("Created Information for MailCampaign: {}", result);
+        return result;
+    }
+
+    /**
+     * Cancel a running campaign; the chunk being sent, if any, is still sent.
+     *
+     * @param id the id of the campaign.
+     * @return the campaign, if found.
+     */
+    public Optional<MailCampaign> cancelCampaign(Long id) {
+        return transactionTemplate.execute(status -> mailCampaignRepository.findOneForUpdate(id)
+            .map(campaign -> {
+                if (campaign.getStatus() == MailCampaignStatus.RUNNING) {
+                    campaign.setStatus(MailCampaignStatus.CANCELLED);
+                    campaign.setCompletedDate(Instant.now());
+                    log.debug("Cancelled MailCampaign: {}", campaign);
+                }
+                return campaign;
+            }));
+    }
+
+    /**
+     * Make the campaign thread check for campaigns now, rather than at its next poll.
+     */
+    public void wakeUp() {
+        Thread thread = campaignThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Run the running campaigns to their end, on the calling thread.
+     *
+     * @return the number of emails queued.
+     */
+    public long runPending() {
+        runLock.lock();
+        try {
+            long enqueued = 0;
+            while (!stopping) {
+                Optional<MailCampaign> campaign = mailCampaignRepository.findFirstByStatusOrderByIdAsc(MailCampaignStatus.RUNNING);
+                if (!campaign.isPresent()) {
+                    break;
+                }
+                Long id = campaign.get().getId();
+                long start = System.nanoTime();
+                int chunk;
+                try {
+                    chunk = transactionTemplate.execute(status -> runChunk(id));
+                } catch (DataAccessException | TransactionException e) {
+                    // Resumed from the checkpoint on the next run
+                    throw e;
+                } catch (RuntimeException e) {
+                    fail(id, e);
+                    continue;
+                }
+                enqueued += chunk;
+                throttle(start, chunk);
+            }
+            return enqueued;
+        } finally {
+            runLock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of emails queued.
+     */
+    private int runChunk(Long id) {
+        MailCampaign campaign = mailCampaignRepository.findOneForUpdate(id).orElse(null);
+        if (campaign == null || campaign.getStatus() != MailCampaignStatus.RUNNING) {
+            // Cancelled, or run by another node in the meantime
+            return 0;
+        }
+        List<User> users = userRepository.findAllByActivatedIsTrueAndEmailIsNotNullAndIdGreaterThanOrderByIdAsc(
+            campaign.getLastUserId(), PageRequest.of(0, properties.getChunkSize()));
+        for (User user : users) {
+            mailService.sendEmailFromTemplate(user, campaign.getTemplateName(), campaign.getTitleKey());
+        }
+        if (!users.isEmpty()) {
+            campaign.setLastUserId(users.get(users.size() - 1).getId());
+            campaign.setEnqueuedCount(campaign.getEnqueuedCount() + users.size());
+        }
+        if (users.size() < properties.getChunkSize()) {
+            campaign.setStatus(MailCampaignStatus.COMPLETED);
+            campaign.setCompletedDate(Instant.now());
+            log.info("Mail campaign {} completed, {} emails queued", id, campaign.getEnqueuedCount());
+        }
+        enqueuedEmails.increment(users.size());
+        return users.size();
+    }
+
+    private void fail(Long id, RuntimeException failure) {
+        log.error("Mail campaign {} failed: {}", id, failure.getMessage(), failure);
+        String error = String.valueOf(failure.getMessage());
+        transactionTemplate.execute(status -> mailCampaignRepository.findOneForUpdate(id)
+            .filter(campaign -> campaign.getStatus() == MailCampaignStatus.RUNNING)
+            .map(campaign -> {
+                campaign.setStatus(MailCampaignStatus.FAILED);
+                campaign.setCompletedDate(Instant.now());
+                campaign.setLastError(error.length() > ERROR_MAX_LENGTH ? error.substring(0, ERROR_MAX_LENGTH) : error);
+                return campaign;
+            }));
+    }
+
+    /**
+     * Wait until the emails of a chunk are within the send rate.
+     */
+    private void throttle(long chunkStart, int chunk) {
+        long deadline = chunkStart + chunk * TimeUnit.SECONDS.toNanos(1) / Math.max(1, properties.getSendRate());
+        long remaining;
+        while (!stopping && (remaining = deadline - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(this, remaining);
+        }
+    }
+
+    private void run() {
+        long pollIntervalNanos = properties.getPollInterval().toNanos();
+        while (running) {
+            try {
+                runPending();
+            } catch (Exception e) {
+                log.error("Could not run the mail campaigns: {}", e.getMessage(), e);
+            }
+            LockSupport.parkNanos(this, pollIntervalNanos);
+        }
+    }
+
+    @Override
+    public void start() {
+        stopping = false;
+        running = true;
+        Thread thread = new Thread(this::run, THREAD_NAME);
+        thread.setDaemon(true);
+        campaignThread = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        stopping = true;
+        running = false;
+        Thread thread = campaignThread;
+        campaignThread = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(Duration.ofSeconds(10).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return properties.isEnabled();
+    }
+}
@@ -0,0 +1,302 @@
+package org.jhipster.space.service;
+
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.domain.MailOutboxMessage;
+import org.jhipster.space.repository.MailOutboxMessageRepository;
+
+import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.mail.MessagingException;
+import javax.mail.internet.MimeMessage;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Sends the emails of the {@link MailOutboxMessage} outbox, on a dedicated thread.
+ * <p>
+ * Due emails are claimed in batches, in a short transaction moving their next attempt date to the end of
+ * {@code application.mail-outbox.send-lease}. Each batch is then sent over a single SMTP connection, outside of any
+ * transaction, and the sent emails are deleted in a second transaction; failed ones are retried with exponential
+ * backoff, and abandoned after {@code application.mail-outbox.max-attempts}. An email may be sent twice if the node
+ * stops between sending it and committing its deletion, once its lease has expired.
+ */
+@Service
+public class MailOutboxSender implements SmartLifecycle {
+
+    private static final String THREAD_NAME = "space-mail-sender";
+
+    private static final int ERROR_MAX_LENGTH = 255;
+
+    private final Logger log = LoggerFactory.getLogger(MailOutboxSender.class);
+
+    private final MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    private final JavaMailSender javaMailSender;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final JHipsterProperties jHipsterProperties;
+
+    private final ApplicationProperties.MailOutbox properties;
+
+    private final ReentrantLock sendLock = new ReentrantLock();
+
+    private final Counter sentMessages;
+
+    private final Counter retriedMessages;
+
+    private final Counter abandonedMessages;
+
+    private final Timer delay;
+
+    private final AtomicLong pendingMessages = new AtomicLong();
+
+    private volatile Thread senderThread;
+
+    private volatile boolean running;
+
+    public MailOutboxSender(MailOutboxMessageRepository mailOutboxMessageRepository, JavaMailSender javaMailSender,
+                            PlatformTransactionManager transactionManager, JHipsterProperties jHipsterProperties,
+                            ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.mailOutboxMessageRepository = mailOutboxMessageRepository;
+        this.javaMailSender = javaMailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.jHipsterProperties = jHipsterProperties;
+        this.properties = applicationProperties.getMailOutbox();
+        this.sentMessages = Counter.builder("mail.outbox.sent")
+            .description("Emails sent from the outbox")
+            .register(meterRegistry);
+        this.retriedMessages = Counter.builder("mail.outbox.retried")
+            .description("Emails that could not be sent, and will be retried")
+            .register(meterRegistry);
+        this.abandonedMessages = Counter.builder("mail.outbox.abandoned")
+            .description("Emails that could not be sent after the maximum number of attempts")
+            .register(meterRegistry);
+        this.delay = Timer.builder("mail.outbox.delay")
+            .description("Time between saving an email to the outbox and sending it")
+            .register(meterRegistry);
+        Gauge.builder("mail.outbox.pending", pendingMessages, AtomicLong::get)
+            .description("Emails waiting in the outbox, as of the last check")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Make the sender thread check the outbox now, rather than at its next poll.
+     */
+    public void wakeUp() {
+        Thread thread = senderThread;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     * Send all the due emails of the outbox, on the calling thread.
+     *
+     * @return the number of emails sent.
+     */
+    public int sendPending() {
+        sendLock.lock();
+        try {
+            int sent = 0;
+            int batchSent;
+            do {
+                batchSent = sendBatch();
+                sent += Math.max(0, batchSent);
+            } while (batchSent > 0);
+            pendingMessages.set(mailOutboxMessageRepository.countByAttemptsLessThan(properties.getMaxAttempts()));
+            return sent;
+        } finally {
+            sendLock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of emails sent, {@code 0} if none was due, or {@code -1} if none could be sent.
+     */
+    private int sendBatch() {
+        Instant now = Instant.now();
+        List<MailOutboxMessage> messages = transactionTemplate.execute(status -> claimBatch(now));
+        if (messages.isEmpty()) {
+            return 0;
+        }
+        List<MailOutboxMessage> failed = new ArrayList<>();
+        Map<MimeMessage, MailOutboxMessage> mimeMessages = new IdentityHashMap<>();
+        for (MailOutboxMessage message : messages) {
+            try {
+                mimeMessages.put(createMimeMessage(message), message);
+            } catch (MessagingException e) {
+                fail(message, e, now);
+                failed.add(message);
+            }
+        }
+        Map<Object, Exception> failures = Collections.emptyMap();
+        if (!mimeMessages.isEmpty()) {
+            try {
+                javaMailSender.send(mimeMessages.keySet().toArray(new MimeMessage[0]));
+            } catch (MailSendException e) {
+                failures = e.getFailedMessages();
+                if (failures.isEmpty()) {
+                    failures = allFailed(mimeMessages, e);
+                }
+            } catch (MailException e) {
+                failures = allFailed(mimeMessages, e);
+            }
+        }
+        Instant sentDate = Instant.now();
+        List<Long> sent = new ArrayList<>();
+        for (Map.Entry<MimeMessage, MailOutboxMessage> entry : mimeMessages.entrySet()) {
+            Exception failure = failures.get(entry.getKey());
+            if (failure == null) {
+                sent.add(entry.getValue().getId());
+                delay.record(Duration.between(entry.getValue().getCreatedDate(), sentDate));
+            } else {
+                fail(entry.getValue(), failure, sentDate);
+                failed.add(entry.getValue());
+            }
+        }
+        transactionTemplate.execute(status -> {
+            if (!sent.isEmpty()) {
+                mailOutboxMessageRepository.deleteByIdIn(sent);
+            }
+            mailOutboxMessageRepository.saveAll(failed);
+            return null;
+        });
+        sentMessages.increment(sent.size());
+        log.debug("Sent {} of {} emails from the outbox", sent.size(), messages.size());
+        return sent.isEmpty() ? -1 : sent.size();
+    }
+
+    /**
+     * Claim the due emails of a batch, by moving their next attempt date to the end of the send lease: other nodes
+     * skip them until then, without this node holding their row locks while it sends them.
+     */
+    private List<MailOutboxMessage> claimBatch(Instant now) {
+        List<MailOutboxMessage> messages = mailOutboxMessageRepository.findDueForUpdate(now, properties.getMaxAttempts(),
+            PageRequest.of(0, properties.getBatchSize()));
+        Instant leaseEnd = now.plus(properties.getSendLease());
+        for (MailOutboxMessage message : messages) {
+            message.setNextAttemptDate(leaseEnd);
+        }
+        return messages;
+    }
+
+    private MimeMessage createMimeMessage(MailOutboxMessage message) throws MessagingException {
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(mimeMessage, message.isMultipart(), StandardCharsets.UTF_8.name());
+        helper.setTo(message.getRecipient());
+        helper.setFrom(jHipsterProperties.getMail().getFrom());
+        helper.setSubject(message.getSubject());
+        helper.setText(message.getContent(), message.isHtml());
+        return mimeMessage;
+    }
+
+    private void fail(MailOutboxMessage message, Exception failure, Instant now) {
+        int attempts = message.getAttempts() + 1;
+        message.setAttempts(attempts);
+        String error = String.valueOf(failure.getMessage());
+        message.setLastError(error.length() > ERROR_MAX_LENGTH ? error.substring(0, ERROR_MAX_LENGTH) : error);
+        if (attempts >= properties.getMaxAttempts()) {
+            abandonedMessages.increment();
+            log.error("Email to '{}' abandoned after {} attempts: {}", message.getRecipient(), attempts, error);
+        } else {
+            message.setNextAttemptDate(now.plus(backoff(attempts)));
+            retriedMessages.increment();
+            log.warn("Email to '{}' could not be sent, retrying at {}: {}", message.getRecipient(),
+                message.getNextAttemptDate(), error);
+        }
+    }
+
+    /**
+     * Delay before the next attempt, doubled after each failed attempt up to the maximum backoff.
+     *
+     * @param attempts the number of failed attempts so far, at least {@code 1}.
+     * @return the delay.
+     */
+    Duration backoff(int attempts) {
+        Duration max = properties.getMaxBackoff();
+        Duration backoff = properties.getInitialBackoff();
+        for (int i = 1; i < attempts && backoff.compareTo(max) < 0; i++) {
+            backoff = backoff.multipliedBy(2);
+        }
+        return backoff.compareTo(max) < 0 ? backoff : max;
+    }
+
+    private static Map<Object, Exception> allFailed(Map<MimeMessage, MailOutboxMessage> mimeMessages, Exception failure) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        for (MimeMessage mimeMessage : mimeMessages.keySet()) {
+            failures.put(mimeMessage, failure);
+        }
+        return failures;
+    }
+
+    private void run() {
+        long pollIntervalNanos = properties.getPollInterval().toNanos();
+        while (running) {
+            try {
+                sendPending();
+            } catch (Exception e) {
+                log.error("Could not send the emails of the outbox: {}", e.getMessage(), e);
+            }
+            LockSupport.parkNanos(this, pollIntervalNanos);
+        }
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        Thread thread = new Thread(this::run, THREAD_NAME);
+        thread.setDaemon(true);
+        senderThread = thread;
+        thread.start();
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        Thread thread = senderThread;
+        senderThread = null;
+        if (thread != null) {
+            LockSupport.unpark(thread);
+            try {
+                thread.join(Duration.ofSeconds(10).toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return properties.isEnabled();
+    }
+}
@@ -1,104 +1,103 @@
 package org.jhipster.space.service;
 
+import org.jhipster.space.domain.MailOutboxMessage;
 import org.jhipster.space.domain.User;
+import org.jhipster.space.repository.MailOutboxMessageRepository;
 
-import io.github.jhipster.config.JHipsterProperties;
-
-import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Locale;
-import javax.mail.MessagingException;
-import javax.mail.internet.MimeMessage;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.context.MessageSource;
-import org.springframework.mail.MailException;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * Emails are saved to an outbox in the transaction of the caller, so that they are sent if and only if the change
+ * they notify of is committed, even if the application restarts in the meantime. They are then sent by the
+ * {@link MailOutboxSender}.
  */
 @Service
 public class MailService {
 
     private final Logger log = LoggerFactory.getLogger(MailService.class);
 
-    private static final String USER = "user";
-
-    private static final String BASE_URL = "baseUrl";
-
-    private final JHipsterProperties jHipsterProperties;
+    private final MailOutboxMessageRepository mailOutboxMessageRepository;
 
-    private final JavaMailSender javaMailSender;
+    private final MailOutboxSender mailOutboxSender;
 
-    private final MessageSource messageSource;
+    private final MailTemplateRenderer mailTemplateRenderer;
 
-    private final SpringTemplateEngine templateEngine;
+    public MailService(MailOutboxMessageRepository mailOutboxMessageRepository, MailOutboxSender mailOutboxSender,
+            MailTemplateRenderer mailTemplateRenderer) {
 
-    public MailService(JHipsterProperties jHipsterProperties, JavaMailSender javaMailSender,
-            MessageSource messageSource, SpringTemplateEngine templateEngine) {
-
-        this.jHipsterProperties = jHipsterProperties;
-        this.javaMailSender = javaMailSender;
-        this.messageSource = messageSource;
-        this.templateEngine = templateEngine;
+        this.mailOutboxMessageRepository = mailOutboxMessageRepository;
+        this.mailOutboxSender = mailOutboxSender;
+        this.mailTemplateRenderer = mailTemplateRenderer;
     }
 
-    @Async
     public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-        log.debug("Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
+        sendEmail(to, subject, content, isMultipart, isHtml, Instant.now());
+    }
+
+    /**
+     * Queue an email, to be sent from {@code sendDate} on.
+     */
+    public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml, Instant sendDate) {
+        log.debug("Queue email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
             isMultipart, isHtml, to, subject, content);
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            log.debug("Sent email to User '{}'", to);
-        }  catch (MailException | MessagingException e) {
-            log.warn("Email could not be sent to user '{}'", to, e);
+        MailOutboxMessage message = new MailOutboxMessage();
+        message.setRecipient(to);
+        message.setSubject(subject);
+        message.setContent(content);
+        message.setMultipart(isMultipart);
+        message.setHtml(isHtml);
+        message.setCreatedDate(Instant.now());
+        message.setNextAttemptDate(sendDate);
+        mailOutboxMessageRepository.save(message);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    mailOutboxSender.wakeUp();
+                }
+            });
         }
     }
 
-    @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
+        sendEmailFromTemplate(user, templateName, titleKey, Instant.now());
+    }
+
+    public void sendEmailFromTemplate(User user, String templateName, String titleKey, Instant sendDate) {
         if (user.getEmail() == null) {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
         Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmail(user.getEmail(), subject, content, false, true);
+        String content = mailTemplateRenderer.render(templateName, locale, new MailTemplateRenderer.TemplateUser(user));
+        String subject = mailTemplateRenderer.subject(titleKey, locale);
+        sendEmail(user.getEmail(), subject, content, false, true, sendDate);
     }
 
-    @Async
     public void sendActivationEmail(User user) {
         log.debug("Sending activation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendCreationEmail(User user) {
+        sendCreationEmail(user, Instant.now());
+    }
+
+    public void sendCreationEmail(User user, Instant sendDate) {
         log.debug("Sending creation email to '{}'", user.getEmail());
-        sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
+        sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title", sendDate);
     }
 
-    @Async
     public void sendPasswordResetMail(User user) {
         log.debug("Sending password reset email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
@@ -0,0 +1,293 @@
+package org.jhipster.space.service;
+
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.domain.User;
+
+import io.github.jhipster.config.JHipsterProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.thymeleaf.ThymeleafProperties;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.MessageSource;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Renders the mail templates, and their subject lines.
+ * <p>
+ * Each template is rendered by Thymeleaf once per locale, with placeholders for the values of the user, and the output
+ * is cut around them. Emails are then rendered by filling the placeholders in, without evaluating the template again.
+ * A template is only compiled if filling it in gives the same output as Thymeleaf for sample values; values that would
+ * need escaping, and missing values, are rendered by Thymeleaf.
+ * <p>
+ * Templates only see the {@link TemplateUser} view of the user, and the {@code baseUrl}. Nothing is cached when
+ * {@code spring.thymeleaf.cache} is false, so that templates can be edited in development.
+ */
+@Service
+public class MailTemplateRenderer {
+
+    private static final String USER = "user";
+
+    private static final String BASE_URL = "baseUrl";
+
+    private static final Pattern PLACEHOLDER = Pattern.compile("mailvar(\\d)x");
+
+    /**
+     * Values rendered the same in text, attributes and URLs.
+     */
+    private static final Pattern SAFE_VALUE = Pattern.compile("[A-Za-z0-9_.@-]*");
+
+    private final Logger log = LoggerFactory.getLogger(MailTemplateRenderer.class);
+
+    private final SpringTemplateEngine templateEngine;
+
+    private final MessageSource messageSource;
+
+    private final String baseUrl;
+
+    private final boolean cacheEnabled;
+
+    private final List<String> templateNames;
+
+    private final List<String> languages;
+
+    private final ConcurrentMap<String, Optional<CompiledTemplate>> templates = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<String, String> subjects = new ConcurrentHashMap<>();
+
+    @Autowired
+    public MailTemplateRenderer(SpringTemplateEngine templateEngine, MessageSource messageSource,
+                                JHipsterProperties jHipsterProperties, ThymeleafProperties thymeleafProperties,
+                                ApplicationProperties applicationProperties) {
+        this(templateEngine, messageSource, jHipsterProperties.getMail().getBaseUrl(), thymeleafProperties.isCache(),
+            applicationProperties.getMailTemplates().getNames(), applicationProperties.getMailTemplates().getLanguages());
+    }
+
+    public MailTemplateRenderer(SpringTemplateEngine templateEngine, MessageSource messageSource, String baseUrl,
+                                boolean cacheEnabled, Collection<String> templateNames, Collection<String> languages) {
+        this.templateEngine = templateEngine;
+        this.messageSource = messageSource;
+        this.baseUrl = baseUrl;
+        this.cacheEnabled = cacheEnabled;
+        this.templateNames = new ArrayList<>(templateNames);
+        this.languages = new ArrayList<>(languages);
+    }
+
+    /**
+     * Compile the configured templates for each configured language, before the first emails are sent.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void precompile() {
+        if (!cacheEnabled) {
+            return;
+        }
+        int compiled = 0;
+        for (String language : languages) {
+            for (String templateName : templateNames) {
+                if (compiledTemplate(templateName, Locale.forLanguageTag(language)).isPresent()) {
+                    compiled++;
+                }
+            }
+        }
+        log.debug("Precompiled {} of {} mail templates", compiled, languages.size() * templateNames.size());
+    }
+
+    /**
+     * Render a mail template for a user.
+     *
+     * @param templateName the name of the template.
+     * @param locale the locale of the user.
+     * @param user the values of the user.
+     * @return the content of the email.
+     */
+    public String render(String templateName, Locale locale, TemplateUser user) {
+        if (cacheEnabled) {
+            Optional<CompiledTemplate> template = compiledTemplate(templateName, locale);
+            if (template.isPresent() && template.get().accepts(user)) {
+                return template.get().render(user);
+            }
+        }
+        return process(templateName, locale, user);
+    }
+
+    /**
+     * Resolve the subject line of an email.
+     *
+     * @param titleKey the message key of the subject.
+     * @param locale the locale of the user.
+     * @return the subject.
+     */
+    public String subject(String titleKey, Locale locale) {
+        if (!cacheEnabled) {
+            return messageSource.getMessage(titleKey, null, locale);
+        }
+        return subjects.computeIfAbsent(titleKey + '|' + locale.toLanguageTag(),
+            key -> messageSource.getMessage(titleKey, null, locale));
+    }
+
+    private Optional<CompiledTemplate> compiledTemplate(String templateName, Locale locale) {
+        String key = templateName + '|' + locale.toLanguageTag();
+        Optional<CompiledTemplate> template = templates.get(key);
+        if (template == null) {
+            template = templates.computeIfAbsent(key, k -> compile(templateName, locale));
+        }
+        return template;
+    }
+
+    private Optional<CompiledTemplate> compile(String templateName, Locale locale) {
+        String output;
+        try {
+            output = process(templateName, locale, TemplateUser.placeholders());
+        } catch (RuntimeException e) {
+            log.warn("Could not compile mail template '{}' for locale '{}': {}", templateName, locale, e.getMessage());
+            return Optional.empty();
+        }
+        List<String> fragments = new ArrayList<>();
+        List<Integer> variables = new ArrayList<>();
+        Matcher matcher = PLACEHOLDER.matcher(output);
+        int start = 0;
+        while (matcher.find()) {
+            fragments.add(output.substring(start, matcher.start()));
+            variables.add(Integer.parseInt(matcher.group(1)));
+            start = matcher.end();
+        }
+        fragments.add(output.substring(start));
+        CompiledTemplate template = new CompiledTemplate(fragments, variables);
+        TemplateUser sample = TemplateUser.sample();
+        if (!template.render(sample).equals(process(templateName, locale, sample))) {
+            log.info("Mail template '{}' depends on the values of the user, it will be rendered by Thymeleaf for locale '{}'",
+                templateName, locale);
+            return Optional.empty();
+        }
+        return Optional.of(template);
+    }
+
+    private String process(String templateName, Locale locale, TemplateUser user) {
+        Context context = new Context(locale);
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, baseUrl);
+        return templateEngine.process(templateName, context);
+    }
+
+    private static final class CompiledTemplate {
+
+        private final String[] fragments;
+
+        private final int[] variables;
+
+        private final int length;
+
+        private CompiledTemplate(List<String> fragments, List<Integer> variables) {
+            this.fragments = fragments.toArray(new String[0]);
+            this.variables = variables.stream().mapToInt(Integer::intValue).toArray();
+            this.length = fragments.stream().mapToInt(String::length).sum();
+        }
+
+        private boolean accepts(TemplateUser user) {
+            for (int variable : variables) {
+                String value = user.values[variable];
+                if (value == null || !SAFE_VALUE.matcher(value).matches()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private String render(TemplateUser user) {
+            StringBuilder content = new StringBuilder(length + 32 * variables.length);
+            for (int i = 0; i < variables.length; i++) {
+                content.append(fragments[i]).append(user.values[variables[i]]);
+            }
+            return content.append(fragments[variables.length]).toString();
+        }
+    }
+
+    /**
+     * The values of a user that mail templates can use, as {@code ${user.login}} for example.
+     */
+    public static final class TemplateUser {
+
+        private static final int LOGIN = 0;
+
+        private static final int FIRST_NAME = 1;
+
+        private static final int LAST_NAME = 2;
+
+        private static final int EMAIL = 3;
+
+        private static final int LANG_KEY = 4;
+
+        private static final int ACTIVATION_KEY = 5;
+
+        private static final int RESET_KEY = 6;
+
+        private static final int VARIABLES = 7;
+
+        private final String[] values;
+
+        public TemplateUser(User user) {
+            this(user.getLogin(), user.getFirstName(), user.getLastName(), user.getEmail(), user.getLangKey(),
+                user.getActivationKey(), user.getResetKey());
+        }
+
+        public TemplateUser(String login, String firstName, String lastName, String email, String langKey,
+                            String activationKey, String resetKey) {
+            this.values = new String[]{login, firstName, lastName, email, langKey, activationKey, resetKey};
+        }
+
+        private static TemplateUser placeholders() {
+            String[] values = new String[VARIABLES];
+            for (int i = 0; i < VARIABLES; i++) {
+                values[i] = "mailvar" + i + "x";
+            }
+            return new TemplateUser(values[LOGIN], values[FIRST_NAME], values[LAST_NAME], values[EMAIL],
+                values[LANG_KEY], values[ACTIVATION_KEY], values[RESET_KEY]);
+        }
+
+        private static TemplateUser sample() {
+            return new TemplateUser("sample-login", "Sample", "User", "sample.user@example.com", "xx",
+                "12345678901234567890", "09876543210987654321");
+        }
+
+        public String getLogin() {
+            return values[LOGIN];
+        }
+
+        public String getFirstName() {
+            return values[FIRST_NAME];
+        }
+
+        public String getLastName() {
+            return values[LAST_NAME];
+        }
+
+        public String getEmail() {
+            return values[EMAIL];
+        }
+
+        public String getLangKey() {
+            return values[LANG_KEY];
+        }
+
+        public String getActivationKey() {
+            return values[ACTIVATION_KEY];
+        }
+
+        public String getResetKey() {
+            return values[RESET_KEY];
+        }
+    }
+}
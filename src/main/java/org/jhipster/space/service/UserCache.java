@@ -0,0 +1,184 @@
+package org.jhipster.space.service;
+
+import org.jhipster.space.domain.User;
+import org.jhipster.space.repository.UserRepository;
+import org.jhipster.space.service.dto.UserDTO;
+
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Service looking up users through the caches, and evicting them from the caches when they change.
+ * <p>
+ * Read paths get a {@link UserDTO} copied from the cached result of
+ * {@link UserRepository#findOneWithAuthoritiesByLogin(String)}, so that the cached user is never shared. Write paths
+ * and uniqueness checks get the user by id: its id is cached by login, and the entity itself is read by id, from the
+ * second-level cache when it is enabled; unknown logins are always looked up in the database. The cache entries of the
+ * users looked up for writing are evicted right away, for their login and email before they change, and the
+ * {@link UserEntityListener} evicts those of every inserted, updated or deleted user. Evicted keys are evicted again
+ * once the transaction completes, all at once, so that entries cached meanwhile from the data before the commit do not
+ * stay in the caches.
+ */
+@Service
+public class UserCache {
+
+    public static final String USER_IDS_BY_LOGIN_CACHE = "userIdsByLogin";
+
+    private final UserRepository userRepository;
+
+    private final AccountCache accountCache;
+
+    private final Cache usersByLogin;
+
+    private final Cache usersByEmail;
+
+    private final Cache userIdsByLogin;
+
+    public UserCache(UserRepository userRepository, AccountCache accountCache, CacheManager cacheManager) {
+        this.userRepository = userRepository;
+        this.accountCache = accountCache;
+        this.usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        this.usersByEmail = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
+        this.userIdsByLogin = Objects.requireNonNull(cacheManager.getCache(USER_IDS_BY_LOGIN_CACHE));
+    }
+
+    /**
+     * @param login the login of the user.
+     * @return a copy of the cached user, with its authorities.
+     */
+    public Optional<UserDTO> findSnapshot(String login) {
+        return userRepository.findOneWithAuthoritiesByLogin(login).map(UserDTO::new);
+    }
+
+    /**
+     * @param login the login of the user.
+     * @return the id of the user, to check whether the login is used.
+     */
+    public Optional<Long> findId(String login) {
+        return findByLogin(login).map(User::getId);
+    }
+
+    /**
+     * @param login the login of the user.
+     * @return the managed user, evicted from the caches.
+     */
+    public Optional<User> findForUpdate(String login) {
+        Optional<User> user = findByLogin(login);
+        user.ifPresent(this::evict);
+        return user;
+    }
+
+    private Optional<User> findByLogin(String login) {
+        Long id = userIdsByLogin.get(login, Long.class);
+        Optional<User> user = id == null ? Optional.empty() : userRepository.findById(id)
+            .filter(found -> login.equals(found.getLogin()));
+        if (!user.isPresent()) {
+            user = userRepository.findOneByLogin(login);
+            user.ifPresent(found -> userIdsByLogin.put(login, found.getId()));
+        }
+        return user;
+    }
+
+    /**
+     * @param id the id of the user.
+     * @return the managed user, evicted from the caches.
+     */
+    public Optional<User> findForUpdate(Long id) {
+        Optional<User> user = userRepository.findById(id);
+        user.ifPresent(this::evict);
+        return user;
+    }
+
+    /**
+     * @param logins the logins of the users.
+     * @return the managed users, with their authorities, evicted from the caches; unknown logins are ignored.
+     */
+    public List<User> findAllForUpdate(Set<String> logins) {
+        List<User> users = userRepository.findAllWithAuthoritiesByLoginIn(logins);
+        evict(users.stream().map(User::getLogin).collect(Collectors.toSet()),
+            users.stream().map(User::getEmail).filter(Objects::nonNull).collect(Collectors.toSet()));
+        return users;
+    }
+
+    /**
+     * Evict a user from the caches, now and once the current transaction completes.
+     *
+     * @param user the user.
+     */
+    public void evict(User user) {
+        evict(Collections.singleton(user.getLogin()),
+            user.getEmail() == null ? Collections.emptySet() : Collections.singleton(user.getEmail()));
+    }
+
+    /**
+     * Evict users from the caches, now and once the current transaction completes.
+     *
+     * @param logins the logins of the users.
+     * @param emails the emails of the users.
+     */
+    public void evict(Collection<String> logins, Collection<String> emails) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            evictAll(logins, emails);
+            return;
+        }
+        Keys keys = (Keys) TransactionSynchronizationManager.getResource(this);
+        if (keys == null) {
+            Keys transactionKeys = new Keys();
+            keys = transactionKeys;
+            TransactionSynchronizationManager.bindResource(this, transactionKeys);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(UserCache.this);
+                    evictAll(transactionKeys.logins, transactionKeys.emails);
+                }
+            });
+        }
+        keys.logins.addAll(logins);
+        keys.emails.addAll(emails);
+        evictAll(logins, emails);
+    }
+
+    private void evictAll(Collection<String> logins, Collection<String> emails) {
+        evictAll(usersByLogin, logins);
+        evictAll(usersByEmail, emails);
+        accountCache.evict(logins);
+    }
+
+    /**
+     * Evict keys with a single call to the underlying JCache, when there is one.
+     */
+    @SuppressWarnings("unchecked")
+    private static void evictAll(Cache cache, Collection<String> keys) {
+        if (keys.isEmpty()) {
+            return;
+        }
+        if (keys.size() > 1 && cache.getNativeCache() instanceof javax.cache.Cache) {
+            ((javax.cache.Cache<Object, Object>) cache.getNativeCache()).removeAll(new HashSet<>(keys));
+        } else {
+            keys.forEach(cache::evict);
+        }
+    }
+
+    /**
+     * The keys evicted during a transaction.
+     */
+    private static final class Keys {
+
+        private final Set<String> logins = new HashSet<>();
+
+        private final Set<String> emails = new HashSet<>();
+    }
+}
@@ -0,0 +1,50 @@
+package org.jhipster.space.service;
+
+import org.jhipster.space.domain.User;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import javax.persistence.PostPersist;
+import javax.persistence.PostRemove;
+import javax.persistence.PostUpdate;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
+
+/**
+ * JPA entity listener keeping the services that index users in sync with every saved {@link User}, whichever
+ * repository or service saved it.
+ * <p>
+ * Instances are created by Hibernate through the Spring bean container; services are looked up lazily, as they
+ * depend on the entity manager factory being built.
+ */
+public class UserEntityListener {
+
+    private final ObjectProvider<UserExistenceIndex> userExistenceIndex;
+
+    private final ObjectProvider<UserCache> userCache;
+
+    public UserEntityListener(ObjectProvider<UserExistenceIndex> userExistenceIndex, ObjectProvider<UserCache> userCache) {
+        this.userExistenceIndex = userExistenceIndex;
+        this.userCache = userCache;
+    }
+
+    /**
+     * Called when a new user is persisted, before it is inserted at the next flush, and when a changed user is
+     * flushed.
+     */
+    @PrePersist
+    @PreUpdate
+    public void onSave(User user) {
+        userExistenceIndex.ifAvailable(index -> index.add(user));
+    }
+
+    /**
+     * Called once a user is inserted, updated or deleted.
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onWrite(User user) {
+        userCache.ifAvailable(cache -> cache.evict(user));
+    }
+}
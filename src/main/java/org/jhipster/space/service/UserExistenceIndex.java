@@ -0,0 +1,186 @@
+package org.jhipster.space.service;
+
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.domain.User;
+import org.jhipster.space.repository.UserRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service telling which emails are definitely not used, so that the lookups of password resets can be skipped.
+ * <p>
+ * Emails are kept in a {@link BloomFilter}, built at startup and maintained by the {@link UserEntityListener} on every
+ * user saved by this node. The users saved by other nodes are read from the database every
+ * {@code existence-filter-sync-delay}, by their last modification date: until then, this node answers a password
+ * reset for their email as for an unknown email. The uniqueness checks of logins and emails do not use the filter,
+ * and always look the values up.
+ * <p>
+ * Deleted users and changed emails are only forgotten when the filter is rebuilt, every night after the purge of not
+ * activated users. Until the first build, every email might exist.
+ */
+@Service
+public class UserExistenceIndex {
+
+    /**
+     * How far before the last sync the users are read again, for the transactions that committed after it and the
+     * clocks of the nodes.
+     */
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final Logger log = LoggerFactory.getLogger(UserExistenceIndex.class);
+
+    private final UserRepository userRepository;
+
+    private final ApplicationProperties.Users properties;
+
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    private final Counter skippedLookups;
+
+    private volatile BloomFilter emails;
+
+    /**
+     * The filter being rebuilt, which also gets the users saved during the rebuild.
+     */
+    private volatile BloomFilter rebuilding;
+
+    /**
+     * When the filter last read the users from the database.
+     */
+    private volatile Instant syncedAt;
+
+    public UserExistenceIndex(UserRepository userRepository, ApplicationProperties applicationProperties,
+                              MeterRegistry meterRegistry) {
+        this.userRepository = userRepository;
+        this.properties = applicationProperties.getUsers();
+        this.skippedLookups = Counter.builder("user.existence.lookup.skipped")
+            .description("Email lookups skipped because the email is not used")
+            .register(meterRegistry);
+    }
+
+    /**
+     * @param email the email, in any case.
+     * @return {@code false} if no user has this email, {@code true} if one might have it.
+     */
+    public boolean mightContainEmail(String email) {
+        BloomFilter filter = emails;
+        if (email == null || filter == null || filter.mightContain(User.normalizeEmail(email))) {
+            return true;
+        }
+        skippedLookups.increment();
+        return false;
+    }
+
+    /**
+     * Add the email of a saved user, now and again after the commit of the transaction: a rebuild that started in
+     * between would not read the user, but gets it from the second add.
+     *
+     * @param user the saved user.
+     */
+    public void add(User user) {
+        String email = user.getEmail();
+        if (email == null) {
+            return;
+        }
+        add(email);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    add(email);
+                }
+            });
+        }
+    }
+
+    private void add(String email) {
+        BloomFilter current = emails;
+        if (current != null) {
+            current.put(User.normalizeEmail(email));
+        }
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(User.normalizeEmail(email));
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void build() {
+        if (properties.isExistenceFilterEnabled()) {
+            rebuild();
+        }
+    }
+
+    /**
+     * Add the emails of the users saved since the last sync, including by other nodes.
+     */
+    @Scheduled(fixedDelayString = "${application.users.existence-filter-sync-delay:PT30S}",
+        initialDelayString = "${application.users.existence-filter-sync-delay:PT30S}")
+    public void sync() {
+        if (!properties.isExistenceFilterEnabled() || !rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            BloomFilter current = emails;
+            Instant since = syncedAt;
+            if (current == null || since == null) {
+                return;
+            }
+            Instant now = Instant.now();
+            List<UserRepository.UserKeys> users = userRepository.findKeysByLastModifiedDateAfter(since.minus(SYNC_OVERLAP));
+            users.stream()
+                .map(UserRepository.UserKeys::getEmail)
+                .filter(Objects::nonNull)
+                .forEach(email -> current.put(User.normalizeEmail(email)));
+            syncedAt = now;
+            log.debug("Synced the user existence filter with {} users", users.size());
+        } catch (RuntimeException e) {
+            log.warn("Could not sync the user existence filter: {}", e.getMessage());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Rebuild the filter from the database, to forget the deleted users and the changed emails.
+     * <p>
+     * This is scheduled to run every day at 01:45 (am), after the purge of not activated users.
+     */
+    @Scheduled(cron = "0 45 1 * * ?")
+    public void rebuild() {
+        if (!properties.isExistenceFilterEnabled() || !rebuildLock.tryLock()) {
+            return;
+        }
+        try {
+            Instant now = Instant.now();
+            long expectedUsers = Math.max(properties.getExistenceFilterMinCapacity(), userRepository.count() * 2);
+            BloomFilter next = new BloomFilter(expectedUsers, properties.getExistenceFilterFalsePositiveRate());
+            rebuilding = next;
+            List<String> allEmails = userRepository.findAllEmails();
+            allEmails.forEach(email -> next.put(User.normalizeEmail(email)));
+            emails = next;
+            syncedAt = now;
+            log.info("Built the user existence filter of {} emails, sized for {} users", allEmails.size(), expectedUsers);
+        } catch (RuntimeException e) {
+            log.error("Could not build the user existence filter: {}", e.getMessage(), e);
+        } finally {
+            rebuilding = null;
+            rebuildLock.unlock();
+        }
+    }
+}
@@ -0,0 +1,338 @@
+package org.jhipster.space.service;
+
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.config.Constants;
+import org.jhipster.space.domain.Authority;
+import org.jhipster.space.domain.User;
+import org.jhipster.space.repository.AuthorityRepository;
+import org.jhipster.space.repository.UserRepository;
+import org.jhipster.space.security.AuthoritiesConstants;
+import org.jhipster.space.service.dto.UserDTO;
+import org.jhipster.space.service.dto.UserImportResultDTO;
+
+import io.github.jhipster.security.RandomUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.Instant;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Service importing users from CSV files, in the format of {@code config/liquibase/data/user.csv}.
+ * <p>
+ * Rows are read as a stream, and checked against the logins and emails in use, which are read once at the start of
+ * the import. Valid rows are written by chunks of {@code application.users.import-chunk-size}, in one transaction
+ * each: the passwords are hashed in parallel on the {@code passwordHashPool}, and the users inserted with JDBC
+ * batches. Users imported without a password hash get a creation email, queued in the outbox with send dates spread
+ * at {@code application.users.import-mail-rate} emails per second.
+ */
+@Service
+public class UserImportService {
+
+    static final char SEPARATOR = ';';
+
+    private static final int PASSWORD_HASH_MIN_LENGTH = 60;
+
+    private static final int PASSWORD_HASH_MAX_LENGTH = 100;
+
+    private final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private final UserRepository userRepository;
+
+    private final AuthorityRepository authorityRepository;
+
+    private final PasswordEncoder passwordEncoder;
+
+    private final ForkJoinPool passwordHashPool;
+
+    private final MailService mailService;
+
+    private final Validator validator;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.Users properties;
+
+    public UserImportService(UserRepository userRepository, AuthorityRepository authorityRepository,
+                             PasswordEncoder passwordEncoder, ForkJoinPool passwordHashPool, MailService mailService,
+                             Validator validator, PlatformTransactionManager transactionManager,
+                             ApplicationProperties applicationProperties) {
+        this.userRepository = userRepository;
+        this.authorityRepository = authorityRepository;
+        this.passwordEncoder = passwordEncoder;
+        this.passwordHashPool = passwordHashPool;
+        this.mailService = mailService;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = applicationProperties.getUsers();
+    }
+
+    /**
+     * Import users, with the {@link AuthoritiesConstants#USER} authority.
+     * <p>
+     * The header line names the columns; {@code login} is required, and the {@code id}, {@code created_by} and
+     * {@code last_modified_by} columns are ignored. Rows are rejected if they are invalid, or if their login or email
+     * is already used, by an existing user or by a previous row.
+     *
+     * @param reader the CSV content.
+     * @return the numbers of imported and rejected rows, with the first errors.
+     * @throws IOException if the content cannot be read.
+     * @throws IllegalArgumentException if the header line has no {@code login} column.
+     */
+    public UserImportResultDTO importUsers(Reader reader) throws IOException {
+        UserImportResultDTO result = new UserImportResultDTO();
+        BufferedReader lines = new BufferedReader(reader);
+        String header = lines.readLine();
+        if (header == null) {
+            return result;
+        }
+        List<String> columns = parseLine(header);
+        if (!columns.contains("login")) {
+            throw new IllegalArgumentException("The header line has no login column");
+        }
+        Set<String> logins = new HashSet<>(userRepository.findAllLogins());
+        Set<String> emails = new HashSet<>(userRepository.findAllEmails());
+        Set<Authority> authorities = new HashSet<>();
+        authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
+        MailSchedule mailSchedule = new MailSchedule(Instant.now(), properties.getImportMailRate());
+
+        int chunkSize = Math.max(1, properties.getImportChunkSize());
+        List<ImportedUser> chunk = new ArrayList<>(chunkSize);
+        long lineNumber = 1;
+        String line;
+        while ((line = lines.readLine()) != null) {
+            lineNumber++;
+            if (line.trim().isEmpty()) {
+                continue;
+            }
+            ImportedUser imported = toUser(lineNumber, columns, parseLine(line), logins, emails, result);
+            if (imported == null) {
+                continue;
+            }
+            imported.user.setAuthorities(new HashSet<>(authorities));
+            chunk.add(imported);
+            if (chunk.size() >= chunkSize) {
+                write(chunk, mailSchedule, result);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            write(chunk, mailSchedule, result);
+        }
+        log.info("Imported {} users, rejected {} rows", result.getImported(), result.getRejected());
+        return result;
+    }
+
+    /**
+     * @return the user of a valid row, or {@code null} after rejecting the row.
+     */
+    private ImportedUser toUser(long lineNumber, List<String> columns, List<String> fields, Set<String> logins,
+                                Set<String> emails, UserImportResultDTO result) {
+        Map<String, String> row = new HashMap<>();
+        for (int i = 0; i < columns.size() && i < fields.size(); i++) {
+            String field = fields.get(i);
+            row.put(columns.get(i), field.isEmpty() ? null : field);
+        }
+        UserDTO userDTO = new UserDTO();
+        userDTO.setLogin(row.get("login"));
+        userDTO.setFirstName(row.get("first_name"));
+        userDTO.setLastName(row.get("last_name"));
+        userDTO.setEmail(row.get("email"));
+        userDTO.setImageUrl(row.get("image_url"));
+        userDTO.setLangKey(row.get("lang_key"));
+        Set<ConstraintViolation<UserDTO>> violations = validator.validate(userDTO);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<UserDTO> violation = violations.iterator().next();
+            result.reject(lineNumber, userDTO.getLogin(), violation.getPropertyPath() + " " + violation.getMessage());
+            return null;
+        }
+        String passwordHash = row.get("password_hash");
+        if (passwordHash != null && (passwordHash.length() < PASSWORD_HASH_MIN_LENGTH || passwordHash.length() > PASSWORD_HASH_MAX_LENGTH)) {
+            result.reject(lineNumber, userDTO.getLogin(), "password_hash size must be between " + PASSWORD_HASH_MIN_LENGTH +
+                " and " + PASSWORD_HASH_MAX_LENGTH);
+            return null;
+        }
+        String login = userDTO.getLogin().toLowerCase();
+        String email = User.normalizeEmail(userDTO.getEmail());
+        if (logins.contains(login)) {
+            result.reject(lineNumber, login, "Login name already used!");
+            return null;
+        }
+        if (email != null && emails.contains(email)) {
+            result.reject(lineNumber, login, "Email is already in use!");
+            return null;
+        }
+        logins.add(login);
+        if (email != null) {
+            emails.add(email);
+        }
+
+        User user = new User();
+        user.setLogin(login);
+        user.setEmail(email);
+        user.setFirstName(userDTO.getFirstName());
+        user.setLastName(userDTO.getLastName());
+        user.setImageUrl(userDTO.getImageUrl());
+        user.setLangKey(userDTO.getLangKey() == null ? Constants.DEFAULT_LANGUAGE : userDTO.getLangKey());
+        user.setActivated(row.get("activated") == null || Boolean.parseBoolean(row.get("activated")));
+        user.setPassword(passwordHash);
+        return new ImportedUser(lineNumber, user);
+    }
+
+    private void write(List<ImportedUser> chunk, MailSchedule mailSchedule, UserImportResultDTO result) {
+        hashPasswords(chunk);
+        try {
+            save(chunk, mailSchedule);
+            result.addImported(chunk.size());
+        } catch (DataIntegrityViolationException e) {
+            // A login or email was taken during the import, write the rows one by one to find which
+            log.debug("Could not write a chunk of imported users, retrying row by row: {}", e.getMessage());
+            for (ImportedUser imported : chunk) {
+                imported.user = copyOf(imported.user);
+                try {
+                    save(Collections.singletonList(imported), mailSchedule);
+                    result.addImported(1);
+                } catch (DataIntegrityViolationException rowFailure) {
+                    result.reject(imported.line, imported.user.getLogin(), "Login name or email already used!");
+                }
+            }
+        }
+    }
+
+    /**
+     * @return a new user with the values of an imported one, as the failed write of a chunk left ids and versions on
+     * its users.
+     */
+    private static User copyOf(User user) {
+        User copy = new User();
+        copy.setLogin(user.getLogin());
+        copy.setEmail(user.getEmail());
+        copy.setFirstName(user.getFirstName());
+        copy.setLastName(user.getLastName());
+        copy.setImageUrl(user.getImageUrl());
+        copy.setLangKey(user.getLangKey());
+        copy.setActivated(user.getActivated());
+        copy.setPassword(user.getPassword());
+        copy.setAuthorities(new HashSet<>(user.getAuthorities()));
+        return copy;
+    }
+
+    /**
+     * Give the users without a password hash a random password, hashed in parallel on the {@code passwordHashPool}.
+     */
+    private void hashPasswords(List<ImportedUser> chunk) {
+        passwordHashPool.submit(() -> chunk.parallelStream()
+            .filter(imported -> imported.user.getPassword() == null)
+            .forEach(imported -> {
+                imported.user.setPassword(passwordEncoder.encode(RandomUtil.generatePassword()));
+                imported.creationEmail = true;
+            }))
+            .join();
+    }
+
+    private void save(List<ImportedUser> chunk, MailSchedule mailSchedule) {
+        transactionTemplate.execute(status -> {
+            List<User> users = new ArrayList<>(chunk.size());
+            for (ImportedUser imported : chunk) {
+                users.add(imported.user);
+                if (imported.creationEmail) {
+                    // The reset link is valid for a day from the time the email is sent. A row written again after
+                    // the failure of its chunk keeps the send date it got then, rather than taking a later one
+                    Instant sendDate = imported.sendDate != null ? imported.sendDate : mailSchedule.next();
+                    imported.user.setResetKey(RandomUtil.generateResetKey());
+                    imported.user.setResetDate(sendDate);
+                    imported.sendDate = sendDate;
+                }
+            }
+            userRepository.saveAll(users);
+            userRepository.flush();
+            for (ImportedUser imported : chunk) {
+                if (imported.sendDate != null) {
+                    mailService.sendCreationEmail(imported.user, imported.sendDate);
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Split a CSV line on {@link #SEPARATOR}, with fields optionally enclosed in double quotes, and double quotes
+     * escaped by doubling them within such fields.
+     */
+    static List<String> parseLine(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == SEPARATOR) {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Send dates of the creation emails, {@code 1 / rate} seconds apart.
+     */
+    private static final class MailSchedule {
+
+        private final Instant start;
+
+        private final long intervalNanos;
+
+        private long count;
+
+        private MailSchedule(Instant start, int rate) {
+            this.start = start;
+            this.intervalNanos = TimeUnit.SECONDS.toNanos(1) / Math.max(1, rate);
+        }
+
+        private Instant next() {
+            return start.plusNanos(count++ * intervalNanos);
+        }
+    }
+
+    private static final class ImportedUser {
+
+        private final long line;
+
+        private User user;
+
+        private boolean creationEmail;
+
+        private Instant sendDate;
+
+        private ImportedUser(long line, User user) {
+            this.line = line;
+            this.user = user;
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package org.jhipster.space.service;
 
+import org.jhipster.space.config.ApplicationProperties;
 import org.jhipster.space.config.Constants;
+import org.jhipster.space.config.job.ClusterJob;
 import org.jhipster.space.domain.Authority;
 import org.jhipster.space.domain.User;
 import org.jhipster.space.repository.AuthorityRepository;
@@ -8,26 +10,35 @@ import org.jhipster.space.repository.UserRepository;
 import org.jhipster.space.security.AuthoritiesConstants;
 import org.jhipster.space.security.SecurityUtils;
 import org.jhipster.space.service.dto.UserDTO;
+import org.jhipster.space.service.mapper.UserMapper;
 
 import io.github.jhipster.security.RandomUtil;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.cache.CacheManager;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Service class for managing users.
+ * <p>
+ * Users are looked up through the {@link UserCache}, which evicts the cache entries of the users that change.
  */
 @Service
 @Transactional
@@ -41,13 +52,34 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    private final CacheManager cacheManager;
+    private final MailService mailService;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository, CacheManager cacheManager) {
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ForkJoinPool passwordHashPool;
+
+    private final UserMapper userMapper;
+
+    private final UserExistenceIndex userExistenceIndex;
+
+    private final UserCache userCache;
+
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository,
+                       UserCache userCache, MailService mailService, PlatformTransactionManager transactionManager,
+                       ApplicationProperties applicationProperties, ForkJoinPool passwordHashPool, UserMapper userMapper,
+                       UserExistenceIndex userExistenceIndex) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
-        this.cacheManager = cacheManager;
+        this.userCache = userCache;
+        this.mailService = mailService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationProperties = applicationProperties;
+        this.passwordHashPool = passwordHashPool;
+        this.userMapper = userMapper;
+        this.userExistenceIndex = userExistenceIndex;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -57,7 +89,6 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
-                this.clearUserCaches(user);
                 log.debug("Activated user: {}", user);
                 return user;
             });
@@ -71,30 +102,32 @@ public class UserService {
                 user.setPassword(passwordEncoder.encode(newPassword));
                 user.setResetKey(null);
                 user.setResetDate(null);
-                this.clearUserCaches(user);
                 return user;
             });
     }
 
     public Optional<User> requestPasswordReset(String mail) {
-        return userRepository.findOneByEmailIgnoreCase(mail)
+        if (!userExistenceIndex.mightContainEmail(mail)) {
+            return Optional.empty();
+        }
+        return userRepository.findOneByNormalizedEmail(mail)
             .filter(User::getActivated)
             .map(user -> {
                 user.setResetKey(RandomUtil.generateResetKey());
                 user.setResetDate(Instant.now());
-                this.clearUserCaches(user);
+                mailService.sendPasswordResetMail(user);
                 return user;
             });
     }
 
     public User registerUser(UserDTO userDTO, String password) {
-        userRepository.findOneByLogin(userDTO.getLogin().toLowerCase()).ifPresent(existingUser -> {
+        userCache.findForUpdate(userDTO.getLogin().toLowerCase()).ifPresent(existingUser -> {
             boolean removed = removeNonActivatedUser(existingUser);
             if (!removed) {
                 throw new UsernameAlreadyUsedException();
             }
         });
-        userRepository.findOneByEmailIgnoreCase(userDTO.getEmail()).ifPresent(existingUser -> {
+        userRepository.findOneByNormalizedEmail(userDTO.getEmail()).ifPresent(existingUser -> {
             boolean removed = removeNonActivatedUser(existingUser);
             if (!removed) {
                 throw new EmailAlreadyUsedException();
@@ -107,9 +140,7 @@ public class UserService {
         newUser.setPassword(encryptedPassword);
         newUser.setFirstName(userDTO.getFirstName());
         newUser.setLastName(userDTO.getLastName());
-        if (userDTO.getEmail() != null) {
-            newUser.setEmail(userDTO.getEmail().toLowerCase());
-        }
+        newUser.setEmail(userDTO.getEmail());
         newUser.setImageUrl(userDTO.getImageUrl());
         newUser.setLangKey(userDTO.getLangKey());
         // new user is not active
@@ -120,7 +151,7 @@ public class UserService {
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
-        this.clearUserCaches(newUser);
+        mailService.sendActivationEmail(newUser);
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
@@ -131,17 +162,61 @@ public class UserService {
         }
         userRepository.delete(existingUser);
         userRepository.flush();
-        this.clearUserCaches(existingUser);
         return true;
     }
 
     public User createUser(UserDTO userDTO) {
+        Map<String, Authority> authorities = findAuthorities(userDTO.getAuthorities() == null
+            ? Collections.emptySet() : userDTO.getAuthorities());
+        User user = newUser(userDTO, passwordEncoder.encode(RandomUtil.generatePassword()), authorities);
+        userRepository.save(user);
+        mailService.sendCreationEmail(user);
+        log.debug("Created Information for User: {}", user);
+        return user;
+    }
+
+    /**
+     * Create users, as {@link #createUser(UserDTO)} does for each of them.
+     * <p>
+     * The random passwords are hashed in parallel on the {@code passwordHashPool} before the transaction starts, so
+     * that the hashing does not hold a database connection. The authorities are then read once for the whole batch,
+     * and the users are inserted with JDBC batches.
+     *
+     * @param userDTOs the users to create.
+     * @return the created users.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public List<User> createUsers(List<UserDTO> userDTOs) {
+        List<String> passwords = userDTOs.stream()
+            .map(userDTO -> CompletableFuture.supplyAsync(() -> passwordEncoder.encode(RandomUtil.generatePassword()), passwordHashPool))
+            .collect(Collectors.toList()).stream()
+            .map(CompletableFuture::join)
+            .collect(Collectors.toList());
+        List<User> users = transactionTemplate.execute(status -> {
+            Map<String, Authority> authorities = findAuthorities(userDTOs.stream()
+                .map(UserDTO::getAuthorities)
+                .filter(Objects::nonNull)
+                .flatMap(Set::stream)
+                .collect(Collectors.toSet()));
+            List<User> newUsers = new ArrayList<>(userDTOs.size());
+            for (int i = 0; i < userDTOs.size(); i++) {
+                newUsers.add(newUser(userDTOs.get(i), passwords.get(i), authorities));
+            }
+            userRepository.saveAll(newUsers);
+            newUsers.forEach(mailService::sendCreationEmail);
+            return newUsers;
+        });
+        log.debug("Created Information for {} Users", users.size());
+        return users;
+    }
+
+    private User newUser(UserDTO userDTO, String encryptedPassword, Map<String, Authority> authorities) {
         User user = new User();
         user.setLogin(userDTO.getLogin().toLowerCase());
         user.setFirstName(userDTO.getFirstName());
         user.setLastName(userDTO.getLastName());
         if (userDTO.getEmail() != null) {
-            user.setEmail(userDTO.getEmail().toLowerCase());
+            user.setEmail(userDTO.getEmail());
         }
         user.setImageUrl(userDTO.getImageUrl());
         if (userDTO.getLangKey() == null) {
@@ -149,22 +224,16 @@ public class UserService {
         } else {
             user.setLangKey(userDTO.getLangKey());
         }
-        String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
         user.setPassword(encryptedPassword);
         user.setResetKey(RandomUtil.generateResetKey());
         user.setResetDate(Instant.now());
         user.setActivated(true);
         if (userDTO.getAuthorities() != null) {
-            Set<Authority> authorities = userDTO.getAuthorities().stream()
-                .map(authorityRepository::findById)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.toSet());
-            user.setAuthorities(authorities);
+            user.setAuthorities(userDTO.getAuthorities().stream()
+                .map(authorities::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet()));
         }
-        userRepository.save(user);
-        this.clearUserCaches(user);
-        log.debug("Created Information for User: {}", user);
         return user;
     }
 
@@ -175,17 +244,16 @@ public class UserService {
      * @return updated user.
      */
     public Optional<UserDTO> updateUser(UserDTO userDTO) {
-        return Optional.of(userRepository
-            .findById(userDTO.getId()))
+        return Optional.of(userCache
+            .findForUpdate(userDTO.getId()))
             .filter(Optional::isPresent)
             .map(Optional::get)
             .map(user -> {
-                this.clearUserCaches(user);
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
                 if (userDTO.getEmail() != null) {
-                    user.setEmail(userDTO.getEmail().toLowerCase());
+                    user.setEmail(userDTO.getEmail());
                 }
                 user.setImageUrl(userDTO.getImageUrl());
                 user.setActivated(userDTO.isActivated());
@@ -197,17 +265,63 @@ public class UserService {
                     .filter(Optional::isPresent)
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
-                this.clearUserCaches(user);
                 log.debug("Changed Information for User: {}", user);
                 return user;
             })
             .map(UserDTO::new);
     }
 
+    /**
+     * Replace the authorities of users, reading the authorities once for the whole batch.
+     *
+     * @param authoritiesByLogin the new authorities of each user, by login.
+     * @return the updated users; logins of unknown users are ignored.
+     */
+    public List<UserDTO> updateAuthorities(Map<String, Set<String>> authoritiesByLogin) {
+        Map<String, Set<String>> authorityNames = new HashMap<>();
+        authoritiesByLogin.forEach((login, names) -> authorityNames.put(login.toLowerCase(), names));
+        Map<String, Authority> authorities = findAuthorities(authorityNames.values().stream()
+            .flatMap(Set::stream)
+            .collect(Collectors.toSet()));
+        List<User> users = userCache.findAllForUpdate(authorityNames.keySet());
+        for (User user : users) {
+            Set<Authority> managedAuthorities = user.getAuthorities();
+            managedAuthorities.clear();
+            authorityNames.get(user.getLogin()).stream()
+                .map(authorities::get)
+                .filter(Objects::nonNull)
+                .forEach(managedAuthorities::add);
+        }
+        log.debug("Changed authorities of {} Users", users.size());
+        return users.stream().map(UserDTO::new).collect(Collectors.toList());
+    }
+
+    /**
+     * Deactivate users, so that they can no longer log in.
+     *
+     * @param logins the logins of the users to deactivate.
+     * @return the deactivated users; logins of unknown users are ignored.
+     */
+    public List<UserDTO> deactivateUsers(Collection<String> logins) {
+        List<User> users = userCache.findAllForUpdate(logins.stream()
+            .map(String::toLowerCase)
+            .collect(Collectors.toSet()));
+        users.forEach(user -> user.setActivated(false));
+        log.debug("Deactivated {} Users", users.size());
+        return users.stream().map(UserDTO::new).collect(Collectors.toList());
+    }
+
+    private Map<String, Authority> findAuthorities(Set<String> names) {
+        if (names.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        return authorityRepository.findAllById(names).stream()
+            .collect(Collectors.toMap(Authority::getName, Function.identity()));
+    }
+
     public void deleteUser(String login) {
-        userRepository.findOneByLogin(login).ifPresent(user -> {
+        userCache.findForUpdate(login).ifPresent(user -> {
             userRepository.delete(user);
-            this.clearUserCaches(user);
             log.debug("Deleted User: {}", user);
         });
     }
@@ -223,16 +337,15 @@ public class UserService {
      */
     public void updateUser(String firstName, String lastName, String email, String langKey, String imageUrl) {
         SecurityUtils.getCurrentUserLogin()
-            .flatMap(userRepository::findOneByLogin)
+            .flatMap(userCache::findForUpdate)
             .ifPresent(user -> {
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
-                    user.setEmail(email.toLowerCase());
+                    user.setEmail(email);
                 }
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
-                this.clearUserCaches(user);
                 log.debug("Changed Information for User: {}", user);
             });
     }
@@ -241,7 +354,7 @@ public class UserService {
     @Transactional
     public void changePassword(String currentClearTextPassword, String newPassword) {
         SecurityUtils.getCurrentUserLogin()
-            .flatMap(userRepository::findOneByLogin)
+            .flatMap(userCache::findForUpdate)
             .ifPresent(user -> {
                 String currentEncryptedPassword = user.getPassword();
                 if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
@@ -249,40 +362,131 @@ public class UserService {
                 }
                 String encryptedPassword = passwordEncoder.encode(newPassword);
                 user.setPassword(encryptedPassword);
-                this.clearUserCaches(user);
                 log.debug("Changed password for User: {}", user);
             });
     }
 
+    /**
+     * Replace the stored password hash of a user, without checking the current password.
+     * <p>
+     * Used to re-encode a password that was just verified with an outdated hash. The hash is replaced with a single
+     * update that leaves the version of the user unchanged, so that the upgrade does not fail, nor makes an edit of
+     * the user fail, when they run concurrently. It is skipped if the stored hash is no longer the verified one, as
+     * another login upgraded it or the password was changed meanwhile.
+     *
+     * @param login the login of the user.
+     * @param currentPassword the verified password hash.
+     * @param encodedPassword the new password hash.
+     */
+    public void updatePasswordHash(String login, String currentPassword, String encodedPassword) {
+        if (userRepository.updatePasswordByLoginAndPassword(login, currentPassword, encodedPassword) == 0) {
+            log.debug("Skipped the password hash upgrade of User {}, whose hash changed meanwhile", login);
+            return;
+        }
+        userCache.evict(Collections.singleton(login), Collections.emptySet());
+        log.debug("Upgraded password hash for User: {}", login);
+    }
+
+    /**
+     * Get a page of users, with their authorities.
+     * <p>
+     * The users are read without their authorities, which are then read with a single join for the whole page, so
+     * that a page takes the same number of queries whatever its size, and leaves the entity caches untouched.
+     *
+     * @param pageable the pagination information.
+     * @return the page of users.
+     */
     @Transactional(readOnly = true)
     public Page<UserDTO> getAllManagedUsers(Pageable pageable) {
-        return userRepository.findAllByLoginNot(pageable, Constants.ANONYMOUS_USER).map(UserDTO::new);
+        Page<UserDTO> page = userRepository.findSummariesByLoginNot(Constants.ANONYMOUS_USER, pageable)
+            .map(userMapper::userSummaryToUserDTO);
+        fillAuthorities(page.getContent());
+        return page;
     }
 
+    /**
+     * Search users whose login, email, first or last name contains a text, ignoring case.
+     * <p>
+     * Their authorities are read as in {@link #getAllManagedUsers(Pageable)}.
+     *
+     * @param search the text to search for.
+     * @param pageable the pagination information.
+     * @return the page of matching users, with their authorities.
+     */
     @Transactional(readOnly = true)
-    public Optional<User> getUserWithAuthoritiesByLogin(String login) {
-        return userRepository.findOneWithAuthoritiesByLogin(login);
+    public Page<UserDTO> searchManagedUsers(String search, Pageable pageable) {
+        Page<UserDTO> page = userRepository.searchByLoginNot(likePattern(search), Constants.ANONYMOUS_USER, pageable)
+            .map(userMapper::userSummaryToUserDTO);
+        fillAuthorities(page.getContent());
+        return page;
+    }
+
+    private void fillAuthorities(List<UserDTO> userDTOs) {
+        if (userDTOs.isEmpty()) {
+            return;
+        }
+        Map<Long, UserDTO> usersById = new HashMap<>();
+        for (UserDTO userDTO : userDTOs) {
+            userDTO.setAuthorities(new HashSet<>());
+            usersById.put(userDTO.getId(), userDTO);
+        }
+        for (UserRepository.UserAuthority userAuthority : userRepository.findAuthoritiesByUserIdIn(usersById.keySet())) {
+            usersById.get(userAuthority.getUserId()).getAuthorities().add(userAuthority.getAuthority());
+        }
+    }
+
+    /**
+     * @return a lowercase {@code like} pattern matching values that contain the text, escaping its wildcards.
+     */
+    private static String likePattern(String search) {
+        return "%" + search.trim().toLowerCase()
+            .replace("\\", "\\\\")
+            .replace("%", "\\%")
+            .replace("_", "\\_") + "%";
     }
 
     @Transactional(readOnly = true)
-    public Optional<User> getUserWithAuthorities() {
-        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
+    public Optional<UserDTO> getUserWithAuthoritiesByLogin(String login) {
+        return userCache.findSnapshot(login);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<UserDTO> getUserWithAuthorities() {
+        return SecurityUtils.getCurrentUserLogin().flatMap(userCache::findSnapshot);
     }
 
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
-     * This is scheduled to get fired everyday, at 01:00 (am).
+     * Users are deleted by chunks, with their authorities, using bulk statements in one transaction per chunk. The
+     * cache entries of each chunk are evicted together once it is deleted.
+     * <p>
+     * This is scheduled to get fired everyday, at 01:00 (am), on one node of the cluster.
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @ClusterJob("removeNotActivatedUsers")
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-                this.clearUserCaches(user);
+        Instant before = Instant.now().minus(3, ChronoUnit.DAYS);
+        PageRequest chunk = PageRequest.of(0, Math.max(1, applicationProperties.getUsers().getPurgeChunkSize()));
+        long deleted = 0;
+        List<UserRepository.UserKeys> users;
+        do {
+            users = transactionTemplate.execute(status -> {
+                List<UserRepository.UserKeys> keys =
+                    userRepository.findKeysByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(before, chunk);
+                if (!keys.isEmpty()) {
+                    List<Long> ids = keys.stream().map(UserRepository.UserKeys::getId).collect(Collectors.toList());
+                    userRepository.deleteAuthoritiesByUserIdIn(ids);
+                    userRepository.deleteByIdIn(ids);
+                }
+                return keys;
             });
+            userCache.evict(users.stream().map(UserRepository.UserKeys::getLogin).collect(Collectors.toSet()),
+                users.stream().map(UserRepository.UserKeys::getEmail).filter(Objects::nonNull).collect(Collectors.toSet()));
+            deleted += users.size();
+        } while (users.size() == chunk.getPageSize());
+        log.debug("Deleted {} not activated users", deleted);
     }
 
     /**
@@ -294,11 +498,4 @@ public class UserService {
         return authorityRepository.findAll().stream().map(Authority::getName).collect(Collectors.toList());
     }
 
-
-    private void clearUserCaches(User user) {
-        Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
-        if (user.getEmail() != null) {
-            Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
-        }
-    }
 }
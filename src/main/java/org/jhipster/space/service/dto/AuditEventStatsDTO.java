@@ -0,0 +1,50 @@
+package org.jhipster.space.service.dto;
+
+import java.time.Instant;
+
+/**
+ * A DTO representing the number of audit events of a type and principal within an hour.
+ */
+public class AuditEventStatsDTO {
+
+    private final Instant hour;
+
+    private final String principal;
+
+    private final String type;
+
+    private final long count;
+
+    public AuditEventStatsDTO(Instant hour, String principal, String type, long count) {
+        this.hour = hour;
+        this.principal = principal;
+        this.type = type;
+        this.count = count;
+    }
+
+    public Instant getHour() {
+        return hour;
+    }
+
+    public String getPrincipal() {
+        return principal;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return "AuditEventStatsDTO{" +
+            "hour=" + hour +
+            ", principal='" + principal + '\'' +
+            ", type='" + type + '\'' +
+            ", count=" + count +
+            "}";
+    }
+}
@@ -0,0 +1,82 @@
+package org.jhipster.space.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the outcome of a user import: the number of imported and rejected rows, with the first errors.
+ */
+public class UserImportResultDTO {
+
+    /**
+     * Errors beyond this number are only counted.
+     */
+    public static final int MAX_ERRORS = 100;
+
+    private long imported;
+
+    private long rejected;
+
+    private final List<RowError> errors = new ArrayList<>();
+
+    public long getImported() {
+        return imported;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public long getRejected() {
+        return rejected;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public void reject(long line, String login, String message) {
+        rejected++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(new RowError(line, login, message));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return "UserImportResultDTO{" +
+            "imported=" + imported +
+            ", rejected=" + rejected +
+            "}";
+    }
+
+    /**
+     * A rejected row.
+     */
+    public static class RowError {
+
+        private final long line;
+
+        private final String login;
+
+        private final String message;
+
+        public RowError(long line, String login, String message) {
+            this.line = line;
+            this.login = login;
+            this.message = message;
+        }
+
+        public long getLine() {
+            return line;
+        }
+
+        public String getLogin() {
+            return login;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
@@ -2,6 +2,7 @@ package org.jhipster.space.service.mapper;
 
 import org.jhipster.space.domain.Authority;
 import org.jhipster.space.domain.User;
+import org.jhipster.space.repository.UserRepository.UserSummary;
 import org.jhipster.space.service.dto.UserDTO;
 
 import org.springframework.stereotype.Service;
@@ -29,6 +30,23 @@ public class UserMapper {
         return new UserDTO(user);
     }
 
+    public UserDTO userSummaryToUserDTO(UserSummary userSummary) {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setId(userSummary.getId());
+        userDTO.setLogin(userSummary.getLogin());
+        userDTO.setFirstName(userSummary.getFirstName());
+        userDTO.setLastName(userSummary.getLastName());
+        userDTO.setEmail(userSummary.getEmail());
+        userDTO.setImageUrl(userSummary.getImageUrl());
+        userDTO.setActivated(userSummary.isActivated());
+        userDTO.setLangKey(userSummary.getLangKey());
+        userDTO.setCreatedBy(userSummary.getCreatedBy());
+        userDTO.setCreatedDate(userSummary.getCreatedDate());
+        userDTO.setLastModifiedBy(userSummary.getLastModifiedBy());
+        userDTO.setLastModifiedDate(userSummary.getLastModifiedDate());
+        return userDTO;
+    }
+
     public List<User> userDTOsToUsers(List<UserDTO> userDTOs) {
         return userDTOs.stream()
             .filter(Objects::nonNull)
@@ -3,7 +3,8 @@ package org.jhipster.space.web.rest;
 import org.jhipster.space.domain.User;
 import org.jhipster.space.repository.UserRepository;
 import org.jhipster.space.security.SecurityUtils;
-import org.jhipster.space.service.MailService;
+import org.jhipster.space.service.AccountCache;
+import org.jhipster.space.service.UserCache;
 import org.jhipster.space.service.UserService;
 import org.jhipster.space.service.dto.PasswordChangeDTO;
 import org.jhipster.space.service.dto.UserDTO;
@@ -14,7 +15,9 @@ import org.jhipster.space.web.rest.vm.ManagedUserVM;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import javax.servlet.http.HttpServletRequest;
@@ -40,13 +43,17 @@ public class AccountResource {
 
     private final UserService userService;
 
-    private final MailService mailService;
+    private final AccountCache accountCache;
 
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    private final UserCache userCache;
+
+    public AccountResource(UserRepository userRepository, UserService userService, AccountCache accountCache,
+                           UserCache userCache) {
 
         this.userRepository = userRepository;
         this.userService = userService;
-        this.mailService = mailService;
+        this.accountCache = accountCache;
+        this.userCache = userCache;
     }
 
     /**
@@ -63,8 +70,7 @@ public class AccountResource {
         if (!checkPasswordLength(managedUserVM.getPassword())) {
             throw new InvalidPasswordException();
         }
-        User user = userService.registerUser(managedUserVM, managedUserVM.getPassword());
-        mailService.sendActivationEmail(user);
+        userService.registerUser(managedUserVM, managedUserVM.getPassword());
     }
 
     /**
@@ -95,15 +101,22 @@ public class AccountResource {
 
     /**
      * {@code GET  /account} : get the current user.
+     * <p>
+     * The account is served from the {@link AccountCache}, with its version as ETag: requests whose
+     * {@code If-None-Match} header matches get a {@code 304 (Not Modified)} response.
      *
      * @return the current user.
      * @throws RuntimeException {@code 500 (Internal Server Error)} if the user couldn't be returned.
      */
     @GetMapping("/account")
-    public UserDTO getAccount() {
-        return userService.getUserWithAuthorities()
-            .map(UserDTO::new)
+    public ResponseEntity<UserDTO> getAccount() {
+        AccountCache.VersionedAccount account = SecurityUtils.getCurrentUserLogin()
+            .flatMap(accountCache::get)
             .orElseThrow(() -> new AccountResourceException("User could not be found"));
+        return ResponseEntity.ok()
+            .cacheControl(CacheControl.noCache().cachePrivate())
+            .eTag(account.getVersion())
+            .body(account.getUser());
     }
 
     /**
@@ -116,12 +129,11 @@ public class AccountResource {
     @PostMapping("/account")
     public void saveAccount(@Valid @RequestBody UserDTO userDTO) {
         String userLogin = SecurityUtils.getCurrentUserLogin().orElseThrow(() -> new AccountResourceException("Current user login not found"));
-        Optional<User> existingUser = userRepository.findOneByEmailIgnoreCase(userDTO.getEmail());
+        Optional<User> existingUser = userRepository.findOneByNormalizedEmail(userDTO.getEmail());
         if (existingUser.isPresent() && (!existingUser.get().getLogin().equalsIgnoreCase(userLogin))) {
             throw new EmailAlreadyUsedException();
         }
-        Optional<User> user = userRepository.findOneByLogin(userLogin);
-        if (!user.isPresent()) {
+        if (!userCache.findId(userLogin).isPresent()) {
             throw new AccountResourceException("User could not be found");
         }
         userService.updateUser(userDTO.getFirstName(), userDTO.getLastName(), userDTO.getEmail(),
@@ -150,9 +162,7 @@ public class AccountResource {
     @PostMapping(path = "/account/reset-password/init")
     public void requestPasswordReset(@RequestBody String mail) {
         Optional<User> user = userService.requestPasswordReset(mail);
-        if (user.isPresent()) {
-            mailService.sendPasswordResetMail(user.get());
-        } else {
+        if (!user.isPresent()) {
             // Pretend the request has been successful to prevent checking which emails really exist
             // but log that an invalid attempt has been made
             log.warn("Password reset requested for non existing mail");
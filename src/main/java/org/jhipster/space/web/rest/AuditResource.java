@@ -1,21 +1,26 @@
 package org.jhipster.space.web.rest;
 
 import org.jhipster.space.service.AuditEventService;
+import org.jhipster.space.service.AuditEventStatsService;
+import org.jhipster.space.service.dto.AuditEventStatsDTO;
 
 import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.Instant;
 import java.time.LocalDate;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -27,18 +32,26 @@ public class AuditResource {
 
     private final AuditEventService auditEventService;
 
-    public AuditResource(AuditEventService auditEventService) {
+    private final AuditEventStatsService auditEventStatsService;
+
+    public AuditResource(AuditEventService auditEventService, AuditEventStatsService auditEventStatsService) {
         this.auditEventService = auditEventService;
+        this.auditEventStatsService = auditEventStatsService;
     }
 
     /**
      * {@code GET /audits} : get a page of {@link AuditEvent}s.
      *
+     * @param slice whether to skip counting all the events, in which case the response has no {@code X-Total-Count} header.
      * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of {@link AuditEvent}s in body.
      */
     @GetMapping
-    public ResponseEntity<List<AuditEvent>> getAll(Pageable pageable) {
+    public ResponseEntity<List<AuditEvent>> getAll(@RequestParam(value = "slice", defaultValue = "false") boolean slice,
+                                                   Pageable pageable) {
+        if (slice) {
+            return sliceResponse(auditEventService.findSlice(pageable));
+        }
         Page<AuditEvent> page = auditEventService.findAll(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
@@ -49,6 +62,7 @@ public class AuditResource {
      *
      * @param fromDate the start of the time period of {@link AuditEvent} to get.
      * @param toDate the end of the time period of {@link AuditEvent} to get.
+     * @param slice whether to skip counting all the events, in which case the response has no {@code X-Total-Count} header.
      * @param pageable the pagination information.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of {@link AuditEvent} in body.
      */
@@ -56,16 +70,41 @@ public class AuditResource {
     public ResponseEntity<List<AuditEvent>> getByDates(
         @RequestParam(value = "fromDate") LocalDate fromDate,
         @RequestParam(value = "toDate") LocalDate toDate,
+        @RequestParam(value = "slice", defaultValue = "false") boolean slice,
         Pageable pageable) {
 
         Instant from = fromDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
         Instant to = toDate.atStartOfDay(ZoneId.systemDefault()).plusDays(1).toInstant();
 
+        if (slice) {
+            return sliceResponse(auditEventService.findSliceByDates(from, to, pageable));
+        }
+
         Page<AuditEvent> page = auditEventService.findByDates(from, to, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
 
+    /**
+     * {@code GET  /audits/stats} : get the hourly counts of {@link AuditEvent}s between the {@code fromDate} and {@code toDate}.
+     *
+     * @param fromDate the start of the time period of the counts to get.
+     * @param toDate the end of the time period of the counts to get.
+     * @param principal the principal to get the counts of, or all principals if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of counts in body.
+     */
+    @GetMapping("/stats")
+    public ResponseEntity<List<AuditEventStatsDTO>> getStats(
+        @RequestParam(value = "fromDate") LocalDate fromDate,
+        @RequestParam(value = "toDate") LocalDate toDate,
+        @RequestParam(value = "principal", required = false) String principal) {
+
+        Instant from = fromDate.atStartOfDay(ZoneId.systemDefault()).toInstant();
+        Instant to = toDate.atStartOfDay(ZoneId.systemDefault()).plusDays(1).toInstant();
+
+        return ResponseEntity.ok(auditEventStatsService.findStats(from, to, principal));
+    }
+
     /**
      * {@code GET  /audits/:id} : get an {@link AuditEvent} by id.
      *
@@ -76,4 +115,29 @@ public class AuditResource {
     public ResponseEntity<AuditEvent> get(@PathVariable Long id) {
         return ResponseUtil.wrapOrNotFound(auditEventService.find(id));
     }
+
+    /**
+     * Build a response with {@code next} and {@code prev} links only, as the number of pages is not known.
+     */
+    private static ResponseEntity<List<AuditEvent>> sliceResponse(Slice<AuditEvent> slice) {
+        UriComponentsBuilder uriBuilder = ServletUriComponentsBuilder.fromCurrentRequest();
+        List<String> links = new ArrayList<>();
+        if (slice.hasNext()) {
+            links.add(sliceLink(uriBuilder, slice.getNumber() + 1, slice.getSize(), "next"));
+        }
+        if (slice.hasPrevious()) {
+            links.add(sliceLink(uriBuilder, slice.getNumber() - 1, slice.getSize(), "prev"));
+        }
+        HttpHeaders headers = new HttpHeaders();
+        if (!links.isEmpty()) {
+            headers.add(HttpHeaders.LINK, String.join(",", links));
+        }
+        return new ResponseEntity<>(slice.getContent(), headers, HttpStatus.OK);
+    }
+
+    private static String sliceLink(UriComponentsBuilder uriBuilder, int page, int size, String relType) {
+        String uri = uriBuilder.replaceQueryParam("page", page).replaceQueryParam("size", size).toUriString()
+            .replace(",", "%2C").replace(";", "%3B");
+        return "<" + uri + ">; rel=\"" + relType + "\"";
+    }
 }
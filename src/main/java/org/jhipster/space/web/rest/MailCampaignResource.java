@@ -0,0 +1,111 @@
+package org.jhipster.space.web.rest;
+
+import org.jhipster.space.domain.MailCampaign;
+import org.jhipster.space.repository.MailCampaignRepository;
+import org.jhipster.space.security.AuthoritiesConstants;
+import org.jhipster.space.service.MailCampaignService;
+import org.jhipster.space.web.rest.errors.BadRequestAlertException;
+
+import io.github.jhipster.web.util.HeaderUtil;
+import io.github.jhipster.web.util.PaginationUtil;
+import io.github.jhipster.web.util.ResponseUtil;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import javax.validation.Valid;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * REST controller for managing {@link org.jhipster.space.domain.MailCampaign}.
+ */
+@RestController
+@RequestMapping("/api")
+@PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+public class MailCampaignResource {
+
+    private final Logger log = LoggerFactory.getLogger(MailCampaignResource.class);
+
+    private static final String ENTITY_NAME = "mailCampaign";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final MailCampaignService mailCampaignService;
+
+    private final MailCampaignRepository mailCampaignRepository;
+
+    public MailCampaignResource(MailCampaignService mailCampaignService, MailCampaignRepository mailCampaignRepository) {
+        this.mailCampaignService = mailCampaignService;
+        this.mailCampaignRepository = mailCampaignRepository;
+    }
+
+    /**
+     * {@code POST  /mail-campaigns} : Create a new mail campaign, emailing all the activated users.
+     *
+     * @param mailCampaign the mail campaign to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new mail campaign, or with status {@code 400 (Bad Request)} if the mail campaign has already an ID.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/mail-campaigns")
+    public ResponseEntity<MailCampaign> createMailCampaign(@Valid @RequestBody MailCampaign mailCampaign) throws URISyntaxException {
+        log.debug("REST request to save MailCampaign : {}", mailCampaign);
+        if (mailCampaign.getId() != null) {
+            throw new BadRequestAlertException("A new mailCampaign cannot already have an ID", ENTITY_NAME, "idexists");
+        }
+        MailCampaign result = mailCampaignService.createCampaign(mailCampaign.getTemplateName(), mailCampaign.getTitleKey());
+        return ResponseEntity.created(new URI("/api/mail-campaigns/" + result.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
+            .body(result);
+    }
+
+    /**
+     * {@code GET  /mail-campaigns} : get all the mail campaigns.
+     *
+     * @param pageable the pagination information.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of mail campaigns in body.
+     */
+    @GetMapping("/mail-campaigns")
+    public ResponseEntity<List<MailCampaign>> getAllMailCampaigns(Pageable pageable) {
+        log.debug("REST request to get a page of MailCampaigns");
+        Page<MailCampaign> page = mailCampaignRepository.findAll(pageable);
+        HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
+        return ResponseEntity.ok().headers(headers).body(page.getContent());
+    }
+
+    /**
+     * {@code GET  /mail-campaigns/:id} : get the "id" mail campaign, with its progress.
+     *
+     * @param id the id of the mail campaign to retrieve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the mail campaign, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/mail-campaigns/{id}")
+    public ResponseEntity<MailCampaign> getMailCampaign(@PathVariable Long id) {
+        log.debug("REST request to get MailCampaign : {}", id);
+        Optional<MailCampaign> mailCampaign = mailCampaignRepository.findById(id);
+        return ResponseUtil.wrapOrNotFound(mailCampaign);
+    }
+
+    /**
+     * {@code POST  /mail-campaigns/:id/cancel} : cancel the "id" mail campaign, if it is still running.
+     *
+     * @param id the id of the mail campaign to cancel.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the mail campaign, or with status {@code 404 (Not Found)}.
+     */
+    @PostMapping("/mail-campaigns/{id}/cancel")
+    public ResponseEntity<MailCampaign> cancelMailCampaign(@PathVariable Long id) {
+        log.debug("REST request to cancel MailCampaign : {}", id);
+        return ResponseUtil.wrapOrNotFound(mailCampaignService.cancelCampaign(id),
+            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString()));
+    }
+}
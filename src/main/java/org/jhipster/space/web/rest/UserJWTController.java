@@ -2,6 +2,8 @@ package org.jhipster.space.web.rest;
 
 import org.jhipster.space.security.jwt.JWTFilter;
 import org.jhipster.space.security.jwt.TokenProvider;
+import org.jhipster.space.security.ratelimit.LoginAttemptLimiter;
+import org.jhipster.space.web.rest.errors.TooManyRequestsException;
 import org.jhipster.space.web.rest.vm.LoginVM;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
@@ -15,7 +17,9 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
+import java.time.Duration;
 
 /**
  * Controller to authenticate users.
@@ -28,13 +32,21 @@ public class UserJWTController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final LoginAttemptLimiter loginAttemptLimiter;
+
+    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder,
+                             LoginAttemptLimiter loginAttemptLimiter) {
         this.tokenProvider = tokenProvider;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.loginAttemptLimiter = loginAttemptLimiter;
     }
 
     @PostMapping("/authenticate")
-    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM) {
+    public ResponseEntity<JWTToken> authorize(@Valid @RequestBody LoginVM loginVM, HttpServletRequest request) {
+        long retryAfterNanos = loginAttemptLimiter.tryAcquire(loginVM.getUsername(), request.getRemoteAddr());
+        if (retryAfterNanos > 0) {
+            throw new TooManyRequestsException("Too many authentication attempts", Duration.ofNanos(retryAfterNanos));
+        }
 
         UsernamePasswordAuthenticationToken authenticationToken =
             new UsernamePasswordAuthenticationToken(loginVM.getUsername(), loginVM.getPassword());
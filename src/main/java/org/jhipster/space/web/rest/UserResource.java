@@ -1,22 +1,27 @@
 package org.jhipster.space.web.rest;
 
+import org.jhipster.space.config.ApplicationProperties;
 import org.jhipster.space.config.Constants;
 import org.jhipster.space.domain.User;
 import org.jhipster.space.repository.UserRepository;
 import org.jhipster.space.security.AuthoritiesConstants;
-import org.jhipster.space.service.MailService;
 import org.springframework.data.domain.Sort;
 import java.util.Collections;
+import org.jhipster.space.service.UserCache;
+import org.jhipster.space.service.UserImportService;
 import org.jhipster.space.service.UserService;
 import org.jhipster.space.service.dto.UserDTO;
+import org.jhipster.space.service.dto.UserImportResultDTO;
 import org.jhipster.space.web.rest.errors.BadRequestAlertException;
 import org.jhipster.space.web.rest.errors.EmailAlreadyUsedException;
 import org.jhipster.space.web.rest.errors.LoginAlreadyUsedException;
+import org.jhipster.space.web.rest.vm.UserAuthoritiesVM;
 
 import io.github.jhipster.web.util.HeaderUtil;
 import io.github.jhipster.web.util.PaginationUtil;
 import io.github.jhipster.web.util.ResponseUtil;
 
+import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
@@ -26,13 +31,21 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import javax.validation.Valid;
+import javax.validation.constraints.NotBlank;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.stream.Collectors;
 
 /**
  * REST controller for managing users.
@@ -60,6 +73,7 @@ import java.util.*;
  */
 @RestController
 @RequestMapping("/api")
+@Validated
 public class UserResource {
     private static final List<String> ALLOWED_ORDERED_PROPERTIES = Collections.unmodifiableList(Arrays.asList("id", "login", "firstName", "lastName", "email", "activated", "langKey"));
 
@@ -70,14 +84,21 @@ public class UserResource {
 
     private final UserService userService;
 
+    private final UserImportService userImportService;
+
     private final UserRepository userRepository;
 
-    private final MailService mailService;
+    private final UserCache userCache;
+
+    private final ApplicationProperties applicationProperties;
 
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    public UserResource(UserService userService, UserImportService userImportService, UserRepository userRepository,
+                        UserCache userCache, ApplicationProperties applicationProperties) {
         this.userService = userService;
+        this.userImportService = userImportService;
         this.userRepository = userRepository;
-        this.mailService = mailService;
+        this.userCache = userCache;
+        this.applicationProperties = applicationProperties;
     }
 
     /**
@@ -100,19 +121,49 @@ public class UserResource {
         if (userDTO.getId() != null) {
             throw new BadRequestAlertException("A new user cannot already have an ID", "userManagement", "idexists");
             // Lowercase the user login before comparing with database
-        } else if (userRepository.findOneByLogin(userDTO.getLogin().toLowerCase()).isPresent()) {
+        } else if (userCache.findId(userDTO.getLogin().toLowerCase()).isPresent()) {
             throw new LoginAlreadyUsedException();
-        } else if (userRepository.findOneByEmailIgnoreCase(userDTO.getEmail()).isPresent()) {
+        } else if (userRepository.findOneByNormalizedEmail(userDTO.getEmail()).isPresent()) {
             throw new EmailAlreadyUsedException();
         } else {
             User newUser = userService.createUser(userDTO);
-            mailService.sendCreationEmail(newUser);
             return ResponseEntity.created(new URI("/api/users/" + newUser.getLogin()))
                 .headers(HeaderUtil.createAlert(applicationName,  "userManagement.created", newUser.getLogin()))
                 .body(newUser);
         }
     }
 
+    /**
+     * {@code POST  /users/batch}  : Creates new users.
+     * <p>
+     * Creates the users if none of their logins and emails are already used, and sends each of them a mail with a
+     * password reset link. The users are activated on creation.
+     *
+     * @param userDTOs the users to create.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new users, or with status {@code 400 (Bad Request)} if a login or email is already in use.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if a user already has an ID, or there are too many users.
+     */
+    @PostMapping("/users/batch")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<UserDTO>> createUsers(@RequestBody List<@Valid UserDTO> userDTOs) {
+        log.debug("REST request to save {} Users", userDTOs.size());
+        checkBatchSize(userDTOs.size());
+        if (userDTOs.stream().anyMatch(userDTO -> userDTO.getId() != null)) {
+            throw new BadRequestAlertException("A new user cannot already have an ID", "userManagement", "idexists");
+        }
+        List<String> logins = userDTOs.stream().map(userDTO -> userDTO.getLogin().toLowerCase()).collect(Collectors.toList());
+        if (new HashSet<>(logins).size() < logins.size() || !userRepository.findLoginsByLoginIn(logins).isEmpty()) {
+            throw new LoginAlreadyUsedException();
+        }
+        List<String> emails = userDTOs.stream().map(UserDTO::getEmail).filter(Objects::nonNull)
+            .map(User::normalizeEmail).collect(Collectors.toList());
+        if (new HashSet<>(emails).size() < emails.size() || (!emails.isEmpty() && !userRepository.findEmailsByEmailIn(emails).isEmpty())) {
+            throw new EmailAlreadyUsedException();
+        }
+        List<UserDTO> newUsers = userService.createUsers(userDTOs).stream().map(UserDTO::new).collect(Collectors.toList());
+        return ResponseEntity.status(HttpStatus.CREATED).body(newUsers);
+    }
+
     /**
      * {@code PUT /users} : Updates an existing User.
      *
@@ -125,12 +176,12 @@ public class UserResource {
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
     public ResponseEntity<UserDTO> updateUser(@Valid @RequestBody UserDTO userDTO) {
         log.debug("REST request to update User : {}", userDTO);
-        Optional<User> existingUser = userRepository.findOneByEmailIgnoreCase(userDTO.getEmail());
+        Optional<User> existingUser = userRepository.findOneByNormalizedEmail(userDTO.getEmail());
         if (existingUser.isPresent() && (!existingUser.get().getId().equals(userDTO.getId()))) {
             throw new EmailAlreadyUsedException();
         }
-        existingUser = userRepository.findOneByLogin(userDTO.getLogin().toLowerCase());
-        if (existingUser.isPresent() && (!existingUser.get().getId().equals(userDTO.getId()))) {
+        Optional<Long> existingId = userCache.findId(userDTO.getLogin().toLowerCase());
+        if (existingId.isPresent() && (!existingId.get().equals(userDTO.getId()))) {
             throw new LoginAlreadyUsedException();
         }
         Optional<UserDTO> updatedUser = userService.updateUser(userDTO);
@@ -140,18 +191,81 @@ public class UserResource {
     }
 
     /**
-     * {@code GET /users} : get all users.
+     * {@code PUT /users/batch/authorities} : Replaces the authorities of existing users.
+     *
+     * @param userAuthorities the new authorities of each user.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated users; unknown logins are ignored.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if there are too many users.
+     */
+    @PutMapping("/users/batch/authorities")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<UserDTO>> updateAuthorities(@RequestBody List<@Valid UserAuthoritiesVM> userAuthorities) {
+        log.debug("REST request to update the authorities of {} Users", userAuthorities.size());
+        checkBatchSize(userAuthorities.size());
+        Map<String, Set<String>> authoritiesByLogin = new HashMap<>();
+        userAuthorities.forEach(vm -> authoritiesByLogin.put(vm.getLogin(), vm.getAuthorities()));
+        return ResponseEntity.ok(userService.updateAuthorities(authoritiesByLogin));
+    }
+
+    /**
+     * {@code POST /users/batch/deactivate} : Deactivates existing users.
+     *
+     * @param logins the logins of the users to deactivate.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the deactivated users; unknown logins are ignored.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if there are too many users.
+     */
+    @PostMapping("/users/batch/deactivate")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<UserDTO>> deactivateUsers(@RequestBody List<@NotBlank String> logins) {
+        log.debug("REST request to deactivate Users : {}", logins);
+        checkBatchSize(logins.size());
+        return ResponseEntity.ok(userService.deactivateUsers(logins));
+    }
+
+    /**
+     * {@code POST /users/import} : Imports users from a CSV file, in the format of {@code config/liquibase/data/user.csv}.
+     * <p>
+     * Users imported without a password hash are sent a creation email, at the import mail rate.
+     *
+     * @param content the CSV content, encoded in UTF-8.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the numbers of imported and rejected rows.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the header line has no login column.
+     * @throws IOException if the content cannot be read.
+     */
+    @PostMapping(value = "/users/import", consumes = "text/csv")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<UserImportResultDTO> importUsers(InputStream content) throws IOException {
+        log.debug("REST request to import Users");
+        try (Reader reader = new InputStreamReader(content, StandardCharsets.UTF_8)) {
+            return ResponseEntity.ok(userImportService.importUsers(reader));
+        } catch (IllegalArgumentException e) {
+            throw new BadRequestAlertException(e.getMessage(), "userManagement", "importinvalid");
+        }
+    }
+
+    private void checkBatchSize(int size) {
+        if (size > applicationProperties.getUsers().getBatchMaxSize()) {
+            throw new BadRequestAlertException("A batch cannot have more than " + applicationProperties.getUsers().getBatchMaxSize() +
+                " users", "userManagement", "batchtoolarge");
+        }
+    }
+
+    /**
+     * {@code GET /users} : get all users, or the users whose login, email, first or last name contains a text.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
+     * @param search the text to search for, ignoring case, if any.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users, with their authorities.
      */
     @GetMapping("/users")
-    public ResponseEntity<List<UserDTO>> getAllUsers(Pageable pageable) {
+    public ResponseEntity<List<UserDTO>> getAllUsers(Pageable pageable, @RequestParam(required = false) String search) {
         if (!onlyContainsAllowedProperties(pageable)) {
             return ResponseEntity.badRequest().build();
         }
 
-        final Page<UserDTO> page = userService.getAllManagedUsers(pageable);
+        final Page<UserDTO> page = StringUtils.isBlank(search)
+            ? userService.getAllManagedUsers(pageable)
+            : userService.searchManagedUsers(search, pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
         return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
     }
@@ -180,8 +294,7 @@ public class UserResource {
     public ResponseEntity<UserDTO> getUser(@PathVariable String login) {
         log.debug("REST request to get User : {}", login);
         return ResponseUtil.wrapOrNotFound(
-            userService.getUserWithAuthoritiesByLogin(login)
-                .map(UserDTO::new));
+            userService.getUserWithAuthoritiesByLogin(login));
     }
 
     /**
@@ -0,0 +1,25 @@
+package org.jhipster.space.web.rest.errors;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+import java.time.Duration;
+import java.util.Collections;
+
+public class TooManyRequestsException extends AbstractThrowableProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    private final long retryAfterSeconds;
+
+    public TooManyRequestsException(String defaultMessage, Duration retryAfter) {
+        super(ErrorConstants.TOO_MANY_REQUESTS_TYPE, defaultMessage, Status.TOO_MANY_REQUESTS, null, null, null,
+            Collections.singletonMap("message", ErrorConstants.ERR_TOO_MANY_REQUESTS));
+        long seconds = retryAfter.getSeconds();
+        this.retryAfterSeconds = Math.max(1, retryAfter.getNano() > 0 ? seconds + 1 : seconds);
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+}
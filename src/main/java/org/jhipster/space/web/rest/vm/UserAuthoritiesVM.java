@@ -0,0 +1,47 @@
+package org.jhipster.space.web.rest.vm;
+
+import org.jhipster.space.config.Constants;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+import java.util.Set;
+
+/**
+ * View Model object for replacing the authorities of a user.
+ */
+public class UserAuthoritiesVM {
+
+    @NotBlank
+    @Pattern(regexp = Constants.LOGIN_REGEX)
+    @Size(min = 1, max = 50)
+    private String login;
+
+    @NotNull
+    private Set<String> authorities;
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public Set<String> getAuthorities() {
+        return authorities;
+    }
+
+    public void setAuthorities(Set<String> authorities) {
+        this.authorities = authorities;
+    }
+
+    @Override
+    public String toString() {
+        return "UserAuthoritiesVM{" +
+            "login='" + login + '\'' +
+            ", authorities=" + authorities +
+            '}';
+    }
+}
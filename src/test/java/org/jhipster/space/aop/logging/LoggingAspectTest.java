@@ -0,0 +1,33 @@
+package org.jhipster.space.aop.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the argument formatting of the {@link LoggingAspect}.
+ */
+public class LoggingAspectTest {
+
+    @Test
+    public void testFormatsArraysCollectionsAndMapsWithTheirSize() {
+        assertThat(LoggingAspect.format(new byte[1024])).isEqualTo("byte[1024]");
+        assertThat(LoggingAspect.format(new ArrayList<>(Arrays.asList("a", "b")))).isEqualTo("ArrayList(size=2)");
+        assertThat(LoggingAspect.format(Collections.singletonMap("a", "b"))).isEqualTo("SingletonMap(size=1)");
+    }
+
+    @Test
+    public void testTruncatesLongValues() {
+        String text = String.join("", Collections.nCopies(LoggingAspect.MAX_VALUE_LENGTH + 10, "x"));
+
+        assertThat(LoggingAspect.format(text))
+            .startsWith(text.substring(0, LoggingAspect.MAX_VALUE_LENGTH))
+            .endsWith("...(" + text.length() + " chars)");
+        assertThat(LoggingAspect.format(42)).isEqualTo("42");
+        assertThat(LoggingAspect.formatArguments(new Object[] { "login", null, new int[3] })).isEqualTo("[login, null, int[3]]");
+    }
+}
@@ -0,0 +1,41 @@
+package org.jhipster.space.aop.timing;
+
+import org.jhipster.space.SpaceApp;
+import org.jhipster.space.service.UserService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link MethodTimingAspect}.
+ */
+@SpringBootTest(classes = SpaceApp.class, properties = {
+    "application.method-timing.enabled=true",
+    "application.method-timing.sample-rate=1"
+})
+public class MethodTimingAspectIT {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void assertThatSampledExecutionsAreTimed() {
+        userService.getAuthorities();
+        userService.getAuthorities();
+
+        Timer timer = meterRegistry.get(MethodTimingAspect.METRIC_NAME)
+            .tag("class", "UserService")
+            .tag("method", "getAuthorities")
+            .tag("outcome", "success")
+            .timer();
+        assertThat(timer.count()).isGreaterThanOrEqualTo(2);
+    }
+}
@@ -0,0 +1,131 @@
+package org.jhipster.space.config.async;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Test class for the {@link BulkheadExecutor}.
+ */
+public class BulkheadExecutorTest {
+
+    private ExecutorService sharedExecutor;
+
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    public void setup() {
+        sharedExecutor = Executors.newCachedThreadPool();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        sharedExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testRunsAtMostMaxConcurrentTasks() throws Exception {
+        BulkheadExecutor bulkhead = new BulkheadExecutor("test", 2, 10, sharedExecutor, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(6);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        for (int i = 0; i < 6; i++) {
+            bulkhead.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+
+        assertThat(bulkhead.getActiveCount()).isEqualTo(2);
+        assertThat(bulkhead.getQueueSize()).isEqualTo(4);
+        assertThat(meterRegistry.get("executor.queued").tag("name", "test").gauge().value()).isEqualTo(4);
+
+        release.countDown();
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(maxRunning).hasValue(2);
+        awaitIdle(bulkhead);
+        // Recorded after each task returns
+        assertThat(meterRegistry.get("executor.execution").tag("name", "test").timer().count()).isEqualTo(6);
+    }
+
+    @Test
+    public void testRejectsTasksWhenQueueIsFull() throws Exception {
+        BulkheadExecutor bulkhead = new BulkheadExecutor("test", 1, 1, sharedExecutor, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        Runnable blocked = () -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        };
+        bulkhead.execute(blocked);
+        bulkhead.execute(blocked);
+
+        assertThatThrownBy(() -> bulkhead.execute(blocked)).isInstanceOf(TaskRejectedException.class);
+        assertThat(meterRegistry.get("executor.rejected").tag("name", "test").counter().count()).isEqualTo(1);
+
+        release.countDown();
+        awaitIdle(bulkhead);
+    }
+
+    @Test
+    public void testQueuedTasksRunAfterFailingTask() throws Exception {
+        BulkheadExecutor bulkhead = new BulkheadExecutor("test", 1, 10, sharedExecutor, meterRegistry);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(2);
+        bulkhead.execute(() -> {
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            throw new IllegalStateException("Task failed");
+        });
+        bulkhead.execute(done::countDown);
+        bulkhead.execute(done::countDown);
+
+        release.countDown();
+        assertThat(done.await(10, TimeUnit.SECONDS)).isTrue();
+        awaitIdle(bulkhead);
+    }
+
+    @Test
+    public void testReleasesSlotWhenSharedExecutorRejects() {
+        sharedExecutor.shutdown();
+        BulkheadExecutor bulkhead = new BulkheadExecutor("test", 1, 10, sharedExecutor, meterRegistry);
+
+        assertThatThrownBy(() -> bulkhead.execute(() -> { })).isInstanceOf(TaskRejectedException.class);
+        assertThat(bulkhead.getActiveCount()).isZero();
+    }
+
+    private static void awaitIdle(BulkheadExecutor bulkhead) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (bulkhead.getActiveCount() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(bulkhead.getActiveCount()).isZero();
+        assertThat(bulkhead.getQueueSize()).isZero();
+    }
+}
@@ -0,0 +1,33 @@
+package org.jhipster.space.config.async;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link VirtualThreads} utility class.
+ */
+public class VirtualThreadsTest {
+
+    @Test
+    public void testExecutorIsOnlyAvailableFromJava21() throws Exception {
+        Executor executor = VirtualThreads.executor("test-");
+        if (VirtualThreads.javaVersion() < 21) {
+            assertThat(executor).isNull();
+            return;
+        }
+        assertThat(executor).isNotNull();
+        CompletableFuture<String> threadName = CompletableFuture.supplyAsync(() -> Thread.currentThread().getName(), executor);
+        assertThat(threadName.get(10, TimeUnit.SECONDS)).startsWith("test-");
+    }
+
+    @Test
+    public void testPinnedBySynchronizedBeforeJava24() {
+        assertThat(VirtualThreads.pinnedBySynchronized()).isEqualTo(VirtualThreads.javaVersion() < 24);
+        assertThat(VirtualThreads.javaVersion()).isGreaterThanOrEqualTo(8);
+    }
+}
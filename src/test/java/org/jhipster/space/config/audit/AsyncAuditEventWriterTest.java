@@ -0,0 +1,77 @@
+package org.jhipster.space.config.audit;
+
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.domain.PersistentAuditEvent;
+import org.jhipster.space.repository.PersistenceAuditEventRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Test class for the {@link AsyncAuditEventWriter}.
+ */
+public class AsyncAuditEventWriterTest {
+
+    private PersistenceAuditEventRepository repository;
+
+    private MeterRegistry meterRegistry;
+
+    private AsyncAuditEventWriter writer;
+
+    @BeforeEach
+    public void setup() {
+        repository = mock(PersistenceAuditEventRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getAuditEvents().setBatchMaxAttempts(2);
+        writer = new AsyncAuditEventWriter(repository, mock(PlatformTransactionManager.class), applicationProperties,
+            meterRegistry);
+    }
+
+    @Test
+    public void testFailedBatchIsSavedByTheNextFlush() {
+        when(repository.saveAll(anyList()))
+            .thenThrow(new QueryTimeoutException("Lock timeout"))
+            .thenReturn(Collections.emptyList());
+        PersistentAuditEvent event = newEvent();
+        writer.write(event);
+
+        assertThatThrownBy(writer::flush).isInstanceOf(QueryTimeoutException.class);
+        writer.flush();
+
+        verify(repository, times(2)).saveAll(Collections.singletonList(event));
+        assertThat(meterRegistry.get("audit.events.written").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("audit.events.dropped").counter().count()).isZero();
+    }
+
+    @Test
+    public void testBatchIsDroppedAfterMaxAttempts() {
+        when(repository.saveAll(anyList())).thenThrow(new QueryTimeoutException("Lock timeout"));
+        writer.write(newEvent());
+
+        assertThatThrownBy(writer::flush).isInstanceOf(QueryTimeoutException.class);
+        assertThatThrownBy(writer::flush).isInstanceOf(QueryTimeoutException.class);
+        writer.flush();
+
+        verify(repository, times(2)).saveAll(anyList());
+        assertThat(meterRegistry.get("audit.events.dropped").counter().count()).isEqualTo(1);
+    }
+
+    private static PersistentAuditEvent newEvent() {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setPrincipal("user");
+        event.setAuditEventType("AUTHENTICATION_SUCCESS");
+        return event;
+    }
+}
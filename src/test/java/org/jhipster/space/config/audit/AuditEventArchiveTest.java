@@ -0,0 +1,134 @@
+package org.jhipster.space.config.audit;
+
+import org.jhipster.space.domain.PersistentAuditEvent;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Test class for the {@link AuditEventArchive} and its {@link AuditEventSegment} format.
+ */
+public class AuditEventArchiveTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T00:00:00.123456Z");
+
+    @TempDir
+    public Path directory;
+
+    @Test
+    public void testSegmentRoundTrip() throws Exception {
+        List<PersistentAuditEvent> events = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Map<String, String> data = new HashMap<>();
+            data.put("remoteAddress", "10.0.0." + (i % 4));
+            data.put("message", i % 3 == 0 ? null : "Bad credentials");
+            events.add(event(1000L + i * 50, START.plusSeconds(1000 - i), "user-" + (i % 10),
+                i % 2 == 0 ? "AUTHENTICATION_SUCCESS" : "AUTHENTICATION_FAILURE", data));
+        }
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        AuditEventSegment.write(events, out);
+        ByteBuffer segment = ByteBuffer.wrap(out.toByteArray());
+        List<PersistentAuditEvent> read = AuditEventSegment.read(segment, Instant.MIN.plusSeconds(1), START.plusSeconds(2000));
+
+        assertThat(out.size()).isLessThan(1000 * 20);
+        assertThat(read).hasSize(1000);
+        assertThat(read.get(0).getAuditEventDate()).isEqualTo(START.plusSeconds(1));
+        assertThat(read.get(999).getAuditEventDate()).isEqualTo(START.plusSeconds(1000));
+        PersistentAuditEvent original = events.get(3);
+        PersistentAuditEvent decoded = read.stream().filter(event -> event.getId().equals(original.getId())).findFirst().get();
+        assertThat(decoded.getPrincipal()).isEqualTo(original.getPrincipal());
+        assertThat(decoded.getAuditEventType()).isEqualTo(original.getAuditEventType());
+        assertThat(decoded.getAuditEventDate()).isEqualTo(original.getAuditEventDate());
+        assertThat(decoded.getData()).isEqualTo(original.getData());
+    }
+
+    @Test
+    public void testFindWithinRangeAcrossSegments() {
+        AuditEventArchive archive = new AuditEventArchive(true, directory);
+        archive.append(Arrays.asList(
+            event(1L, START, "alice", "AUTHENTICATION_SUCCESS", Collections.emptyMap()),
+            event(2L, START.plusSeconds(10), "bob", "AUTHENTICATION_SUCCESS", Collections.emptyMap())));
+        archive.append(Arrays.asList(
+            event(3L, START.plusSeconds(20), "alice", "AUTHENTICATION_FAILURE", Collections.emptyMap()),
+            event(4L, START.plusSeconds(30), "bob", "AUTHENTICATION_SUCCESS", Collections.emptyMap())));
+        // Archived again, as if deleting the first chunk had failed
+        archive.append(Collections.singletonList(
+            event(2L, START.plusSeconds(10), "bob", "AUTHENTICATION_SUCCESS", Collections.emptyMap())));
+
+        assertThat(ids(archive.find(START, START.plusSeconds(30)))).containsExactly(1L, 2L, 3L, 4L);
+        assertThat(ids(archive.find(START.plusSeconds(10), START.plusSeconds(20)))).containsExactly(2L, 3L);
+        assertThat(archive.find(START.plusSeconds(31), START.plusSeconds(60))).isEmpty();
+    }
+
+    @Test
+    public void testFindPagesAcrossOverlappingSegments() {
+        AuditEventArchive archive = new AuditEventArchive(true, directory);
+        archive.append(Arrays.asList(
+            event(1L, START, "alice", "AUTHENTICATION_SUCCESS", Collections.emptyMap()),
+            event(2L, START.plusSeconds(10), "bob", "AUTHENTICATION_SUCCESS", Collections.emptyMap()),
+            event(3L, START.plusSeconds(20), "alice", "AUTHENTICATION_FAILURE", Collections.emptyMap()),
+            event(4L, START.plusSeconds(30), "bob", "AUTHENTICATION_SUCCESS", Collections.emptyMap())));
+        archive.append(Arrays.asList(
+            event(5L, START.plusSeconds(40), "alice", "AUTHENTICATION_SUCCESS", Collections.emptyMap()),
+            event(6L, START.plusSeconds(50), "bob", "AUTHENTICATION_SUCCESS", Collections.emptyMap()),
+            event(7L, START.plusSeconds(60), "alice", "AUTHENTICATION_SUCCESS", Collections.emptyMap()),
+            event(8L, START.plusSeconds(70), "bob", "AUTHENTICATION_SUCCESS", Collections.emptyMap())));
+        archive.append(Collections.singletonList(
+            event(9L, START.plusSeconds(45), "carol", "AUTHENTICATION_FAILURE", Collections.emptyMap())));
+        Instant end = START.plusSeconds(100);
+
+        assertThat(ids(archive.find(START, end, false, 2, 3))).containsExactly(3L, 4L, 5L);
+        // The first segment is counted from its header
+        assertThat(ids(archive.find(START, end, false, 4, 2))).containsExactly(5L, 9L);
+        assertThat(ids(archive.find(START, end, true, 0, 3))).containsExactly(8L, 7L, 6L);
+        assertThat(ids(archive.find(START, end, true, 3, 10))).containsExactly(9L, 5L, 4L, 3L, 2L, 1L);
+        assertThat(archive.count(START, end)).isEqualTo(9);
+        assertThat(archive.count(START.plusSeconds(15), START.plusSeconds(45))).isEqualTo(4);
+    }
+
+    @Test
+    public void testDisabledArchive() {
+        AuditEventArchive archive = new AuditEventArchive(false, directory.resolve("disabled"));
+
+        assertThat(archive.isEnabled()).isFalse();
+        assertThat(archive.find(START, START.plusSeconds(30))).isEmpty();
+        assertThat(Files.exists(directory.resolve("disabled"))).isFalse();
+    }
+
+    @Test
+    public void testRejectInvalidSegment() {
+        assertThatIllegalArgumentException().isThrownBy(() -> AuditEventSegment.readHeader(ByteBuffer.allocate(8)));
+        assertThatIllegalArgumentException().isThrownBy(() -> AuditEventSegment.readHeader(ByteBuffer.allocate(64)));
+    }
+
+    private static PersistentAuditEvent event(Long id, Instant date, String principal, String type, Map<String, String> data) {
+        PersistentAuditEvent event = new PersistentAuditEvent();
+        event.setId(id);
+        event.setAuditEventDate(date);
+        event.setPrincipal(principal);
+        event.setAuditEventType(type);
+        event.setData(new HashMap<>(data));
+        return event;
+    }
+
+    private static List<Long> ids(List<PersistentAuditEvent> events) {
+        return events.stream().map(PersistentAuditEvent::getId).collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,128 @@
+package org.jhipster.space.config.audit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+/**
+ * Test class for the {@link AuditEventCounters}.
+ */
+public class AuditEventCountersTest {
+
+    private static final String SUCCESS = "AUTHENTICATION_SUCCESS";
+
+    private static final String FAILURE = "AUTHENTICATION_FAILURE";
+
+    private static final Instant HOUR = Instant.parse("2026-10-19T10:00:00Z");
+
+    private MutableClock clock;
+
+    private AuditEventCounters counters;
+
+    @BeforeEach
+    public void setup() {
+        clock = new MutableClock(HOUR);
+        counters = new AuditEventCounters(Arrays.asList(SUCCESS, FAILURE), 2, clock);
+    }
+
+    @Test
+    public void testCountPerHourPrincipalAndType() {
+        counters.record("alice", SUCCESS, HOUR.plusSeconds(10));
+        counters.record("alice", SUCCESS, HOUR.plusSeconds(1800));
+        counters.record("alice", FAILURE, HOUR.plusSeconds(20));
+        counters.record("bob", SUCCESS, HOUR.plusSeconds(3600));
+        counters.record("bob", "OTHER_TYPE", HOUR.plusSeconds(30));
+
+        assertThat(counters.snapshot()).containsOnly(
+            entry(key(HOUR, "alice", SUCCESS), 2L),
+            entry(key(HOUR, "alice", FAILURE), 1L),
+            entry(key(HOUR.plusSeconds(3600), "bob", SUCCESS), 1L));
+    }
+
+    @Test
+    public void testDrainOnlyMinutesThatAreOver() {
+        counters.record("alice", SUCCESS, HOUR.plusSeconds(10));
+        counters.record("alice", SUCCESS, HOUR.plusSeconds(70));
+        counters.record("alice", SUCCESS, HOUR.plusSeconds(130));
+        clock.instant = HOUR.plusSeconds(150);
+
+        assertThat(counters.drain()).containsOnly(entry(key(HOUR, "alice", SUCCESS), 1L));
+        assertThat(counters.drain()).isEmpty();
+        assertThat(counters.snapshot()).containsOnly(entry(key(HOUR, "alice", SUCCESS), 2L));
+
+        clock.instant = HOUR.plusSeconds(3600);
+        assertThat(counters.drain()).containsOnly(entry(key(HOUR, "alice", SUCCESS), 2L));
+        assertThat(counters.snapshot()).isEmpty();
+    }
+
+    @Test
+    public void testRestoreUnpersistedCounts() {
+        counters.record("alice", SUCCESS, HOUR.plusSeconds(10));
+        clock.instant = HOUR.plusSeconds(3600);
+        Map<AuditEventCounters.Key, Long> drained = counters.drain();
+        counters.record("alice", SUCCESS, HOUR.plusSeconds(20));
+
+        counters.restore(drained);
+
+        assertThat(counters.drain()).containsOnly(entry(key(HOUR, "alice", SUCCESS), 2L));
+    }
+
+    @Test
+    public void testCountLateEventsInHours() {
+        counters.record("alice", SUCCESS, HOUR.plusSeconds(3600 * 2));
+        counters.record("alice", SUCCESS, HOUR.plusSeconds(10));
+
+        assertThat(counters.snapshot()).containsOnly(
+            entry(key(HOUR, "alice", SUCCESS), 1L),
+            entry(key(HOUR.plusSeconds(3600 * 2), "alice", SUCCESS), 1L));
+    }
+
+    @Test
+    public void testCountExtraPrincipalsTogether() {
+        for (int i = 0; i < 10; i++) {
+            counters.record("user-" + i, FAILURE, HOUR.plusSeconds(10));
+        }
+
+        Map<AuditEventCounters.Key, Long> snapshot = counters.snapshot();
+        assertThat(snapshot).hasSize(5);
+        assertThat(snapshot).containsEntry(key(HOUR, AuditEventCounters.OTHER_PRINCIPAL, FAILURE), 6L);
+        assertThat(snapshot.values().stream().mapToLong(Long::longValue).sum()).isEqualTo(10);
+    }
+
+    private static AuditEventCounters.Key key(Instant hour, String principal, String type) {
+        return new AuditEventCounters.Key(hour, principal, type);
+    }
+
+    private static final class MutableClock extends Clock {
+
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
@@ -0,0 +1,96 @@
+package org.jhipster.space.config.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Test class for the {@link AuditEventRingBuffer}.
+ */
+public class AuditEventRingBufferTest {
+
+    @Test
+    public void testOfferUntilFull() {
+        AuditEventRingBuffer<Integer> buffer = new AuditEventRingBuffer<>(3);
+        assertThat(buffer.capacity()).isEqualTo(4);
+
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.size()).isEqualTo(4);
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drainTo(drained, 3)).isEqualTo(3);
+        assertThat(drained).containsExactly(0, 1, 2);
+        assertThat(buffer.offer(5)).isTrue();
+
+        assertThat(buffer.drainTo(drained, 10)).isEqualTo(2);
+        assertThat(drained).containsExactly(0, 1, 2, 3, 5);
+        assertThat(buffer.size()).isZero();
+    }
+
+    @Test
+    public void testConcurrentProducers() throws Exception {
+        int producers = 4;
+        int elementsPerProducer = 20_000;
+        AuditEventRingBuffer<Long> buffer = new AuditEventRingBuffer<>(256);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            for (int p = 0; p < producers; p++) {
+                long producer = p;
+                executor.execute(() -> {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        return;
+                    }
+                    for (long i = 0; i < elementsPerProducer; i++) {
+                        while (!buffer.offer(producer * elementsPerProducer + i)) {
+                            Thread.yield();
+                        }
+                    }
+                });
+            }
+            start.countDown();
+
+            long[] lastSeen = new long[producers];
+            Arrays.fill(lastSeen, -1);
+            List<Long> batch = new ArrayList<>();
+            int received = 0;
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+            while (received < producers * elementsPerProducer && System.nanoTime() < deadline) {
+                batch.clear();
+                received += buffer.drainTo(batch, 100);
+                for (long element : batch) {
+                    int producer = (int) (element / elementsPerProducer);
+                    assertThat(element).isGreaterThan(lastSeen[producer]);
+                    lastSeen[producer] = element;
+                }
+            }
+
+            assertThat(received).isEqualTo(producers * elementsPerProducer);
+            for (int p = 0; p < producers; p++) {
+                assertThat(lastSeen[p]).isEqualTo((p + 1L) * elementsPerProducer - 1);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testRejectInvalidCapacity() {
+        assertThatIllegalArgumentException().isThrownBy(() -> new AuditEventRingBuffer<>(1));
+    }
+}
@@ -0,0 +1,110 @@
+package org.jhipster.space.config.job;
+
+import org.jhipster.space.SpaceApp;
+import org.jhipster.space.repository.JobLockRepository;
+import org.jhipster.space.repository.JobLockRepository.JobLock;
+import org.jhipster.space.service.UserService;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for the {@link ClusterJobs} and their leases.
+ */
+@SpringBootTest(classes = SpaceApp.class)
+public class ClusterJobsIT {
+
+    private static final String NODE = "node-1";
+
+    private static final String OTHER_NODE = "node-2";
+
+    @Autowired
+    private JobLockRepository jobLockRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private JobsEndpoint jobsEndpoint;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testLeaseIsHeldByOneNode() {
+        Optional<JobLock> lock = jobLockRepository.acquire("testLeaseIsHeldByOneNode", NODE, Duration.ofHours(1));
+        assertThat(lock).isPresent();
+        assertThat(lock.get().getLockedUntil())
+            .isBetween(Instant.now().plus(Duration.ofMinutes(59)), Instant.now().plus(Duration.ofMinutes(61)));
+
+        assertThat(jobLockRepository.acquire("testLeaseIsHeldByOneNode", OTHER_NODE, Duration.ofHours(1))).isEmpty();
+
+        assertThat(jobLockRepository.release(lock.get(), true)).isTrue();
+        Optional<JobLock> otherLock = jobLockRepository.acquire("testLeaseIsHeldByOneNode", OTHER_NODE, Duration.ofHours(1));
+        assertThat(otherLock).isPresent();
+        assertThat(otherLock.get().getFencingToken()).isGreaterThan(lock.get().getFencingToken());
+        assertThat(otherLock.get().getLockedBy()).isEqualTo(OTHER_NODE);
+        assertThat(otherLock.get().getLastSuccess()).isNotNull();
+        jobLockRepository.release(otherLock.get(), false);
+    }
+
+    @Test
+    public void testExpiredLeaseIsFenced() {
+        Optional<JobLock> expiredLock = jobLockRepository.acquire("testExpiredLeaseIsFenced", NODE, Duration.ZERO);
+        assertThat(expiredLock).isPresent();
+
+        Optional<JobLock> lock = jobLockRepository.acquire("testExpiredLeaseIsFenced", OTHER_NODE, Duration.ofHours(1));
+        assertThat(lock).isPresent();
+        assertThat(lock.get().getFencingToken()).isGreaterThan(expiredLock.get().getFencingToken());
+
+        assertThat(jobLockRepository.release(expiredLock.get(), true)).isFalse();
+        JobLock stored = jobLockRepository.findOne("testExpiredLeaseIsFenced").get();
+        assertThat(stored.getLockedBy()).isEqualTo(OTHER_NODE);
+        assertThat(stored.getLastSuccess()).isNull();
+        jobLockRepository.release(lock.get(), false);
+    }
+
+    @Test
+    public void testJobIsSkippedWhileAnotherNodeHoldsTheLease() {
+        double skipped = skippedRuns("removeNotActivatedUsers");
+        Optional<JobLock> lock = jobLockRepository.acquire("removeNotActivatedUsers", OTHER_NODE, Duration.ofHours(1));
+        assertThat(lock).isPresent();
+        try {
+            userService.removeNotActivatedUsers();
+            assertThat(skippedRuns("removeNotActivatedUsers")).isEqualTo(skipped + 1);
+        } finally {
+            jobLockRepository.release(lock.get(), false);
+        }
+
+        userService.removeNotActivatedUsers();
+        assertThat(skippedRuns("removeNotActivatedUsers")).isEqualTo(skipped + 1);
+        JobLock stored = jobLockRepository.findOne("removeNotActivatedUsers").get();
+        assertThat(stored.getFencingToken()).isGreaterThan(lock.get().getFencingToken());
+        assertThat(stored.getLockedBy()).isNull();
+        assertThat(stored.getLastSuccess()).isNotNull();
+    }
+
+    @Test
+    public void testEndpointListsAndRunsJobs() {
+        assertThat(jobsEndpoint.jobs().stream().map(JobsEndpoint.JobDescriptor::getName).collect(Collectors.toList()))
+            .contains("removeNotActivatedUsers", "removeOldAuditEvents", "removeOldAuditEventStats", "maintainAuditEventPartitions");
+
+        assertThat(jobsEndpoint.run("removeOldAuditEventStats").getStatus()).isEqualTo(202);
+        assertThat(jobsEndpoint.run("unknown").getStatus()).isEqualTo(WebEndpointResponse.STATUS_NOT_FOUND);
+    }
+
+    private double skippedRuns(String job) {
+        return meterRegistry.find("scheduled.job.skipped").tag("job", job).counters().stream()
+            .mapToDouble(counter -> counter.count()).sum();
+    }
+}
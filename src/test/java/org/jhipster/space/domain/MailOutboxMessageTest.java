@@ -0,0 +1,22 @@
+package org.jhipster.space.domain;
+
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import org.jhipster.space.web.rest.TestUtil;
+
+public class MailOutboxMessageTest {
+
+    @Test
+    public void equalsVerifier() throws Exception {
+        TestUtil.equalsVerifier(MailOutboxMessage.class);
+        MailOutboxMessage message1 = new MailOutboxMessage();
+        message1.setId(1L);
+        MailOutboxMessage message2 = new MailOutboxMessage();
+        message2.setId(message1.getId());
+        assertThat(message1).isEqualTo(message2);
+        message2.setId(2L);
+        assertThat(message1).isNotEqualTo(message2);
+        message1.setId(null);
+        assertThat(message1).isNotEqualTo(message2);
+    }
+}
@@ -2,9 +2,13 @@ package org.jhipster.space.repository;
 
 import org.jhipster.space.SpaceApp;
 
+import org.jhipster.space.config.ApplicationProperties;
 import org.jhipster.space.config.Constants;
+import org.jhipster.space.config.audit.AsyncAuditEventWriter;
+import org.jhipster.space.config.audit.AuditEventCounters;
 import org.jhipster.space.config.audit.AuditEventConverter;
 import org.jhipster.space.domain.PersistentAuditEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -13,6 +17,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.mock.web.MockHttpServletRequest;
 import org.springframework.mock.web.MockHttpSession;
 import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.servlet.http.HttpSession;
@@ -23,6 +28,7 @@ import java.util.List;
 import java.util.Map;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 import static org.jhipster.space.repository.CustomAuditEventRepository.EVENT_DATA_COLUMN_MAX_LENGTH;
 
 /**
@@ -38,11 +44,26 @@ public class CustomAuditEventRepositoryIT {
     @Autowired
     private AuditEventConverter auditEventConverter;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private AsyncAuditEventWriter auditEventWriter;
+
+    private AuditEventCounters auditEventCounters;
+
     private CustomAuditEventRepository customAuditEventRepository;
 
     @BeforeEach
     public void setup() {
-        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository, auditEventConverter);
+        meterRegistry = new SimpleMeterRegistry();
+        // Not started: events are only saved when the test flushes them, in its own transaction
+        auditEventWriter = new AsyncAuditEventWriter(persistenceAuditEventRepository, transactionManager,
+            new ApplicationProperties(), meterRegistry);
+        auditEventCounters = new AuditEventCounters(new ApplicationProperties());
+        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository, auditEventConverter,
+            auditEventWriter, auditEventCounters);
         persistenceAuditEventRepository.deleteAll();
         Instant oneHourAgo = Instant.now().minusSeconds(3600);
 
@@ -71,6 +92,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", "test-value");
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -82,6 +104,18 @@ public class CustomAuditEventRepositoryIT {
             .isEqualTo(event.getTimestamp().truncatedTo(ChronoUnit.MILLIS));
     }
 
+    @Test
+    public void addAuditEventIsCounted() {
+        AuditEvent event = new AuditEvent("test-user", "AUTHENTICATION_FAILURE", new HashMap<>());
+        customAuditEventRepository.add(event);
+        customAuditEventRepository.add(new AuditEvent("test-user", "test-type", new HashMap<>()));
+        customAuditEventRepository.add(new AuditEvent(Constants.ANONYMOUS_USER, "AUTHENTICATION_FAILURE", new HashMap<>()));
+
+        Instant hour = event.getTimestamp().truncatedTo(ChronoUnit.HOURS);
+        assertThat(auditEventCounters.snapshot())
+            .containsOnly(entry(new AuditEventCounters.Key(hour, "test-user", "AUTHENTICATION_FAILURE"), 1L));
+    }
+
     @Test
     public void addAuditEventTruncateLargeData() {
         Map<String, Object> data = new HashMap<>();
@@ -92,6 +126,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", largeData);
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -116,6 +151,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", details);
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -129,6 +165,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", null);
         AuditEvent event = new AuditEvent("test-user", "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(1);
         PersistentAuditEvent persistentAuditEvent = persistentAuditEvents.get(0);
@@ -141,6 +178,7 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", "test-value");
         AuditEvent event = new AuditEvent(Constants.ANONYMOUS_USER, "test-type", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(0);
     }
@@ -151,8 +189,27 @@ public class CustomAuditEventRepositoryIT {
         data.put("test-key", "test-value");
         AuditEvent event = new AuditEvent("test-user", "AUTHORIZATION_FAILURE", data);
         customAuditEventRepository.add(event);
+        auditEventWriter.flush();
         List<PersistentAuditEvent> persistentAuditEvents = persistenceAuditEventRepository.findAll();
         assertThat(persistentAuditEvents).hasSize(0);
     }
+    @Test
+    public void addAuditEventDropsEventsWhenQueueIsFull() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getAuditEvents().setQueueCapacity(2);
+        auditEventWriter = new AsyncAuditEventWriter(persistenceAuditEventRepository, transactionManager,
+            applicationProperties, meterRegistry);
+        customAuditEventRepository = new CustomAuditEventRepository(persistenceAuditEventRepository, auditEventConverter,
+            auditEventWriter, auditEventCounters);
+
+        for (int i = 0; i < 3; i++) {
+            customAuditEventRepository.add(new AuditEvent("test-user", "test-type", new HashMap<>()));
+        }
+        assertThat(persistenceAuditEventRepository.findAll()).isEmpty();
 
+        auditEventWriter.flush();
+        assertThat(persistenceAuditEventRepository.findAll()).hasSize(2);
+        assertThat(meterRegistry.get("audit.events.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("audit.events.written").counter().count()).isEqualTo(2);
+    }
 }
@@ -0,0 +1,34 @@
+package org.jhipster.space.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Test class for the {@link BCryptStrengthCalibrator} utility class.
+ */
+public class BCryptStrengthCalibratorTest {
+
+    @Test
+    public void testCalibrateNeverGoesBelowMinimum() {
+        assertThat(BCryptStrengthCalibrator.calibrate(Duration.ZERO, 5, 8)).isEqualTo(5);
+    }
+
+    @Test
+    public void testCalibrateNeverGoesAboveMaximum() {
+        assertThat(BCryptStrengthCalibrator.calibrate(Duration.ofHours(1), 4, 6)).isEqualTo(6);
+    }
+
+    @Test
+    public void testCalibrateStaysWithinBounds() {
+        assertThat(BCryptStrengthCalibrator.calibrate(Duration.ofMillis(20), 4, 12)).isBetween(4, 12);
+    }
+
+    @Test
+    public void testCalibrateRejectsInvertedBounds() {
+        assertThatIllegalArgumentException().isThrownBy(() -> BCryptStrengthCalibrator.calibrate(Duration.ofMillis(50), 8, 6));
+    }
+}
@@ -0,0 +1,177 @@
+package org.jhipster.space.security.ratelimit;
+
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.config.ApplicationProperties.Security.ApiRateLimit.Quota;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Test class for the {@link ApiRateLimiter} utility class, with the {@link InMemoryRateLimiterStore}.
+ */
+public class ApiRateLimiterTest {
+
+    private ApplicationProperties.Security.ApiRateLimit properties;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private Instant now;
+
+    private ApiRateLimiter apiRateLimiter;
+
+    @BeforeEach
+    public void setup() {
+        properties = new ApplicationProperties.Security.ApiRateLimit();
+        meterRegistry = new SimpleMeterRegistry();
+        now = Instant.parse("2026-10-19T10:00:00Z");
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    public void testBurstThenSustainedRate() {
+        properties.getQuotas().add(quota("api", "/api/**", Quota.Scope.USER, 3, Duration.ofSeconds(3)));
+
+        assertThat(tryAcquire("GET", "/api/missions")).isZero();
+        assertThat(tryAcquire("GET", "/api/missions")).isZero();
+        assertThat(tryAcquire("GET", "/api/missions")).isZero();
+        assertThat(tryAcquire("GET", "/api/missions")).isEqualTo(Duration.ofSeconds(1).toNanos());
+
+        now = now.plusMillis(500);
+        assertThat(tryAcquire("GET", "/api/missions")).isEqualTo(Duration.ofMillis(500).toNanos());
+
+        now = now.plusMillis(500);
+        assertThat(tryAcquire("GET", "/api/missions")).isZero();
+        assertThat(tryAcquire("GET", "/api/missions")).isPositive();
+        assertThat(meterRegistry.get("security.api.requests.rejected").tag("quota", "api").counter().count()).isEqualTo(3);
+    }
+
+    @Test
+    public void testUserScopeIsPerCaller() {
+        properties.getQuotas().add(quota("api", "/api/**", Quota.Scope.USER, 1, Duration.ofMinutes(1)));
+
+        assertThat(tryAcquire("GET", "/api/missions")).isZero();
+        assertThat(tryAcquire("GET", "/api/missions")).isPositive();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user", "user"));
+        assertThat(tryAcquire("GET", "/api/missions")).isZero();
+        assertThat(tryAcquire("GET", "/api/missions")).isPositive();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("admin", "admin"));
+        assertThat(tryAcquire("GET", "/api/missions")).isZero();
+    }
+
+    @Test
+    public void testRouteScopeIsShared() {
+        properties.getQuotas().add(quota("export", "/api/export", Quota.Scope.ROUTE, 1, Duration.ofMinutes(1)));
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("user", "user"));
+        assertThat(tryAcquire("GET", "/api/export")).isZero();
+
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken("admin", "admin"));
+        assertThat(tryAcquire("GET", "/api/export")).isPositive();
+        assertThat(tryAcquire("GET", "/api/missions")).isZero();
+    }
+
+    @Test
+    public void testQuotaMatchesMethods() {
+        Quota writes = quota("writes", "/api/users/**", Quota.Scope.USER, 1, Duration.ofMinutes(1));
+        writes.setMethods(Collections.singletonList("POST"));
+        properties.getQuotas().add(writes);
+
+        assertThat(tryAcquire("POST", "/api/users")).isZero();
+        assertThat(tryAcquire("POST", "/api/users")).isPositive();
+        assertThat(tryAcquire("GET", "/api/users")).isZero();
+        assertThat(tryAcquire("GET", "/api/users")).isZero();
+    }
+
+    @Test
+    public void testDisabled() {
+        properties.getQuotas().add(quota("api", "/api/**", Quota.Scope.USER, 1, Duration.ofMinutes(1)));
+        properties.setEnabled(false);
+
+        ApiRateLimiter apiRateLimiter = newApiRateLimiter();
+
+        assertThat(apiRateLimiter.isEnabled()).isFalse();
+        assertThat(apiRateLimiter.tryAcquire(new MockHttpServletRequest("GET", "/api/missions"))).isZero();
+        assertThat(apiRateLimiter.tryAcquire(new MockHttpServletRequest("GET", "/api/missions"))).isZero();
+    }
+
+    @Test
+    public void testRejectInvalidQuota() {
+        properties.getQuotas().add(quota("api", "/api/**", Quota.Scope.USER, 0, Duration.ofMinutes(1)));
+
+        assertThatIllegalArgumentException().isThrownBy(this::newApiRateLimiter);
+    }
+
+    @Test
+    public void testInMemoryStoreKeepsMemoryBounded() {
+        InMemoryRateLimiterStore store = new InMemoryRateLimiterStore(100);
+        for (int i = 0; i < 10_000; i++) {
+            store.tryAcquire("key-" + i, 0, 1_000, 0);
+        }
+
+        assertThat(store.size()).isLessThanOrEqualTo(101);
+    }
+
+    private long tryAcquire(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        request.setServletPath(uri);
+        return apiRateLimiter().tryAcquire(request);
+    }
+
+    private ApiRateLimiter apiRateLimiter() {
+        if (apiRateLimiter == null) {
+            apiRateLimiter = newApiRateLimiter();
+        }
+        return apiRateLimiter;
+    }
+
+    private ApiRateLimiter newApiRateLimiter() {
+        InMemoryRateLimiterStore store = new InMemoryRateLimiterStore(properties.getMaxEntries());
+        return new ApiRateLimiter(properties, store, meterRegistry, new Clock() {
+            @Override
+            public ZoneOffset getZone() {
+                return ZoneOffset.UTC;
+            }
+
+            @Override
+            public Clock withZone(ZoneId zone) {
+                return this;
+            }
+
+            @Override
+            public Instant instant() {
+                return now;
+            }
+        });
+    }
+
+    private static Quota quota(String name, String pattern, Quota.Scope scope, int limit, Duration period) {
+        Quota quota = new Quota();
+        quota.setName(name);
+        quota.setPattern(pattern);
+        quota.setScope(scope);
+        quota.setLimit(limit);
+        quota.setPeriod(period);
+        return quota;
+    }
+}
@@ -0,0 +1,75 @@
+package org.jhipster.space.security.ratelimit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatIllegalArgumentException;
+
+/**
+ * Test class for the {@link TokenBucketRegistry} utility class.
+ */
+public class TokenBucketRegistryTest {
+
+    private AtomicLong clock;
+
+    @BeforeEach
+    public void setup() {
+        clock = new AtomicLong(TimeUnit.DAYS.toNanos(1));
+    }
+
+    @Test
+    public void testConsumeUpToCapacity() {
+        TokenBucketRegistry registry = new TokenBucketRegistry(3, Duration.ofMinutes(1), 100, clock::get);
+
+        assertThat(registry.tryConsume("user")).isZero();
+        assertThat(registry.tryConsume("user")).isZero();
+        assertThat(registry.tryConsume("user")).isZero();
+        assertThat(registry.tryConsume("user")).isPositive().isLessThanOrEqualTo(TimeUnit.SECONDS.toNanos(20));
+        assertThat(registry.tryConsume("other")).isZero();
+    }
+
+    @Test
+    public void testRefillOverTime() {
+        TokenBucketRegistry registry = new TokenBucketRegistry(2, Duration.ofMinutes(1), 100, clock::get);
+        registry.tryConsume("user");
+        registry.tryConsume("user");
+        assertThat(registry.tryConsume("user")).isPositive();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(15));
+        assertThat(registry.tryConsume("user")).isPositive();
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(15));
+        assertThat(registry.tryConsume("user")).isZero();
+        assertThat(registry.tryConsume("user")).isPositive();
+
+        clock.addAndGet(TimeUnit.HOURS.toNanos(1));
+        assertThat(registry.tryConsume("user")).isZero();
+        assertThat(registry.tryConsume("user")).isZero();
+        assertThat(registry.tryConsume("user")).isPositive();
+    }
+
+    @Test
+    public void testEvictionKeepsMemoryBounded() {
+        TokenBucketRegistry registry = new TokenBucketRegistry(5, Duration.ofMinutes(1), 160, clock::get);
+        for (int i = 0; i < 10_000; i++) {
+            registry.tryConsume("user-" + i);
+        }
+
+        assertThat(registry.size()).isLessThanOrEqualTo(160 + 16);
+    }
+
+    @Test
+    public void testRejectInvalidBuckets() {
+        assertThatIllegalArgumentException().isThrownBy(() ->
+            new TokenBucketRegistry(100, Duration.ofSeconds(1), 100, clock::get))
+            .withMessageContaining(TokenBucketRegistry.MAX_TOKENS_PER_SECOND + " tokens per second");
+        assertThat(new TokenBucketRegistry(10, Duration.ofSeconds(1), 100, clock::get).tryConsume("user")).isZero();
+        assertThatIllegalArgumentException().isThrownBy(() ->
+            new TokenBucketRegistry(0, Duration.ofMinutes(1), 100, clock::get));
+    }
+}
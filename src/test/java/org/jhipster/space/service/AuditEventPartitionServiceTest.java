@@ -0,0 +1,43 @@
+package org.jhipster.space.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.YearMonth;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the partition naming and planning of {@link AuditEventPartitionService}.
+ */
+public class AuditEventPartitionServiceTest {
+
+    @Test
+    public void testPartitionName() {
+        assertThat(AuditEventPartitionService.partitionName(YearMonth.of(2026, 3)))
+            .isEqualTo("jhi_persistent_audit_event_y2026m03");
+        assertThat(AuditEventPartitionService.parsePartitionMonth("jhi_persistent_audit_event_y2026m03"))
+            .contains(YearMonth.of(2026, 3));
+        assertThat(AuditEventPartitionService.parsePartitionMonth("jhi_persistent_audit_event_default")).isEmpty();
+    }
+
+    @Test
+    public void testMonthsToCreate() {
+        assertThat(AuditEventPartitionService.monthsToCreate(YearMonth.of(2026, 11), 2, Collections.emptyList()))
+            .containsExactly(YearMonth.of(2026, 11), YearMonth.of(2026, 12), YearMonth.of(2027, 1));
+        assertThat(AuditEventPartitionService.monthsToCreate(YearMonth.of(2026, 11), 2,
+            Arrays.asList(YearMonth.of(2026, 11), YearMonth.of(2026, 12))))
+            .containsExactly(YearMonth.of(2027, 1));
+    }
+
+    @Test
+    public void testIsExpired() {
+        Instant before = Instant.parse("2026-10-01T00:00:00Z");
+        assertThat(AuditEventPartitionService.isExpired(YearMonth.of(2026, 8), before)).isTrue();
+        assertThat(AuditEventPartitionService.isExpired(YearMonth.of(2026, 9), before)).isTrue();
+        assertThat(AuditEventPartitionService.isExpired(YearMonth.of(2026, 10), before)).isFalse();
+        assertThat(AuditEventPartitionService.isExpired(YearMonth.of(2026, 9), before.minusSeconds(1))).isFalse();
+    }
+}
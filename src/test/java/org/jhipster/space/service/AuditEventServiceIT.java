@@ -1,18 +1,37 @@
 package org.jhipster.space.service;
 
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.config.audit.AuditEventArchive;
+import org.jhipster.space.config.audit.AuditEventConverter;
 import org.jhipster.space.domain.PersistentAuditEvent;
 import org.jhipster.space.repository.PersistenceAuditEventRepository;
 import org.jhipster.space.SpaceApp;
 import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.audit.AuditEvent;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
 
 /**
  * Integration tests for {@link AuditEventService}.
@@ -29,6 +48,24 @@ public class AuditEventServiceIT {
     @Autowired
     private JHipsterProperties jHipsterProperties;
 
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private AuditEventPartitionService auditEventPartitionService;
+
+    @Autowired
+    private AuditEventConverter auditEventConverter;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @TempDir
+    public Path archiveDirectory;
+
     private PersistentAuditEvent auditEventOld;
 
     private PersistentAuditEvent auditEventWithinRetention;
@@ -70,4 +107,109 @@ public class AuditEventServiceIT {
         assertThat(persistenceAuditEventRepository.findByPrincipal("test-user-retention")).isNotEmpty();
         assertThat(persistenceAuditEventRepository.findByPrincipal("test-user-new")).isNotEmpty();
     }
+
+    @Test
+    @Transactional
+    public void verifyOldAuditEventsAreDeletedInChunksWithTheirData() {
+        persistenceAuditEventRepository.deleteAll();
+        Instant expired = Instant.now().minus(jHipsterProperties.getAuditEvents().getRetentionPeriod() + 1, ChronoUnit.DAYS);
+        for (int i = 0; i < 7; i++) {
+            PersistentAuditEvent auditEvent = new PersistentAuditEvent();
+            auditEvent.setAuditEventDate(expired.minusSeconds(i));
+            auditEvent.setPrincipal("test-user-old");
+            auditEvent.setAuditEventType("test-type");
+            auditEvent.setData(Collections.singletonMap("test-key", "test-value-" + i));
+            persistenceAuditEventRepository.save(auditEvent);
+        }
+        persistenceAuditEventRepository.save(auditEventNew);
+        persistenceAuditEventRepository.flush();
+
+        int purgeChunkSize = applicationProperties.getAuditEvents().getPurgeChunkSize();
+        applicationProperties.getAuditEvents().setPurgeChunkSize(2);
+        try {
+            auditEventService.removeOldAuditEvents();
+        } finally {
+            applicationProperties.getAuditEvents().setPurgeChunkSize(purgeChunkSize);
+        }
+
+        assertThat(persistenceAuditEventRepository.findAll()).hasSize(1);
+        assertThat(persistenceAuditEventRepository.findByPrincipal("test-user-old")).isEmpty();
+        assertThat(persistenceAuditEventRepository.findByPrincipal("test-user-new")).isNotEmpty();
+    }
+
+    @Test
+    public void verifyPartitionMaintenanceIsSkippedWithoutPartitions() {
+        assertThat(auditEventPartitionService.isPartitioned()).isFalse();
+        auditEventPartitionService.maintainPartitions();
+    }
+
+    @Test
+    @Transactional
+    public void verifyOldAuditEventsAreArchivedAndFoundByDates() {
+        AuditEventService archivingAuditEventService = new AuditEventService(persistenceAuditEventRepository,
+            auditEventConverter, new AuditEventArchive(true, archiveDirectory), jHipsterProperties, applicationProperties,
+            transactionManager, new SimpleMeterRegistry());
+        persistenceAuditEventRepository.deleteAll();
+        Instant expired = auditEventOld.getAuditEventDate();
+        for (int i = 0; i < 3; i++) {
+            PersistentAuditEvent auditEvent = new PersistentAuditEvent();
+            auditEvent.setAuditEventDate(expired.minusSeconds(i));
+            auditEvent.setPrincipal("test-user-archived-" + i);
+            auditEvent.setAuditEventType("test-type");
+            auditEvent.setData(Collections.singletonMap("test-key", "test-value-" + i));
+            persistenceAuditEventRepository.save(auditEvent);
+        }
+        persistenceAuditEventRepository.save(auditEventWithinRetention);
+        persistenceAuditEventRepository.save(auditEventNew);
+        persistenceAuditEventRepository.flush();
+
+        archivingAuditEventService.removeOldAuditEvents();
+        assertThat(persistenceAuditEventRepository.findAll()).hasSize(2);
+
+        Instant from = expired.minusSeconds(3600);
+        Instant to = Instant.now().plusSeconds(60);
+        Page<AuditEvent> page = archivingAuditEventService.findByDates(from, to,
+            PageRequest.of(0, 2, Sort.by(Sort.Direction.DESC, "auditEventDate")));
+        assertThat(page.getTotalElements()).isEqualTo(5);
+        assertThat(principals(page)).containsExactly("test-user-new", "test-user-retention");
+
+        page = archivingAuditEventService.findByDates(from, to,
+            PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "auditEventDate")));
+        assertThat(principals(page)).containsExactly("test-user-archived-0", "test-user-archived-1");
+        assertThat(page.getContent().get(0).getData()).containsEntry("test-key", "test-value-0");
+
+        page = archivingAuditEventService.findByDates(from, to,
+            PageRequest.of(1, 2, Sort.by(Sort.Direction.ASC, "auditEventDate")));
+        assertThat(principals(page)).containsExactly("test-user-archived-0", "test-user-retention");
+
+        page = archivingAuditEventService.findByDates(auditEventNew.getAuditEventDate().minusSeconds(1), to,
+            PageRequest.of(0, 10));
+        assertThat(principals(page)).containsExactly("test-user-new");
+    }
+
+    @Test
+    @Transactional
+    public void verifyPageDataIsLoadedWithEvents() {
+        persistenceAuditEventRepository.deleteAll();
+        auditEventNew.setData(new HashMap<>(Collections.singletonMap("remoteAddress", "10.0.0.1")));
+        auditEventWithinRetention.setData(new HashMap<>());
+        persistenceAuditEventRepository.save(auditEventNew);
+        persistenceAuditEventRepository.save(auditEventWithinRetention);
+        persistenceAuditEventRepository.flush();
+        entityManager.clear();
+
+        Page<AuditEvent> page = auditEventService.findAll(PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "auditEventDate")));
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent().get(0).getData()).containsOnly(entry("remoteAddress", "10.0.0.1"));
+        assertThat(page.getContent().get(1).getData()).isEmpty();
+
+        Slice<AuditEvent> slice = auditEventService.findSlice(PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "auditEventDate")));
+        assertThat(slice.hasNext()).isTrue();
+        assertThat(slice.getContent()).extracting(AuditEvent::getPrincipal).containsExactly("test-user-new");
+        assertThat(slice.getContent().get(0).getData()).containsOnly(entry("remoteAddress", "10.0.0.1"));
+    }
+
+    private static List<String> principals(Page<AuditEvent> page) {
+        return page.getContent().stream().map(AuditEvent::getPrincipal).collect(Collectors.toList());
+    }
 }
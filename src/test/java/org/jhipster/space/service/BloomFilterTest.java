@@ -0,0 +1,50 @@
+package org.jhipster.space.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link BloomFilter}.
+ */
+public class BloomFilterTest {
+
+    @Test
+    public void testContainsAllPutValues() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user-" + i + "@localhost"));
+
+        assertThat(IntStream.range(0, 10_000).allMatch(i -> filter.mightContain("user-" + i + "@localhost"))).isTrue();
+    }
+
+    @Test
+    public void testFalsePositiveRateIsNearTheExpectedOne() {
+        BloomFilter filter = new BloomFilter(10_000, 0.01);
+        IntStream.range(0, 10_000).forEach(i -> filter.put("user-" + i));
+
+        long falsePositives = IntStream.range(0, 100_000).filter(i -> filter.mightContain("absent-" + i)).count();
+
+        assertThat(filter.getHashCount()).isEqualTo(7);
+        assertThat(falsePositives).isLessThan(2_000);
+    }
+
+    @Test
+    public void testEmptyFilterContainsNothing() {
+        BloomFilter filter = new BloomFilter(0, 0.01);
+
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain("admin")).isFalse();
+        filter.put("admin");
+        assertThat(filter.mightContain("admin")).isTrue();
+    }
+
+    @Test
+    public void testConcurrentPutsAreNotLost() {
+        BloomFilter filter = new BloomFilter(100_000, 0.01);
+        IntStream.range(0, 100_000).parallel().forEach(i -> filter.put(Integer.toString(i)));
+
+        assertThat(IntStream.range(0, 100_000).allMatch(i -> filter.mightContain(Integer.toString(i)))).isTrue();
+    }
+}
@@ -1,10 +1,14 @@
 package org.jhipster.space.service;
 
+import org.jhipster.space.config.ApplicationProperties;
 import org.jhipster.space.config.Constants;
 
 import org.jhipster.space.SpaceApp;
+import org.jhipster.space.domain.MailOutboxMessage;
 import org.jhipster.space.domain.User;
+import org.jhipster.space.repository.MailOutboxMessageRepository;
 import io.github.jhipster.config.JHipsterProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
@@ -13,11 +17,12 @@ import org.mockito.MockitoAnnotations;
 import org.mockito.Spy;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
-import org.springframework.context.MessageSource;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
-import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import javax.mail.MessagingException;
 import javax.mail.Multipart;
 import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
@@ -29,6 +34,10 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -55,10 +64,13 @@ public class MailServiceIT {
     private JHipsterProperties jHipsterProperties;
 
     @Autowired
-    private MessageSource messageSource;
+    private MailTemplateRenderer mailTemplateRenderer;
 
     @Autowired
-    private SpringTemplateEngine templateEngine;
+    private MailOutboxMessageRepository mailOutboxMessageRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
 
     @Spy
     private JavaMailSenderImpl javaMailSender;
@@ -66,19 +78,29 @@ public class MailServiceIT {
     @Captor
     private ArgumentCaptor<MimeMessage> messageCaptor;
 
+    private ApplicationProperties applicationProperties;
+
+    private MailOutboxSender mailOutboxSender;
+
     private MailService mailService;
 
     @BeforeEach
     public void setup() {
         MockitoAnnotations.initMocks(this);
-        doNothing().when(javaMailSender).send(any(MimeMessage.class));
-        mailService = new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine);
+        doNothing().when(javaMailSender).send(anyMessages());
+        mailOutboxMessageRepository.deleteAll();
+        applicationProperties = new ApplicationProperties();
+        // Not started: emails are only sent when the test sends the outbox
+        mailOutboxSender = new MailOutboxSender(mailOutboxMessageRepository, javaMailSender, transactionManager,
+            jHipsterProperties, applicationProperties, new SimpleMeterRegistry());
+        mailService = new MailService(mailOutboxMessageRepository, mailOutboxSender, mailTemplateRenderer);
     }
 
     @Test
     public void testSendEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
-        verify(javaMailSender).send(messageCaptor.capture());
+        mailOutboxSender.sendPending();
+        verify(javaMailSender).send(captureMessages());
         MimeMessage message = messageCaptor.getValue();
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0].toString()).isEqualTo("john.doe@example.com");
@@ -91,7 +113,8 @@ public class MailServiceIT {
     @Test
     public void testSendHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, true);
-        verify(javaMailSender).send(messageCaptor.capture());
+        mailOutboxSender.sendPending();
+        verify(javaMailSender).send(captureMessages());
         MimeMessage message = messageCaptor.getValue();
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0].toString()).isEqualTo("john.doe@example.com");
@@ -104,7 +127,8 @@ public class MailServiceIT {
     @Test
     public void testSendMultipartEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, false);
-        verify(javaMailSender).send(messageCaptor.capture());
+        mailOutboxSender.sendPending();
+        verify(javaMailSender).send(captureMessages());
         MimeMessage message = messageCaptor.getValue();
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
@@ -121,7 +145,8 @@ public class MailServiceIT {
     @Test
     public void testSendMultipartHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, true);
-        verify(javaMailSender).send(messageCaptor.capture());
+        mailOutboxSender.sendPending();
+        verify(javaMailSender).send(captureMessages());
         MimeMessage message = messageCaptor.getValue();
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
@@ -142,7 +167,8 @@ public class MailServiceIT {
         user.setEmail("john.doe@example.com");
         user.setLangKey("en");
         mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-        verify(javaMailSender).send(messageCaptor.capture());
+        mailOutboxSender.sendPending();
+        verify(javaMailSender).send(captureMessages());
         MimeMessage message = messageCaptor.getValue();
         assertThat(message.getSubject()).isEqualTo("test title");
         assertThat(message.getAllRecipients()[0].toString()).isEqualTo(user.getEmail());
@@ -158,7 +184,8 @@ public class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendActivationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
+        mailOutboxSender.sendPending();
+        verify(javaMailSender).send(captureMessages());
         MimeMessage message = messageCaptor.getValue();
         assertThat(message.getAllRecipients()[0].toString()).isEqualTo(user.getEmail());
         assertThat(message.getFrom()[0].toString()).isEqualTo(jHipsterProperties.getMail().getFrom());
@@ -173,7 +200,8 @@ public class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendCreationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
+        mailOutboxSender.sendPending();
+        verify(javaMailSender).send(captureMessages());
         MimeMessage message = messageCaptor.getValue();
         assertThat(message.getAllRecipients()[0].toString()).isEqualTo(user.getEmail());
         assertThat(message.getFrom()[0].toString()).isEqualTo(jHipsterProperties.getMail().getFrom());
@@ -188,7 +216,8 @@ public class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendPasswordResetMail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
+        mailOutboxSender.sendPending();
+        verify(javaMailSender).send(captureMessages());
         MimeMessage message = messageCaptor.getValue();
         assertThat(message.getAllRecipients()[0].toString()).isEqualTo(user.getEmail());
         assertThat(message.getFrom()[0].toString()).isEqualTo(jHipsterProperties.getMail().getFrom());
@@ -198,12 +227,89 @@ public class MailServiceIT {
 
     @Test
     public void testSendEmailWithException() {
-        doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
+        doThrow(new MailSendException("Connection refused")).when(javaMailSender).send(anyMessages());
         try {
             mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+            assertThat(mailOutboxSender.sendPending()).isEqualTo(0);
         } catch (Exception e) {
             fail("Exception shouldn't have been thrown");
         }
+        List<MailOutboxMessage> messages = mailOutboxMessageRepository.findAll();
+        assertThat(messages).hasSize(1);
+        assertThat(messages.get(0).getAttempts()).isEqualTo(1);
+        assertThat(messages.get(0).getNextAttemptDate()).isAfter(Instant.now());
+    }
+
+    @Test
+    public void testSendEmailsInBatchOverOneConnection() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mailService.sendEmail("john.doe" + i + "@example.com", "testSubject", "testContent", false, false);
+        }
+        assertThat(mailOutboxSender.sendPending()).isEqualTo(3);
+        verify(javaMailSender).send(captureMessages());
+        assertThat(messageCaptor.getAllValues()).hasSize(3);
+        assertThat(mailOutboxMessageRepository.count()).isZero();
+    }
+
+    @Test
+    public void testSendClaimedEmailsOutsideOfTransactions() throws Exception {
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        doAnswer(invocation -> {
+            assertThat(TransactionSynchronizationManager.isActualTransactionActive()).isFalse();
+            // Claimed: other nodes skip it until the end of the lease
+            assertThat(mailOutboxMessageRepository.findAll()).extracting(MailOutboxMessage::getNextAttemptDate)
+                .allMatch(date -> date.isAfter(Instant.now().plus(applicationProperties.getMailOutbox().getSendLease()).minusSeconds(60)));
+            return null;
+        }).when(javaMailSender).send(anyMessages());
+
+        assertThat(mailOutboxSender.sendPending()).isEqualTo(1);
+        assertThat(mailOutboxMessageRepository.count()).isZero();
+    }
+
+    @Test
+    public void testRetryOnlyFailedEmails() throws Exception {
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+        mailService.sendEmail("jane.doe@example.com", "testSubject", "testContent", false, false);
+        doAnswer(invocation -> {
+            MimeMessage failed = invocation.getArgument(1);
+            throw new MailSendException(Collections.singletonMap(failed, new MessagingException("Mailbox unavailable")));
+        }).when(javaMailSender).send(anyMessages());
+
+        assertThat(mailOutboxSender.sendPending()).isEqualTo(1);
+
+        List<MailOutboxMessage> messages = mailOutboxMessageRepository.findAll();
+        assertThat(messages).hasSize(1);
+        assertThat(messages.get(0).getAttempts()).isEqualTo(1);
+        assertThat(messages.get(0).getLastError()).isEqualTo("Mailbox unavailable");
+    }
+
+    @Test
+    public void testAbandonEmailAfterMaxAttempts() {
+        applicationProperties.getMailOutbox().setMaxAttempts(2);
+        applicationProperties.getMailOutbox().setInitialBackoff(Duration.ZERO);
+        doThrow(new MailSendException("Connection refused")).when(javaMailSender).send(anyMessages());
+        mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
+
+        mailOutboxSender.sendPending();
+        mailOutboxSender.sendPending();
+        mailOutboxSender.sendPending();
+
+        verify(javaMailSender, times(2)).send(anyMessages());
+        List<MailOutboxMessage> messages = mailOutboxMessageRepository.findAll();
+        assertThat(messages).hasSize(1);
+        assertThat(messages.get(0).getAttempts()).isEqualTo(2);
+    }
+
+    @Test
+    public void testBackoffIsExponentialAndBounded() {
+        applicationProperties.getMailOutbox().setInitialBackoff(Duration.ofSeconds(30));
+        applicationProperties.getMailOutbox().setMaxBackoff(Duration.ofMinutes(5));
+
+        assertThat(mailOutboxSender.backoff(1)).isEqualTo(Duration.ofSeconds(30));
+        assertThat(mailOutboxSender.backoff(2)).isEqualTo(Duration.ofMinutes(1));
+        assertThat(mailOutboxSender.backoff(4)).isEqualTo(Duration.ofMinutes(4));
+        assertThat(mailOutboxSender.backoff(5)).isEqualTo(Duration.ofMinutes(5));
+        assertThat(mailOutboxSender.backoff(100)).isEqualTo(Duration.ofMinutes(5));
     }
 
     @Test
@@ -214,7 +320,8 @@ public class MailServiceIT {
         for (String langKey : languages) {
             user.setLangKey(langKey);
             mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-            verify(javaMailSender, atLeastOnce()).send(messageCaptor.capture());
+            mailOutboxSender.sendPending();
+            verify(javaMailSender, atLeastOnce()).send(captureMessages());
             MimeMessage message = messageCaptor.getValue();
 
             String propertyFilePath = "i18n/messages_" + getJavaLocale(langKey) + ".properties";
@@ -229,6 +336,17 @@ public class MailServiceIT {
         }
     }
 
+    /**
+     * Match the messages of a batch, sent over a single connection.
+     */
+    private MimeMessage[] captureMessages() {
+        return new MimeMessage[]{messageCaptor.capture()};
+    }
+
+    private static MimeMessage[] anyMessages() {
+        return new MimeMessage[]{any(MimeMessage.class)};
+    }
+
     /**
      * Convert a lang key to the Java locale.
      */
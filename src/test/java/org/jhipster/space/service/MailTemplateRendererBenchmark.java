@@ -0,0 +1,99 @@
+package org.jhipster.space.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark of rendering the emails of 10,000 users, with the {@link MailTemplateRenderer} and with Thymeleaf alone.
+ * <p>
+ * Only compiled with the {@code jmh} Maven profile, see the README.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MailTemplateRendererBenchmark {
+
+    private static final int EMAILS = 10_000;
+
+    private static final String BASE_URL = "http://127.0.0.1:8080";
+
+    private static final List<String> TEMPLATES = Arrays.asList("mail/activationEmail", "mail/creationEmail",
+        "mail/passwordResetEmail");
+
+    private static final List<String> LANGUAGES = Arrays.asList("en", "fr");
+
+    private SpringTemplateEngine templateEngine;
+
+    private ResourceBundleMessageSource messageSource;
+
+    private MailTemplateRenderer renderer;
+
+    private MailTemplateRenderer.TemplateUser[] users;
+
+    private Locale[] locales;
+
+    @Setup
+    public void setup() {
+        messageSource = MailTemplateRendererTest.messageSource();
+        templateEngine = MailTemplateRendererTest.templateEngine(messageSource);
+        renderer = new MailTemplateRenderer(templateEngine, messageSource, BASE_URL, true, TEMPLATES, LANGUAGES);
+        renderer.precompile();
+        users = new MailTemplateRenderer.TemplateUser[EMAILS];
+        locales = new Locale[EMAILS];
+        for (int i = 0; i < EMAILS; i++) {
+            String langKey = LANGUAGES.get(i % LANGUAGES.size());
+            users[i] = new MailTemplateRenderer.TemplateUser("user-" + i, "First" + i, "Last" + i,
+                "user-" + i + "@example.com", langKey, String.format("%020d", i), null);
+            locales[i] = Locale.forLanguageTag(langKey);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EMAILS)
+    public void thymeleaf(Blackhole blackhole) {
+        for (int i = 0; i < EMAILS; i++) {
+            Context context = new Context(locales[i]);
+            context.setVariable("user", users[i]);
+            context.setVariable("baseUrl", BASE_URL);
+            blackhole.consume(templateEngine.process("mail/activationEmail", context));
+            blackhole.consume(messageSource.getMessage("email.activation.title", null, locales[i]));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(EMAILS)
+    public void precompiled(Blackhole blackhole) {
+        for (int i = 0; i < EMAILS; i++) {
+            blackhole.consume(renderer.render("mail/activationEmail", locales[i], users[i]));
+            blackhole.consume(renderer.subject("email.activation.title", locales[i]));
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder().include(MailTemplateRendererBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,169 @@
+package org.jhipster.space.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.support.ResourceBundleMessageSource;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring5.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.templateresource.ITemplateResource;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test class for the {@link MailTemplateRenderer}.
+ */
+public class MailTemplateRendererTest {
+
+    private static final String BASE_URL = "http://127.0.0.1:8080";
+
+    private static final List<String> TEMPLATES = Arrays.asList("mail/activationEmail", "mail/creationEmail",
+        "mail/passwordResetEmail");
+
+    private static final List<String> LANGUAGES = Arrays.asList("en", "fr");
+
+    private SpringTemplateEngine templateEngine;
+
+    private ResourceBundleMessageSource messageSource;
+
+    private final AtomicInteger processedTemplates = new AtomicInteger();
+
+    @BeforeEach
+    public void setup() {
+        messageSource = messageSource();
+        templateEngine = templateEngine(messageSource);
+        // Templates are resolved again each time they are processed
+        templateEngine.setTemplateResolver(new ClassLoaderTemplateResolver() {
+            {
+                setPrefix("templates/");
+                setSuffix(".html");
+                setCharacterEncoding("UTF-8");
+                setCacheable(false);
+            }
+
+            @Override
+            protected ITemplateResource computeTemplateResource(IEngineConfiguration configuration, String ownerTemplate,
+                                                                String template, String resourceName, String characterEncoding,
+                                                                Map<String, Object> templateResolutionAttributes) {
+                processedTemplates.incrementAndGet();
+                return super.computeTemplateResource(configuration, ownerTemplate, template, resourceName,
+                    characterEncoding, templateResolutionAttributes);
+            }
+        });
+    }
+
+    @Test
+    public void testPrecompiledTemplatesRenderLikeThymeleaf() {
+        MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, messageSource, BASE_URL, true, TEMPLATES, LANGUAGES);
+        renderer.precompile();
+        MailTemplateRenderer.TemplateUser user = new MailTemplateRenderer.TemplateUser("john", "John", "Doe",
+            "john.doe@example.com", "en", "12345", "67890");
+
+        for (String language : LANGUAGES) {
+            Locale locale = Locale.forLanguageTag(language);
+            for (String templateName : TEMPLATES) {
+                String content = renderer.render(templateName, locale, user);
+
+                assertThat(content).isEqualTo(process(templateName, locale, user));
+                assertThat(content).contains("john");
+            }
+        }
+        assertThat(renderer.render("mail/activationEmail", Locale.ENGLISH, user)).contains(BASE_URL + "/account/activate?key=12345");
+        assertThat(renderer.render("mail/passwordResetEmail", Locale.ENGLISH, user)).contains(BASE_URL + "/account/reset/finish?key=67890");
+    }
+
+    @Test
+    public void testPrecompiledTemplatesAreNotProcessedAgain() {
+        MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, messageSource, BASE_URL, true,
+            Collections.singletonList("mail/activationEmail"), Collections.singletonList("en"));
+        renderer.precompile();
+        for (int i = 0; i < 10; i++) {
+            renderer.render("mail/activationEmail", Locale.ENGLISH, new MailTemplateRenderer.TemplateUser("user" + i,
+                null, null, "user" + i + "@example.com", "en", "key" + i, null));
+        }
+
+        // Once with placeholders, once with sample values
+        assertThat(processedTemplates).hasValue(2);
+    }
+
+    @Test
+    public void testValuesNeedingEscapingAreRenderedByThymeleaf() {
+        MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, messageSource, BASE_URL, true, TEMPLATES, LANGUAGES);
+        renderer.precompile();
+        MailTemplateRenderer.TemplateUser user = new MailTemplateRenderer.TemplateUser("<b>o'brien</b>", null, null,
+            "o.brien@example.com", "en", "12345", null);
+
+        String content = renderer.render("mail/activationEmail", Locale.ENGLISH, user);
+
+        assertThat(content).isEqualTo(process("mail/activationEmail", Locale.ENGLISH, user));
+        assertThat(content).contains("&lt;b&gt;o&#39;brien&lt;/b&gt;");
+    }
+
+    @Test
+    public void testMissingValuesAreRenderedByThymeleaf() {
+        MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, messageSource, BASE_URL, true, TEMPLATES, LANGUAGES);
+        MailTemplateRenderer.TemplateUser user = new MailTemplateRenderer.TemplateUser("john", null, null,
+            "john.doe@example.com", "en", null, null);
+
+        assertThat(renderer.render("mail/passwordResetEmail", Locale.FRENCH, user))
+            .isEqualTo(process("mail/passwordResetEmail", Locale.FRENCH, user));
+    }
+
+    @Test
+    public void testSubjectIsLocalized() {
+        MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, messageSource, BASE_URL, true, TEMPLATES, LANGUAGES);
+
+        assertThat(renderer.subject("email.test.title", Locale.ENGLISH)).isEqualTo("test title");
+        assertThat(renderer.subject("email.test.title", Locale.FRENCH)).isEqualTo("Activation de votre compte space");
+    }
+
+    @Test
+    public void testNothingIsCachedWhenCacheIsDisabled() {
+        MailTemplateRenderer renderer = new MailTemplateRenderer(templateEngine, messageSource, BASE_URL, false, TEMPLATES, LANGUAGES);
+        renderer.precompile();
+        MailTemplateRenderer.TemplateUser user = new MailTemplateRenderer.TemplateUser("john", null, null,
+            "john.doe@example.com", "en", "12345", null);
+
+        renderer.render("mail/activationEmail", Locale.ENGLISH, user);
+        renderer.render("mail/activationEmail", Locale.ENGLISH, user);
+
+        assertThat(processedTemplates).hasValue(2);
+    }
+
+    private String process(String templateName, Locale locale, MailTemplateRenderer.TemplateUser user) {
+        Context context = new Context(locale);
+        context.setVariable("user", user);
+        context.setVariable("baseUrl", BASE_URL);
+        return templateEngine(messageSource).process(templateName, context);
+    }
+
+    static ResourceBundleMessageSource messageSource() {
+        ResourceBundleMessageSource messageSource = new ResourceBundleMessageSource();
+        messageSource.setBasename("i18n/messages");
+        messageSource.setDefaultEncoding("UTF-8");
+        messageSource.setFallbackToSystemLocale(false);
+        return messageSource;
+    }
+
+    static SpringTemplateEngine templateEngine(ResourceBundleMessageSource messageSource) {
+        ClassLoaderTemplateResolver templateResolver = new ClassLoaderTemplateResolver();
+        templateResolver.setPrefix("templates/");
+        templateResolver.setSuffix(".html");
+        templateResolver.setTemplateMode(TemplateMode.HTML);
+        templateResolver.setCharacterEncoding("UTF-8");
+        SpringTemplateEngine templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(templateResolver);
+        templateEngine.setTemplateEngineMessageSource(messageSource);
+        templateEngine.setEnableSpringELCompiler(true);
+        return templateEngine;
+    }
+}
@@ -0,0 +1,127 @@
+package org.jhipster.space.service;
+
+import org.jhipster.space.SpaceApp;
+import org.jhipster.space.domain.User;
+import org.jhipster.space.repository.UserRepository;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link UserCache}.
+ */
+@SpringBootTest(classes = SpaceApp.class)
+@Transactional
+public class UserCacheIT {
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Cache usersByLogin;
+
+    private Cache usersByEmail;
+
+    private Cache userIdsByLogin;
+
+    private User user;
+
+    @BeforeEach
+    public void init() {
+        usersByLogin = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE));
+        usersByEmail = Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE));
+        userIdsByLogin = Objects.requireNonNull(cacheManager.getCache(UserCache.USER_IDS_BY_LOGIN_CACHE));
+        user = new User();
+        user.setLogin("cache-" + RandomStringUtils.randomAlphanumeric(10).toLowerCase());
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        user.setEmail(user.getLogin() + "@localhost");
+        userRepository.saveAndFlush(user);
+    }
+
+    @Test
+    public void assertThatWriteLookupsCacheTheId() {
+        Optional<User> found = userCache.findForUpdate(user.getLogin());
+
+        assertThat(found).contains(user);
+        assertThat(userIdsByLogin.get(user.getLogin(), Long.class)).isEqualTo(user.getId());
+        assertThat(userCache.findForUpdate(user.getLogin())).contains(user);
+    }
+
+    @Test
+    public void assertThatWriteLookupsIgnoreTheIdOfAnotherLogin() {
+        User admin = userRepository.findOneByLogin("admin").orElseThrow(IllegalStateException::new);
+        userIdsByLogin.put(user.getLogin(), admin.getId());
+
+        assertThat(userCache.findForUpdate(user.getLogin())).contains(user);
+        assertThat(userIdsByLogin.get(user.getLogin(), Long.class)).isEqualTo(user.getId());
+    }
+
+    @Test
+    public void assertThatUpdatesEvictTheSnapshot() {
+        assertThat(userCache.findSnapshot(user.getLogin())).isPresent();
+        assertThat(usersByLogin.get(user.getLogin())).isNotNull();
+
+        user.setFirstName("changed");
+        userRepository.saveAndFlush(user);
+
+        assertThat(usersByLogin.get(user.getLogin())).isNull();
+    }
+
+    @Test
+    public void assertThatSnapshotsAreCopies() {
+        userCache.findSnapshot(user.getLogin()).orElseThrow(IllegalStateException::new).setFirstName("changed");
+
+        assertThat(userCache.findSnapshot(user.getLogin()).get().getFirstName()).isNotEqualTo("changed");
+    }
+
+    @Test
+    public void assertThatIdLookupsKeepTheSnapshot() {
+        userCache.findSnapshot(user.getLogin());
+
+        assertThat(userCache.findId(user.getLogin())).contains(user.getId());
+        assertThat(userCache.findId("unknown-" + user.getLogin())).isEmpty();
+        assertThat(usersByLogin.get(user.getLogin())).isNotNull();
+    }
+
+    @Test
+    public void assertThatEmailChangesEvictThePreviousEmail() {
+        String previousEmail = user.getEmail();
+        assertThat(userRepository.findLoginByEmail(previousEmail)).contains(user.getLogin());
+        assertThat(usersByEmail.get(previousEmail)).isNotNull();
+
+        User managed = userCache.findForUpdate(user.getLogin()).orElseThrow(IllegalStateException::new);
+        managed.setEmail("changed-" + previousEmail);
+        userRepository.flush();
+
+        assertThat(usersByEmail.get(previousEmail)).isNull();
+    }
+
+    @Test
+    public void assertThatBatchWriteLookupsEvictTheSnapshots() {
+        userCache.findSnapshot(user.getLogin());
+
+        List<User> users = userCache.findAllForUpdate(Collections.singleton(user.getLogin()));
+
+        assertThat(users).containsExactly(user);
+        assertThat(usersByLogin.get(user.getLogin())).isNull();
+    }
+}
@@ -0,0 +1,101 @@
+package org.jhipster.space.service;
+
+import org.jhipster.space.SpaceApp;
+import org.jhipster.space.domain.User;
+import org.jhipster.space.repository.UserRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Integration tests for {@link UserExistenceIndex}.
+ */
+@SpringBootTest(classes = SpaceApp.class)
+public class UserExistenceIndexIT {
+
+    @Autowired
+    private UserExistenceIndex userExistenceIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private User user;
+
+    @BeforeEach
+    public void init() {
+        userExistenceIndex.rebuild();
+        user = new User();
+        user.setLogin("existence-" + RandomStringUtils.randomAlphanumeric(10).toLowerCase());
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        user.setEmail(user.getLogin() + "@localhost");
+    }
+
+    @Test
+    public void assertThatExistingUsersAreIndexed() {
+        assertThat(userExistenceIndex.mightContainEmail("admin@localhost")).isTrue();
+        assertThat(userExistenceIndex.mightContainEmail("ADMIN@localhost")).isTrue();
+        assertThat(userExistenceIndex.mightContainEmail(user.getEmail())).isFalse();
+    }
+
+    @Test
+    @Transactional
+    public void assertThatSavedUsersAreIndexed() {
+        userRepository.saveAndFlush(user);
+
+        assertThat(userExistenceIndex.mightContainEmail(user.getEmail().toUpperCase())).isTrue();
+        assertThat(userService.requestPasswordReset(user.getEmail())).isPresent();
+    }
+
+    @Test
+    @Transactional
+    public void assertThatEmailChangesAreIndexed() {
+        userRepository.saveAndFlush(user);
+        user.setEmail("changed-" + user.getEmail());
+        userRepository.saveAndFlush(user);
+
+        assertThat(userExistenceIndex.mightContainEmail(user.getEmail())).isTrue();
+    }
+
+    @Test
+    @Transactional
+    public void assertThatUsersSavedByOtherNodesAreSynced() {
+        // Inserted without the entity listener, as another node would
+        jdbcTemplate.update("insert into jhi_user (id, login, password_hash, email, activated, lang_key, created_by, " +
+                "created_date, last_modified_date) values (?, ?, ?, ?, true, 'en', 'system', current_timestamp, current_timestamp)",
+            Long.MAX_VALUE - 1, user.getLogin(), user.getPassword(), user.getEmail());
+        assertThat(userExistenceIndex.mightContainEmail(user.getEmail())).isFalse();
+
+        userExistenceIndex.sync();
+
+        assertThat(userExistenceIndex.mightContainEmail(user.getEmail())).isTrue();
+        assertThat(userService.requestPasswordReset(user.getEmail())).isPresent();
+    }
+
+    @Test
+    @Transactional
+    public void assertThatPasswordResetOfUnusedEmailSkipsTheLookup() {
+        double skippedBefore = meterRegistry.get("user.existence.lookup.skipped").counter().count();
+
+        assertThat(userService.requestPasswordReset(user.getEmail())).isNotPresent();
+
+        assertThat(meterRegistry.get("user.existence.lookup.skipped").counter().count()).isEqualTo(skippedBefore + 1);
+    }
+}
@@ -0,0 +1,136 @@
+package org.jhipster.space.service;
+
+import org.jhipster.space.SpaceApp;
+import org.jhipster.space.config.ApplicationProperties;
+import org.jhipster.space.domain.User;
+import org.jhipster.space.repository.UserRepository;
+import org.jhipster.space.service.dto.UserImportResultDTO;
+
+import org.apache.commons.lang3.RandomStringUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.mockito.ArgumentCaptor;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+/**
+ * Integration tests for {@link UserImportService}.
+ * <p>
+ * Not transactional, as the import writes its chunks in transactions of its own.
+ */
+@SpringBootTest(classes = SpaceApp.class)
+public class UserImportServiceIT {
+
+    private static final String HEADER = "login;email;activated\n";
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    private List<String> logins;
+
+    @BeforeEach
+    public void init() {
+        String prefix = "import-" + RandomStringUtils.randomAlphanumeric(8).toLowerCase();
+        logins = Arrays.asList(prefix + "-1", prefix + "-taken", prefix + "-2");
+    }
+
+    @AfterEach
+    public void cleanup() {
+        logins.forEach(login -> userRepository.findOneByLogin(login).ifPresent(userRepository::delete));
+    }
+
+    @Test
+    public void assertThatLoginsTakenDuringTheImportOnlyRejectTheirRow() throws Exception {
+        reset(mailService);
+        String rows = logins.stream()
+            .map(login -> login + ";" + login + "@localhost;true\n")
+            .reduce("", String::concat);
+
+        UserImportResultDTO result = userImportService.importUsers(new TakingReader(HEADER, rows, logins.get(1)));
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getErrors()).hasSize(1);
+        assertThat(result.getErrors().get(0).getLine()).isEqualTo(3);
+        assertThat(result.getErrors().get(0).getLogin()).isEqualTo(logins.get(1));
+        assertThat(userRepository.findOneByLogin(logins.get(0))).isPresent();
+        assertThat(userRepository.findOneByLogin(logins.get(2))).isPresent();
+        assertThat(userRepository.findOneByLogin(logins.get(1)).get().getEmail()).isEqualTo(logins.get(1) + "-other@localhost");
+
+        // The rows written again keep the send dates of the failed chunk, the first and third of the schedule
+        ArgumentCaptor<User> mailedUsers = ArgumentCaptor.forClass(User.class);
+        ArgumentCaptor<Instant> sendDates = ArgumentCaptor.forClass(Instant.class);
+        verify(mailService, times(2)).sendCreationEmail(mailedUsers.capture(), sendDates.capture());
+        assertThat(mailedUsers.getAllValues()).extracting(User::getId).doesNotContainNull();
+        assertThat(mailedUsers.getAllValues()).extracting(User::getLogin).containsExactly(logins.get(0), logins.get(2));
+        long intervalNanos = Duration.ofSeconds(1).toNanos() / applicationProperties.getUsers().getImportMailRate();
+        assertThat(Duration.between(sendDates.getAllValues().get(0), sendDates.getAllValues().get(1)))
+            .isEqualTo(Duration.ofNanos(2 * intervalNanos));
+    }
+
+    /**
+     * Reader returning the header line, and then the rows once a user has taken a login, as another node would after
+     * the import read the logins in use.
+     */
+    private final class TakingReader extends Reader {
+
+        private final Reader header;
+
+        private final Reader rows;
+
+        private final String login;
+
+        private boolean taken;
+
+        private TakingReader(String header, String rows, String login) {
+            this.header = new StringReader(header);
+            this.rows = new StringReader(rows);
+            this.login = login;
+        }
+
+        @Override
+        public int read(char[] buffer, int offset, int length) throws IOException {
+            int read = header.read(buffer, offset, length);
+            if (read != -1) {
+                return read;
+            }
+            if (!taken) {
+                User user = new User();
+                user.setLogin(login);
+                user.setEmail(login + "-other@localhost");
+                user.setPassword(RandomStringUtils.random(60));
+                user.setActivated(true);
+                userRepository.saveAndFlush(user);
+                taken = true;
+            }
+            return rows.read(buffer, offset, length);
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
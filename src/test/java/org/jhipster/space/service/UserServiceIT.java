@@ -1,32 +1,47 @@
 package org.jhipster.space.service;
 
 import org.jhipster.space.SpaceApp;
+import org.jhipster.space.config.ApplicationProperties;
 import org.jhipster.space.config.Constants;
+import org.jhipster.space.domain.Authority;
 import org.jhipster.space.domain.User;
+import org.jhipster.space.repository.AuthorityRepository;
 import org.jhipster.space.repository.UserRepository;
+import org.jhipster.space.security.AuthoritiesConstants;
 import org.jhipster.space.service.dto.UserDTO;
 
 import io.github.jhipster.security.RandomUtil;
 
 import org.apache.commons.lang3.RandomStringUtils;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
 import org.springframework.data.auditing.AuditingHandler;
 import org.springframework.data.auditing.DateTimeProvider;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -54,6 +69,24 @@ public class UserServiceIT {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private AuthorityRepository authorityRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManager em;
+
     @Autowired
     private AuditingHandler auditingHandler;
 
@@ -90,6 +123,22 @@ public class UserServiceIT {
         assertThat(maybeUser.orElse(null).getEmail()).isEqualTo(user.getEmail());
         assertThat(maybeUser.orElse(null).getResetDate()).isNotNull();
         assertThat(maybeUser.orElse(null).getResetKey()).isNotNull();
+        verify(mailService).sendPasswordResetMail(maybeUser.get());
+    }
+
+    @Test
+    @Transactional
+    public void assertThatPasswordResetFindsTheEmailInAnyDefaultLocale() {
+        user.setEmail("ivy-" + DEFAULT_EMAIL);
+        userRepository.saveAndFlush(user);
+        Locale defaultLocale = Locale.getDefault();
+        Locale.setDefault(new Locale("tr", "TR"));
+        try {
+            // A Turkish lowercase turns "I" into a dotless "ı"
+            assertThat(userService.requestPasswordReset(user.getEmail().toUpperCase(Locale.ENGLISH))).isPresent();
+        } finally {
+            Locale.setDefault(defaultLocale);
+        }
     }
 
     @Test
@@ -152,6 +201,24 @@ public class UserServiceIT {
         userRepository.delete(user);
     }
 
+    @Test
+    @Transactional
+    public void assertThatConcurrentPasswordHashUpgradesAreSkipped() {
+        String legacyPassword = user.getPassword();
+        userRepository.saveAndFlush(user);
+        Long version = user.getVersion();
+        String firstUpgrade = RandomStringUtils.random(60);
+        String secondUpgrade = RandomStringUtils.random(60);
+
+        // Two logins verified the legacy hash before either of them upgraded it
+        userService.updatePasswordHash(DEFAULT_LOGIN, legacyPassword, firstUpgrade);
+        userService.updatePasswordHash(DEFAULT_LOGIN, legacyPassword, secondUpgrade);
+
+        User upgraded = userRepository.findOneByLogin(DEFAULT_LOGIN).get();
+        assertThat(upgraded.getPassword()).isEqualTo(firstUpgrade);
+        assertThat(upgraded.getVersion()).isEqualTo(version);
+    }
+
     @Test
     @Transactional
     public void assertThatNotActivatedUsersWithNotNullActivationKeyCreatedBefore3DaysAreDeleted() {
@@ -187,6 +254,41 @@ public class UserServiceIT {
         assertThat(maybeDbUser).contains(dbUser);
     }
 
+    @Test
+    @Transactional
+    public void assertThatNotActivatedUsersAreDeletedByChunksWithTheirAuthorities() {
+        int purgeChunkSize = applicationProperties.getUsers().getPurgeChunkSize();
+        applicationProperties.getUsers().setPurgeChunkSize(2);
+        try {
+            when(dateTimeProvider.getNow()).thenReturn(Optional.of(LocalDateTime.now().minus(4, ChronoUnit.DAYS)));
+            List<Long> ids = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                User notActivated = new User();
+                notActivated.setLogin("notactivated" + i);
+                notActivated.setEmail("notactivated" + i + "@localhost");
+                notActivated.setPassword(RandomStringUtils.random(60));
+                notActivated.setActivated(false);
+                notActivated.setActivationKey(RandomUtil.generateActivationKey());
+                notActivated.setAuthorities(Collections.singleton(authorityRepository.findById(AuthoritiesConstants.USER).get()));
+                ids.add(userRepository.saveAndFlush(notActivated).getId());
+                userRepository.findOneWithAuthoritiesByLogin(notActivated.getLogin());
+                userRepository.findLoginByEmail(notActivated.getEmail());
+            }
+
+            userService.removeNotActivatedUsers();
+
+            assertThat(userRepository.findAllById(ids)).isEmpty();
+            assertThat(jdbcTemplate.queryForObject("select count(*) from jhi_user_authority where user_id in (" +
+                ids.stream().map(String::valueOf).collect(Collectors.joining(",")) + ")", Integer.class)).isZero();
+            for (int i = 0; i < 5; i++) {
+                assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get("notactivated" + i)).isNull();
+                assertThat(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE).get("notactivated" + i + "@localhost")).isNull();
+            }
+        } finally {
+            applicationProperties.getUsers().setPurgeChunkSize(purgeChunkSize);
+        }
+    }
+
     @Test
     @Transactional
     public void assertThatAnonymousUserIsNotGet() {
@@ -201,4 +303,44 @@ public class UserServiceIT {
             .isTrue();
     }
 
+    @Test
+    @Transactional
+    public void assertThatGetAllManagedUsersTakesTheSameQueriesWhateverThePageSize() {
+        Authority authority = authorityRepository.findById(AuthoritiesConstants.USER).get();
+        for (int i = 0; i < 30; i++) {
+            User managedUser = new User();
+            managedUser.setLogin("managed-user-" + i);
+            managedUser.setPassword(RandomStringUtils.random(60));
+            managedUser.setActivated(true);
+            managedUser.setEmail("managed-user-" + i + "@localhost");
+            managedUser.setAuthorities(Collections.singleton(authority));
+            userRepository.save(managedUser);
+        }
+        userRepository.flush();
+        em.clear();
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        boolean statisticsEnabled = statistics.isStatisticsEnabled();
+        statistics.setStatisticsEnabled(true);
+        try {
+            statistics.clear();
+            Page<UserDTO> smallPage = userService.getAllManagedUsers(PageRequest.of(0, 5, Sort.by("id")));
+            long smallPageStatements = statistics.getPrepareStatementCount();
+
+            statistics.clear();
+            Page<UserDTO> largePage = userService.getAllManagedUsers(PageRequest.of(0, 25, Sort.by("id")));
+            long largePageStatements = statistics.getPrepareStatementCount();
+
+            assertThat(smallPage.getContent()).hasSize(5);
+            assertThat(largePage.getContent()).hasSize(25);
+            assertThat(largePage.getContent()).allMatch(userDTO -> userDTO.getAuthorities() != null);
+            assertThat(largePage.getContent())
+                .filteredOn(userDTO -> userDTO.getLogin().startsWith("managed-user-"))
+                .allMatch(userDTO -> userDTO.getAuthorities().contains(AuthoritiesConstants.USER));
+            // The page, its count, and the authorities of its users
+            assertThat(smallPageStatements).isEqualTo(3);
+            assertThat(largePageStatements).isEqualTo(smallPageStatements);
+        } finally {
+            statistics.setStatisticsEnabled(statisticsEnabled);
+        }
+    }
 }
@@ -6,6 +6,7 @@ import org.jhipster.space.domain.User;
 import org.jhipster.space.repository.AuthorityRepository;
 import org.jhipster.space.repository.UserRepository;
 import org.jhipster.space.security.AuthoritiesConstants;
+import org.jhipster.space.service.AccountCache;
 import org.jhipster.space.service.UserService;
 import org.jhipster.space.service.dto.PasswordChangeDTO;
 import org.jhipster.space.service.dto.UserDTO;
@@ -17,6 +18,8 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.converter.HttpMessageConverter;
 import org.springframework.security.crypto.password.PasswordEncoder;
@@ -28,6 +31,8 @@ import java.time.Instant;
 import java.util.*;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
 import static org.jhipster.space.web.rest.AccountResourceIT.TEST_USER_LOGIN;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -56,6 +61,9 @@ public class AccountResourceIT {
     @Autowired
     private MockMvc restAccountMockMvc;
 
+    @Autowired
+    private CacheManager cacheManager;
+
     @Test
     @WithUnauthenticatedMockUser
     public void testNonAuthenticatedUser() throws Exception {
@@ -105,6 +113,81 @@ public class AccountResourceIT {
             .andExpect(jsonPath("$.authorities").value(AuthoritiesConstants.ADMIN));
     }
 
+    @Test
+    @Transactional
+    @WithMockUser("test-account-etag")
+    public void testGetAccountIsNotModifiedUntilTheUserChanges() throws Exception {
+        UserDTO user = new UserDTO();
+        user.setLogin("test-account-etag");
+        user.setFirstName("john");
+        user.setEmail("test-account-etag@example.com");
+        user.setLangKey("en");
+        userService.createUser(user);
+        // The caches are evicted when the user is inserted, at the flush
+        userRepository.flush();
+
+        String eTag = restAccountMockMvc.perform(get("/api/account")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        restAccountMockMvc.perform(get("/api/account")
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isNotModified())
+            .andExpect(header().string(HttpHeaders.ETAG, eTag));
+
+        user.setFirstName("jane");
+        restAccountMockMvc.perform(post("/api/account")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(user)))
+            .andExpect(status().isOk());
+
+        restAccountMockMvc.perform(get("/api/account")
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.firstName").value("jane"));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser("test-account-etag-authorities")
+    public void testGetAccountIsModifiedWhenTheAuthoritiesChange() throws Exception {
+        UserDTO user = new UserDTO();
+        user.setLogin("test-account-etag-authorities");
+        user.setEmail("test-account-etag-authorities@example.com");
+        user.setLangKey("en");
+        user.setAuthorities(Collections.singleton(AuthoritiesConstants.USER));
+        userService.createUser(user);
+        userRepository.flush();
+
+        String eTag = restAccountMockMvc.perform(get("/api/account")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        // As another node would, with its own cache
+        cacheManager.getCache(AccountCache.ACCOUNTS_BY_LOGIN_CACHE).clear();
+        restAccountMockMvc.perform(get("/api/account")
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isNotModified());
+
+        User stored = userRepository.findOneByLogin("test-account-etag-authorities").get();
+        stored.getAuthorities().add(authorityRepository.findById(AuthoritiesConstants.ADMIN).get());
+        userRepository.flush();
+
+        restAccountMockMvc.perform(get("/api/account")
+            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(eTag)))
+            .andExpect(jsonPath("$.authorities").value(hasItems(AuthoritiesConstants.ADMIN)));
+    }
+
     @Test
     public void testGetUnknownAccount() throws Exception {
         restAccountMockMvc.perform(get("/api/account")
@@ -155,7 +238,7 @@ public class AccountResourceIT {
                 .content(TestUtil.convertObjectToJsonBytes(invalidUser)))
             .andExpect(status().isBadRequest());
 
-        Optional<User> user = userRepository.findOneByEmailIgnoreCase("funky@example.com");
+        Optional<User> user = userRepository.findOneByEmail("funky@example.com");
         assertThat(user.isPresent()).isFalse();
     }
 
@@ -274,7 +357,7 @@ public class AccountResourceIT {
                 .content(TestUtil.convertObjectToJsonBytes(secondUser)))
             .andExpect(status().isCreated());
 
-        Optional<User> testUser = userRepository.findOneByEmailIgnoreCase("alice2@example.com");
+        Optional<User> testUser = userRepository.findOneByEmail("alice2@example.com");
         assertThat(testUser.isPresent()).isTrue();
         testUser.get().setActivated(true);
         userRepository.save(testUser.get());
@@ -460,6 +543,35 @@ public class AccountResourceIT {
         assertThat(updatedUser.getAuthorities()).isEmpty();
     }
 
+    @Test
+    @Transactional
+    @WithMockUser("save-account-new-email")
+    public void testSaveAccountEvictsPreviousEmail() throws Exception {
+        User user = new User();
+        user.setLogin("save-account-new-email");
+        user.setEmail("save-account-old-email@example.com");
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        userRepository.saveAndFlush(user);
+        assertThat(userRepository.findLoginByEmail("save-account-old-email@example.com")).contains("save-account-new-email");
+
+        UserDTO userDTO = new UserDTO();
+        userDTO.setLogin("not-used");
+        userDTO.setFirstName("firstname");
+        userDTO.setLastName("lastname");
+        userDTO.setEmail("Save-Account-New-Email@example.com");
+        userDTO.setLangKey(Constants.DEFAULT_LANGUAGE);
+
+        restAccountMockMvc.perform(
+            post("/api/account")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(TestUtil.convertObjectToJsonBytes(userDTO)))
+            .andExpect(status().isOk());
+
+        assertThat(userRepository.findLoginByEmail("save-account-old-email@example.com")).isEmpty();
+        assertThat(userRepository.findLoginByEmail("save-account-new-email@example.com")).contains("save-account-new-email");
+    }
+
     @Test
     @Transactional
     @WithMockUser("save-invalid-email")
@@ -488,7 +600,7 @@ public class AccountResourceIT {
                 .content(TestUtil.convertObjectToJsonBytes(userDTO)))
             .andExpect(status().isBadRequest());
 
-        assertThat(userRepository.findOneByEmailIgnoreCase("invalid email")).isNotPresent();
+        assertThat(userRepository.findOneByEmail("invalid email")).isNotPresent();
     }
 
     @Test
@@ -1,9 +1,11 @@
 package org.jhipster.space.web.rest;
 
 import org.jhipster.space.SpaceApp;
+import org.jhipster.space.config.audit.AuditEventCounters;
 import org.jhipster.space.domain.PersistentAuditEvent;
 import org.jhipster.space.repository.PersistenceAuditEventRepository;
 import org.jhipster.space.security.AuthoritiesConstants;
+import org.jhipster.space.service.AuditEventStatsService;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -18,10 +20,14 @@ import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.setup.MockMvcBuilders;
 import org.springframework.transaction.annotation.Transactional;
 
+import javax.persistence.EntityManager;
 import java.time.Instant;
+import java.time.temporal.ChronoUnit;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -47,6 +53,15 @@ public class AuditResourceIT {
     @Autowired
     private MockMvc restAuditMockMvc;
 
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private AuditEventCounters auditEventCounters;
+
+    @Autowired
+    private AuditEventStatsService auditEventStatsService;
+
     @BeforeEach
     public void initTest() {
         auditEventRepository.deleteAll();
@@ -68,6 +83,56 @@ public class AuditResourceIT {
             .andExpect(jsonPath("$.[*].principal").value(hasItem(SAMPLE_PRINCIPAL)));
     }
 
+    @Test
+    public void getAllAuditsAsSlice() throws Exception {
+        // Initialize the database
+        auditEvent.getData().put("remoteAddress", "127.0.0.1");
+        auditEventRepository.save(auditEvent);
+        PersistentAuditEvent otherAuditEvent = new PersistentAuditEvent();
+        otherAuditEvent.setAuditEventType(SAMPLE_TYPE);
+        otherAuditEvent.setPrincipal(SAMPLE_PRINCIPAL);
+        otherAuditEvent.setAuditEventDate(SAMPLE_TIMESTAMP.minusSeconds(1));
+        auditEventRepository.saveAndFlush(otherAuditEvent);
+        entityManager.clear();
+
+        // Get the first audit, without counting them all
+        restAuditMockMvc.perform(get("/management/audits?slice=true&size=1&sort=auditEventDate,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().doesNotExist("X-Total-Count"))
+            .andExpect(header().string("Link", containsString("page=1&size=1>; rel=\"next\"")))
+            .andExpect(jsonPath("$.[0].data.remoteAddress").value("127.0.0.1"));
+
+        // Get the last audit
+        restAuditMockMvc.perform(get("/management/audits?slice=true&page=1&size=1&sort=auditEventDate,desc"))
+            .andExpect(status().isOk())
+            .andExpect(header().string("Link", not(containsString("rel=\"next\""))))
+            .andExpect(jsonPath("$.length()").value(1));
+    }
+
+    @Test
+    public void getAuditStats() throws Exception {
+        Instant hour = Instant.now().minusSeconds(2 * SECONDS_PER_DAY).truncatedTo(ChronoUnit.HOURS);
+        auditEventCounters.record("stats-user", "AUTHENTICATION_FAILURE", hour.plusSeconds(10));
+        auditEventCounters.record("stats-user", "AUTHENTICATION_FAILURE", hour.plusSeconds(20));
+        auditEventStatsService.persistCounts();
+        // Not persisted yet, and added to the persisted count
+        auditEventCounters.record("stats-user", "AUTHENTICATION_FAILURE", hour.plusSeconds(30));
+        auditEventCounters.record("stats-user", "AUTHENTICATION_SUCCESS", hour.plusSeconds(40));
+
+        String fromDate = hour.minusSeconds(SECONDS_PER_DAY).toString().substring(0, 10);
+        String toDate = hour.plusSeconds(SECONDS_PER_DAY).toString().substring(0, 10);
+        restAuditMockMvc.perform(get("/management/audits/stats?fromDate=" + fromDate + "&toDate=" + toDate + "&principal=stats-user"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].type").value("AUTHENTICATION_FAILURE"))
+            .andExpect(jsonPath("$.[0].count").value(3))
+            .andExpect(jsonPath("$.[1].type").value("AUTHENTICATION_SUCCESS"))
+            .andExpect(jsonPath("$.[1].count").value(1));
+        auditEventCounters.drain();
+    }
+
     @Test
     public void getAudit() throws Exception {
         // Initialize the database
@@ -0,0 +1,234 @@
+package org.jhipster.space.web.rest;
+
+import org.jhipster.space.SpaceApp;
+import org.jhipster.space.domain.MailCampaign;
+import org.jhipster.space.domain.User;
+import org.jhipster.space.domain.enumeration.MailCampaignStatus;
+import org.jhipster.space.repository.MailCampaignRepository;
+import org.jhipster.space.repository.UserRepository;
+import org.jhipster.space.security.AuthoritiesConstants;
+import org.jhipster.space.service.MailCampaignService;
+import org.jhipster.space.service.MailService;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Integration tests for the {@link MailCampaignResource} REST controller.
+ */
+@SpringBootTest(classes = SpaceApp.class)
+@AutoConfigureMockMvc
+@WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+public class MailCampaignResourceIT {
+
+    private static final String DEFAULT_TEMPLATE_NAME = "mail/activationEmail";
+
+    private static final String DEFAULT_TITLE_KEY = "email.activation.title";
+
+    @Autowired
+    private MailCampaignRepository mailCampaignRepository;
+
+    @Autowired
+    private MailCampaignService mailCampaignService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MailService mailService;
+
+    @Autowired
+    private MockMvc restMailCampaignMockMvc;
+
+    private MailCampaign mailCampaign;
+
+    /**
+     * Create an entity for this test.
+     */
+    public static MailCampaign createEntity() {
+        MailCampaign mailCampaign = new MailCampaign();
+        mailCampaign.setTemplateName(DEFAULT_TEMPLATE_NAME);
+        mailCampaign.setTitleKey(DEFAULT_TITLE_KEY);
+        mailCampaign.setStatus(MailCampaignStatus.RUNNING);
+        mailCampaign.setCreatedDate(Instant.now());
+        return mailCampaign;
+    }
+
+    @BeforeEach
+    public void initTest() {
+        reset(mailService);
+        mailCampaign = createEntity();
+    }
+
+    @Test
+    @Transactional
+    public void createMailCampaign() throws Exception {
+        int databaseSizeBeforeCreate = mailCampaignRepository.findAll().size();
+        MailCampaign newMailCampaign = new MailCampaign();
+        newMailCampaign.setTemplateName(DEFAULT_TEMPLATE_NAME);
+        newMailCampaign.setTitleKey(DEFAULT_TITLE_KEY);
+
+        restMailCampaignMockMvc.perform(post("/api/mail-campaigns")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(newMailCampaign)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.status").value(MailCampaignStatus.RUNNING.toString()))
+            .andExpect(jsonPath("$.lastUserId").value(0));
+
+        List<MailCampaign> mailCampaignList = mailCampaignRepository.findAll();
+        assertThat(mailCampaignList).hasSize(databaseSizeBeforeCreate + 1);
+        MailCampaign testMailCampaign = mailCampaignList.get(mailCampaignList.size() - 1);
+        assertThat(testMailCampaign.getTemplateName()).isEqualTo(DEFAULT_TEMPLATE_NAME);
+        assertThat(testMailCampaign.getTitleKey()).isEqualTo(DEFAULT_TITLE_KEY);
+        assertThat(testMailCampaign.getStatus()).isEqualTo(MailCampaignStatus.RUNNING);
+        assertThat(testMailCampaign.getCreatedBy()).isEqualTo("user");
+    }
+
+    @Test
+    @Transactional
+    public void createMailCampaignWithInvalidTemplateName() throws Exception {
+        int databaseSizeBeforeCreate = mailCampaignRepository.findAll().size();
+        MailCampaign newMailCampaign = new MailCampaign();
+        newMailCampaign.setTemplateName("../config/application");
+        newMailCampaign.setTitleKey(DEFAULT_TITLE_KEY);
+
+        restMailCampaignMockMvc.perform(post("/api/mail-campaigns")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(newMailCampaign)))
+            .andExpect(status().isBadRequest());
+
+        assertThat(mailCampaignRepository.findAll()).hasSize(databaseSizeBeforeCreate);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser
+    public void createMailCampaignIsForbiddenForUsers() throws Exception {
+        restMailCampaignMockMvc.perform(post("/api/mail-campaigns")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(mailCampaign)))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    @Transactional
+    public void runMailCampaignEmailsAllActivatedUsers() throws Exception {
+        List<User> recipients = activatedUsers();
+        mailCampaignRepository.saveAndFlush(mailCampaign);
+
+        assertThat(mailCampaignService.runPending()).isEqualTo(recipients.size());
+
+        for (User recipient : recipients) {
+            verify(mailService).sendEmailFromTemplate(recipient, DEFAULT_TEMPLATE_NAME, DEFAULT_TITLE_KEY);
+        }
+        verify(mailService, times(recipients.size())).sendEmailFromTemplate(any(User.class), anyString(), anyString());
+        MailCampaign completed = mailCampaignRepository.findById(mailCampaign.getId()).get();
+        assertThat(completed.getStatus()).isEqualTo(MailCampaignStatus.COMPLETED);
+        assertThat(completed.getEnqueuedCount()).isEqualTo(recipients.size());
+        assertThat(completed.getLastUserId()).isEqualTo(recipients.get(recipients.size() - 1).getId());
+        assertThat(completed.getCompletedDate()).isNotNull();
+    }
+
+    @Test
+    @Transactional
+    public void runMailCampaignResumesFromCheckpoint() throws Exception {
+        List<User> recipients = activatedUsers();
+        User checkpoint = recipients.get(0);
+        mailCampaign.setLastUserId(checkpoint.getId());
+        mailCampaign.setEnqueuedCount(1);
+        mailCampaignRepository.saveAndFlush(mailCampaign);
+
+        assertThat(mailCampaignService.runPending()).isEqualTo(recipients.size() - 1);
+
+        verify(mailService, never()).sendEmailFromTemplate(eq(checkpoint), anyString(), anyString());
+        verify(mailService, times(recipients.size() - 1)).sendEmailFromTemplate(any(User.class), anyString(), anyString());
+        assertThat(mailCampaignRepository.findById(mailCampaign.getId()).get().getEnqueuedCount()).isEqualTo(recipients.size());
+    }
+
+    @Test
+    @Transactional
+    public void runMailCampaignFailsOnRenderingError() throws Exception {
+        doThrow(new IllegalStateException("Template not found")).when(mailService)
+            .sendEmailFromTemplate(any(User.class), anyString(), anyString());
+        mailCampaignRepository.saveAndFlush(mailCampaign);
+
+        assertThat(mailCampaignService.runPending()).isZero();
+
+        MailCampaign failed = mailCampaignRepository.findById(mailCampaign.getId()).get();
+        assertThat(failed.getStatus()).isEqualTo(MailCampaignStatus.FAILED);
+        assertThat(failed.getLastError()).isEqualTo("Template not found");
+        assertThat(failed.getLastUserId()).isZero();
+    }
+
+    @Test
+    @Transactional
+    public void getAllMailCampaigns() throws Exception {
+        mailCampaignRepository.saveAndFlush(mailCampaign);
+
+        restMailCampaignMockMvc.perform(get("/api/mail-campaigns?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].id").value(hasItem(mailCampaign.getId().intValue())))
+            .andExpect(jsonPath("$.[*].templateName").value(hasItem(DEFAULT_TEMPLATE_NAME)));
+    }
+
+    @Test
+    @Transactional
+    public void getMailCampaign() throws Exception {
+        mailCampaignRepository.saveAndFlush(mailCampaign);
+
+        restMailCampaignMockMvc.perform(get("/api/mail-campaigns/{id}", mailCampaign.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(mailCampaign.getId().intValue()))
+            .andExpect(jsonPath("$.titleKey").value(DEFAULT_TITLE_KEY))
+            .andExpect(jsonPath("$.status").value(MailCampaignStatus.RUNNING.toString()));
+    }
+
+    @Test
+    @Transactional
+    public void getNonExistingMailCampaign() throws Exception {
+        restMailCampaignMockMvc.perform(get("/api/mail-campaigns/{id}", Long.MAX_VALUE))
+            .andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    public void cancelMailCampaign() throws Exception {
+        mailCampaignRepository.saveAndFlush(mailCampaign);
+
+        restMailCampaignMockMvc.perform(post("/api/mail-campaigns/{id}/cancel", mailCampaign.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(MailCampaignStatus.CANCELLED.toString()));
+
+        assertThat(mailCampaignService.runPending()).isZero();
+        verifyNoInteractions(mailService);
+    }
+
+    private List<User> activatedUsers() {
+        return userRepository.findAll().stream()
+            .filter(user -> user.getActivated() && user.getEmail() != null)
+            .sorted(Comparator.comparing(User::getId))
+            .collect(Collectors.toList());
+    }
+}
@@ -5,9 +5,11 @@ import org.jhipster.space.domain.Authority;
 import org.jhipster.space.domain.User;
 import org.jhipster.space.repository.UserRepository;
 import org.jhipster.space.security.AuthoritiesConstants;
+import org.jhipster.space.service.MailService;
 import org.jhipster.space.service.dto.UserDTO;
 import org.jhipster.space.service.mapper.UserMapper;
 import org.jhipster.space.web.rest.vm.ManagedUserVM;
+import org.jhipster.space.web.rest.vm.UserAuthoritiesVM;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,6 +30,11 @@ import java.util.function.Consumer;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItems;
 import static org.hamcrest.Matchers.hasItem;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -74,6 +81,9 @@ public class UserResourceIT {
     @Autowired
     private CacheManager cacheManager;
 
+    @Autowired
+    private MailService mailService;
+
     @Autowired
     private MockMvc restUserMockMvc;
 
@@ -248,6 +258,39 @@ public class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    public void searchUsers() throws Exception {
+        Authority authority = new Authority();
+        authority.setName(AuthoritiesConstants.USER);
+        user.setLastName("Searched_Name");
+        user.setAuthorities(Collections.singleton(authority));
+        userRepository.saveAndFlush(user);
+        User other = createEntity(em);
+        other.setLastName("SearchedXName");
+        userRepository.saveAndFlush(other);
+
+        restUserMockMvc.perform(get("/api/users?search=ED_NA&sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(header().string("X-Total-Count", "1"))
+            .andExpect(jsonPath("$.[*].login").value(hasItems(DEFAULT_LOGIN)))
+            .andExpect(jsonPath("$.[0].email").value(DEFAULT_EMAIL))
+            .andExpect(jsonPath("$.[0].activated").value(true))
+            .andExpect(jsonPath("$.[0].authorities").value(hasItems(AuthoritiesConstants.USER)));
+
+        restUserMockMvc.perform(get("/api/users?search=" + DEFAULT_EMAIL.toUpperCase() + "&sort=id,asc")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[0].login").value(DEFAULT_LOGIN))
+            .andExpect(jsonPath("$.[0].authorities").value(hasItems(AuthoritiesConstants.USER)));
+
+        restUserMockMvc.perform(get("/api/users?search=%25&sort=id,desc")
+            .accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
     @Test
     @Transactional
     void getAllUsersSortedByParameters() throws Exception {
@@ -478,6 +521,154 @@ public class UserResourceIT {
         assertPersistedUsers(users -> assertThat(users).hasSize(databaseSizeBeforeDelete - 1));
     }
 
+    @Test
+    @Transactional
+    public void createUsersInBatch() throws Exception {
+        int databaseSizeBeforeCreate = userRepository.findAll().size();
+        List<UserDTO> userDTOs = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            UserDTO userDTO = new UserDTO();
+            userDTO.setLogin(DEFAULT_LOGIN + i);
+            userDTO.setEmail(i + DEFAULT_EMAIL);
+            userDTO.setFirstName(DEFAULT_FIRSTNAME);
+            userDTO.setLangKey(DEFAULT_LANGKEY);
+            userDTO.setAuthorities(new HashSet<>(Arrays.asList(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN)));
+            userDTOs.add(userDTO);
+        }
+
+        restUserMockMvc.perform(post("/api/users/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(userDTOs)))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.[*].login").value(hasItems(DEFAULT_LOGIN + "0", DEFAULT_LOGIN + "1", DEFAULT_LOGIN + "2")));
+
+        assertPersistedUsers(users -> assertThat(users).hasSize(databaseSizeBeforeCreate + 3));
+        User testUser = userRepository.findOneWithAuthoritiesByLogin(DEFAULT_LOGIN + "2").get();
+        assertThat(testUser.getEmail()).isEqualTo("2" + DEFAULT_EMAIL);
+        assertThat(testUser.getActivated()).isTrue();
+        assertThat(testUser.getPassword()).isNotNull();
+        assertThat(testUser.getAuthorities()).extracting(Authority::getName)
+            .containsExactlyInAnyOrder(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+    }
+
+    @Test
+    @Transactional
+    public void createUsersInBatchWithExistingEmail() throws Exception {
+        userRepository.saveAndFlush(user);
+        int databaseSizeBeforeCreate = userRepository.findAll().size();
+        UserDTO newUser = new UserDTO();
+        newUser.setLogin("anotherlogin");
+        newUser.setEmail("anothermail@localhost");
+        UserDTO existingEmail = new UserDTO();
+        existingEmail.setLogin("yetanotherlogin");
+        existingEmail.setEmail(DEFAULT_EMAIL.toUpperCase());
+
+        restUserMockMvc.perform(post("/api/users/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(newUser, existingEmail))))
+            .andExpect(status().isBadRequest());
+
+        assertPersistedUsers(users -> assertThat(users).hasSize(databaseSizeBeforeCreate));
+    }
+
+    @Test
+    @Transactional
+    public void createUsersInBatchWithInvalidLogin() throws Exception {
+        UserDTO userDTO = new UserDTO();
+        userDTO.setLogin("invalid login");
+        userDTO.setEmail(DEFAULT_EMAIL);
+
+        restUserMockMvc.perform(post("/api/users/batch")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Collections.singletonList(userDTO))))
+            .andExpect(status().isBadRequest());
+
+        assertThat(userRepository.findOneByLogin("invalid login")).isNotPresent();
+    }
+
+    @Test
+    @Transactional
+    public void updateAuthoritiesInBatch() throws Exception {
+        userRepository.saveAndFlush(user);
+        UserAuthoritiesVM userAuthorities = new UserAuthoritiesVM();
+        userAuthorities.setLogin(user.getLogin());
+        userAuthorities.setAuthorities(Collections.singleton(AuthoritiesConstants.ADMIN));
+        UserAuthoritiesVM unknownUser = new UserAuthoritiesVM();
+        unknownUser.setLogin("unknown");
+        unknownUser.setAuthorities(Collections.singleton(AuthoritiesConstants.ADMIN));
+
+        restUserMockMvc.perform(put("/api/users/batch/authorities")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(userAuthorities, unknownUser))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].authorities").value(hasItem(AuthoritiesConstants.ADMIN)));
+
+        assertThat(userRepository.findOneWithAuthoritiesByLogin(user.getLogin()).get().getAuthorities())
+            .extracting(Authority::getName).containsExactly(AuthoritiesConstants.ADMIN);
+    }
+
+    @Test
+    @Transactional
+    public void deactivateUsersInBatch() throws Exception {
+        userRepository.saveAndFlush(user);
+        userRepository.findOneWithAuthoritiesByLogin(user.getLogin());
+
+        restUserMockMvc.perform(post("/api/users/batch/deactivate")
+            .contentType(MediaType.APPLICATION_JSON)
+            .content(TestUtil.convertObjectToJsonBytes(Arrays.asList(user.getLogin(), "unknown"))))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].login").value(hasItem(user.getLogin())))
+            .andExpect(jsonPath("$.[0].activated").value(false));
+
+        assertThat(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).get(user.getLogin())).isNull();
+        assertThat(userRepository.findOneByLogin(user.getLogin()).get().getActivated()).isFalse();
+    }
+
+    @Test
+    @Transactional
+    public void importUsers() throws Exception {
+        reset(mailService);
+        String csv = "id;login;password_hash;first_name;last_name;email;image_url;activated;lang_key;created_by;last_modified_by\n" +
+            "10;Imported-1;;\"Jean; \"\"JJ\"\"\";Doe;Imported-1@localhost;;true;fr;system;system\n" +
+            "11;imported-2;" + RandomStringUtils.randomAlphanumeric(60) + ";;;imported-2@localhost;;false;;system;system\n" +
+            "\n" +
+            "12;admin;;;;imported-3@localhost;;true;en;system;system\n" +
+            "13;imported-4;;;;invalid-email;;true;en;system;system\n" +
+            "14;imported-5;;;;imported-1@localhost;;true;en;system;system\n";
+
+        restUserMockMvc.perform(post("/api/users/import")
+            .contentType("text/csv")
+            .content(csv))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.imported").value(2))
+            .andExpect(jsonPath("$.rejected").value(3))
+            .andExpect(jsonPath("$.errors.[*].line").value(hasItems(5, 6, 7)));
+
+        User imported = userRepository.findOneWithAuthoritiesByLogin("imported-1").get();
+        assertThat(imported.getFirstName()).isEqualTo("Jean; \"JJ\"");
+        assertThat(imported.getEmail()).isEqualTo("imported-1@localhost");
+        assertThat(imported.getLangKey()).isEqualTo("fr");
+        assertThat(imported.getActivated()).isTrue();
+        assertThat(imported.getResetKey()).isNotNull();
+        assertThat(imported.getAuthorities()).extracting(Authority::getName).containsExactly(AuthoritiesConstants.USER);
+        User withPassword = userRepository.findOneByLogin("imported-2").get();
+        assertThat(withPassword.getActivated()).isFalse();
+        assertThat(withPassword.getLangKey()).isEqualTo(DEFAULT_LANGKEY);
+        assertThat(withPassword.getResetKey()).isNull();
+        verify(mailService).sendCreationEmail(eq(imported), any(Instant.class));
+        verify(mailService, times(1)).sendCreationEmail(any(User.class), any(Instant.class));
+    }
+
+    @Test
+    @Transactional
+    public void importUsersWithoutLoginColumn() throws Exception {
+        restUserMockMvc.perform(post("/api/users/import")
+            .contentType("text/csv")
+            .content("id;email\n1;imported@localhost\n"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     public void getAllAuthorities() throws Exception {
@@ -1,7 +1,9 @@
 package org.jhipster.space.web.rest.errors;
 
+import org.jhipster.space.domain.User;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.security.access.AccessDeniedException;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.web.bind.annotation.*;
@@ -18,6 +20,11 @@ public class ExceptionTranslatorTestController {
         throw new ConcurrencyFailureException("test concurrency failure");
     }
 
+    @GetMapping("/optimistic-locking-failure")
+    public void optimisticLockingFailure() {
+        throw new ObjectOptimisticLockingFailureException(User.class, 1L);
+    }
+
     @PostMapping("/method-argument")
     public void methodArgument(@Valid @RequestBody TestDTO testDTO) {
     }
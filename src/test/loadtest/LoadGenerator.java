@@ -0,0 +1,92 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads an endpoint with concurrent GET requests for a while, and prints the throughput, the latency percentiles and
+ * the errors, for virtual-threads.sh.
+ * <p>
+ * Each concurrent request loops on its own virtual thread, so it needs JDK 21 or later, and runs as a single source
+ * file, without being compiled with the application:
+ *
+ * <pre>
+ * java src/test/loadtest/LoadGenerator.java &lt;url&gt; &lt;bearer token&gt; &lt;seconds&gt; &lt;concurrency&gt;
+ * </pre>
+ */
+public class LoadGenerator {
+
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        String token = args[1];
+        long nanos = Duration.ofSeconds(Long.parseLong(args[2])).toNanos();
+        int concurrency = Integer.parseInt(args[3]);
+
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+            .header("Authorization", "Bearer " + token)
+            .timeout(Duration.ofSeconds(30))
+            .GET()
+            .build();
+
+        AtomicLong errors = new AtomicLong();
+        List<long[]> latencies = new ArrayList<>();
+        List<Thread> threads = new ArrayList<>();
+        long start = System.nanoTime();
+        long deadline = start + nanos;
+        for (int i = 0; i < concurrency; i++) {
+            long[][] recorded = {new long[1024]};
+            int[] count = {0};
+            threads.add(Thread.ofVirtual().start(() -> {
+                while (System.nanoTime() < deadline) {
+                    long sent = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 200) {
+                            errors.incrementAndGet();
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        errors.incrementAndGet();
+                        continue;
+                    }
+                    if (count[0] == recorded[0].length) {
+                        recorded[0] = Arrays.copyOf(recorded[0], count[0] * 2);
+                    }
+                    recorded[0][count[0]++] = System.nanoTime() - sent;
+                }
+                synchronized (latencies) {
+                    latencies.add(Arrays.copyOf(recorded[0], count[0]));
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long[] all = latencies.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        System.out.printf("Requests/sec: %.1f%n", all.length / seconds);
+        System.out.printf("p50: %.4f%n", percentile(all, 0.50));
+        System.out.printf("p99: %.4f%n", percentile(all, 0.99));
+        System.out.printf("Errors: %d%n", errors.get());
+    }
+
+    /**
+     * @return the percentile of the sorted latencies, in seconds.
+     */
+    private static double percentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile * sorted.length) - 1)] / 1e9;
+    }
+}
@@ -0,0 +1,104 @@
+#!/bin/bash
+#
+# Compares the application on Undertow worker threads and on virtual threads under the same load.
+#
+# Starts the packaged application once without and once with the `virtual-threads` profile, loads
+# the same endpoint with LoadGenerator.java and writes the throughput, the latency percentiles, the
+# errors and the thread and connection metrics of each run to target/loadtest/.
+#
+# Requires JDK 21 or later, curl, and a packaged application:
+#
+#   ./mvnw -Pdev -DskipTests package
+#   src/test/loadtest/virtual-threads.sh
+#
+# Settings, from the environment:
+#   JAR          the packaged application (default: target/space-0.0.1-SNAPSHOT.jar)
+#   PROFILES     the profiles of both runs (default: dev)
+#   PORT         the HTTP port (default: 8080)
+#   URL_PATH     the endpoint to load (default: /api/users)
+#   DURATION     the length of each run, in seconds (default: 60), after a 10s warm-up
+#   CONCURRENCY  the concurrent requests, well above the 8 * CPUs worker threads (default: 1000)
+
+set -eu
+
+JAR=${JAR:-target/space-0.0.1-SNAPSHOT.jar}
+PROFILES=${PROFILES:-dev}
+PORT=${PORT:-8080}
+URL_PATH=${URL_PATH:-/api/users}
+DURATION=${DURATION:-60}
+CONCURRENCY=${CONCURRENCY:-1000}
+
+BASE_URL="http://localhost:${PORT}"
+LOAD_GENERATOR="$(dirname "$0")/LoadGenerator.java"
+OUTPUT=target/loadtest
+RESULTS="${OUTPUT}/results.md"
+
+command -v curl >/dev/null || { echo "curl is required" >&2; exit 1; }
+[ -f "${JAR}" ] || { echo "${JAR} not found, package the application first" >&2; exit 1; }
+java -version 2>&1 | grep -Eq 'version "(2[1-9]|[3-9][0-9])' || { echo "JDK 21 or later is required" >&2; exit 1; }
+
+mkdir -p "${OUTPUT}"
+APP_PID=
+
+stop_application() {
+    if [ -n "${APP_PID}" ]; then
+        kill "${APP_PID}" 2>/dev/null && wait "${APP_PID}" 2>/dev/null || true
+        APP_PID=
+    fi
+}
+trap stop_application EXIT
+
+start_application() {
+    # The API rate limit would answer most requests with a 429, rather than load the threads
+    java -jar "${JAR}" --spring.profiles.active="$1" --server.port="${PORT}" \
+        --application.security.api-rate-limit.enabled=false >"${OUTPUT}/$2.log" 2>&1 &
+    APP_PID=$!
+    for _ in $(seq 1 180); do
+        if curl -sf "${BASE_URL}/management/health" >/dev/null; then
+            return
+        fi
+        kill -0 "${APP_PID}" 2>/dev/null || { echo "The application did not start, see ${OUTPUT}/$2.log" >&2; exit 1; }
+        sleep 1
+    done
+    echo "The application did not start within 180s, see ${OUTPUT}/$2.log" >&2
+    exit 1
+}
+
+authenticate() {
+    curl -sf -H 'Content-Type: application/json' -d '{"username":"admin","password":"admin"}' \
+        "${BASE_URL}/api/authenticate" | tr -d "\n" | sed -E 's/.*"id_token" *: *"([^"]+)".*/\1/'
+}
+
+metric() {
+    curl -sf "${BASE_URL}/management/prometheus" | grep -E "^$1(\{| )" | awk '{ sum += $NF } END { print sum }'
+}
+
+run() {
+    local mode=$1 profiles=$2 token report
+    echo "Loading ${URL_PATH} on ${mode} threads..."
+    start_application "${profiles}" "${mode}"
+    token=$(authenticate)
+    java "${LOAD_GENERATOR}" "${BASE_URL}${URL_PATH}" "${token}" 10 "${CONCURRENCY}" >/dev/null
+    report="${OUTPUT}/${mode}.txt"
+    java "${LOAD_GENERATOR}" "${BASE_URL}${URL_PATH}" "${token}" "${DURATION}" "${CONCURRENCY}" >"${report}"
+    printf '| %s | %s | %s | %s | %s | %s | %s |\n' "${mode}" \
+        "$(awk '/^Requests\/sec:/ { print $2 }' "${report}")" \
+        "$(awk '/^p50:/ { print $2 }' "${report}")" \
+        "$(awk '/^p99:/ { print $2 }' "${report}")" \
+        "$(awk '/^Errors:/ { print $2 }' "${report}")" \
+        "$(metric jvm_threads_live_threads)" \
+        "$(metric hikaricp_connections_pending)" >>"${RESULTS}"
+    stop_application
+}
+
+{
+    echo "${URL_PATH}, ${CONCURRENCY} concurrent requests for ${DURATION}s, $(java -version 2>&1 | head -1), $(nproc) CPUs"
+    echo
+    echo '| Threads | Requests/s | p50 (s) | p99 (s) | Errors | jvm.threads.live | hikaricp.connections.pending |'
+    echo '|---------|------------|---------|---------|--------|------------------|------------------------------|'
+} >"${RESULTS}"
+
+run platform "${PROFILES}"
+run virtual "${PROFILES},virtual-threads"
+
+cat "${RESULTS}"